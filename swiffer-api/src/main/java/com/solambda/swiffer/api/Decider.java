@@ -13,4 +13,9 @@ package com.solambda.swiffer.api;
  */
 public interface Decider extends TaskListService {
 
+	/**
+	 * @return the metrics of the pool executing the decision tasks
+	 */
+	ExecutionMetrics executionMetrics();
+
 }
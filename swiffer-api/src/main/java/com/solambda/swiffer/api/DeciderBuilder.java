@@ -5,15 +5,28 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.amazonaws.services.simpleworkflow.model.CountPendingDecisionTasksRequest;
+import com.amazonaws.services.simpleworkflow.model.TaskList;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.solambda.swiffer.api.duration.DurationTransformer;
+import com.solambda.swiffer.api.internal.PollerAutoscaler;
+import com.solambda.swiffer.api.internal.TaskContextPoller;
 import com.solambda.swiffer.api.internal.VersionedName;
+import com.solambda.swiffer.api.internal.decisions.AsyncDecisionTaskPoller;
 import com.solambda.swiffer.api.internal.decisions.DeciderImpl;
+import com.solambda.swiffer.api.internal.decisions.DecisionStages;
+import com.solambda.swiffer.api.internal.decisions.DecisionTaskContext;
 import com.solambda.swiffer.api.internal.decisions.DecisionTaskPoller;
+import com.solambda.swiffer.api.internal.decisions.ExecutionHistoryCache;
 import com.solambda.swiffer.api.internal.decisions.WorkflowTemplate;
 import com.solambda.swiffer.api.internal.decisions.WorkflowTemplateFactory;
 import com.solambda.swiffer.api.internal.decisions.WorkflowTemplateRegistry;
@@ -33,6 +46,11 @@ public class DeciderBuilder {
 	 */
 	private static final RetryPolicy DEFAULT_RETRY_POLICY = new ExponentialRetryPolicy(Duration.ofSeconds(5), Duration.ofHours(1));
 
+	/**
+	 * Default maximum number of decision tasks waiting for each stage.
+	 */
+	private static final int DEFAULT_STAGE_QUEUE_CAPACITY = 10;
+
 	private final AmazonSimpleWorkflow swf;
 	private final String domain;
 	private final WorkflowTypeRegistry workflowTypeRegistry;
@@ -43,6 +61,17 @@ public class DeciderBuilder {
 	private String taskList;
 	private List<Object> workflowTemplates;
     private RetryPolicy globalRetryPolicy;
+	private int pollingThreads = 1;
+	private int minPollers;
+	private int maxPollers;
+	private Duration autoscalingInterval;
+	private int decisionThreads = 1;
+	private boolean pipelined;
+	private int stageQueueCapacity = DEFAULT_STAGE_QUEUE_CAPACITY;
+	private int historyCacheSize;
+	private Duration historyCacheIdleTime = ExecutionHistoryCache.DEFAULT_IDLE_TIME;
+	private int offHeapEventThreshold;
+	private HistoryMode historyMode = HistoryMode.EAGER;
 
 	public DeciderBuilder(final AmazonSimpleWorkflow swf, final String domain, DataMapper dataMapper, DurationTransformer durationTransformer) {
 		super();
@@ -56,13 +85,58 @@ public class DeciderBuilder {
 	}
 
 	/**
+	 * Build the decider. When the SWF client is an
+	 * {@link AmazonSimpleWorkflowAsync}, the task list is polled with the
+	 * asynchronous client.
+	 *
 	 * @return a new instance of {@link Decider}
 	 */
 	public Decider build() {
 		final String taskList = this.taskList == null ? "default" : this.taskList;
-		final DecisionTaskPoller poller = new DecisionTaskPoller(this.swf, this.domain, taskList, this.identity, dataMapper);
+		final TaskContextPoller<DecisionTaskContext> poller = createPoller(taskList);
 		final WorkflowTemplateRegistry registry = createWorkflowTemplateRegistry();
-		return new DeciderImpl(poller, registry);
+		if (this.pipelined) {
+			final DecisionStages stages = DecisionStages.pipeline(taskList, this.decisionThreads,
+					this.stageQueueCapacity);
+			return autoscale(taskList, new DeciderImpl(poller, registry, this.pollingThreads, stages));
+		}
+		if (this.pollingThreads == 1 && this.decisionThreads == 1 && this.autoscalingInterval == null) {
+			// a single polling thread can execute the decision tasks itself
+			return new DeciderImpl(poller, registry);
+		}
+		final ExecutorService decisionExecutor = Executors.newFixedThreadPool(this.decisionThreads,
+				new ThreadFactoryBuilder()
+						.setNameFormat("swiffer-decider-" + taskList.replace("%", "%%") + "-%d")
+						.build());
+		return autoscale(taskList, new DeciderImpl(poller, registry, this.pollingThreads,
+				DecisionStages.sharedPool(decisionExecutor, this.decisionThreads)));
+	}
+
+	private Decider autoscale(final String taskList, final DeciderImpl decider) {
+		if (this.autoscalingInterval != null) {
+			decider.autoscalePollers(createAutoscaler(taskList));
+		}
+		return decider;
+	}
+
+	private PollerAutoscaler createAutoscaler(final String taskList) {
+		return new PollerAutoscaler(this.minPollers, this.maxPollers,
+				() -> this.swf.countPendingDecisionTasks(new CountPendingDecisionTasksRequest()
+						.withDomain(this.domain)
+						.withTaskList(new TaskList().withName(taskList)))
+						.getCount(),
+				this.autoscalingInterval);
+	}
+
+	private TaskContextPoller<DecisionTaskContext> createPoller(final String taskList) {
+		final ExecutionHistoryCache historyCache = this.historyCacheSize == 0 ? null
+				: new ExecutionHistoryCache(this.historyCacheSize, this.historyCacheIdleTime, this.offHeapEventThreshold);
+		if (this.swf instanceof AmazonSimpleWorkflowAsync) {
+			return new AsyncDecisionTaskPoller((AmazonSimpleWorkflowAsync) this.swf, this.domain, taskList,
+					this.identity, this.dataMapper, historyCache, this.historyMode);
+		}
+		return new DecisionTaskPoller(this.swf, this.domain, taskList, this.identity, this.dataMapper,
+				historyCache, this.historyMode);
 	}
 
 	/**
@@ -75,6 +149,204 @@ public class DeciderBuilder {
 		return this;
 	}
 
+	/**
+	 * Optional number of threads polling the task list concurrently, default
+	 * to 1.
+	 *
+	 * @param pollingThreads
+	 *            the number of concurrent polling threads, greater than 0
+	 * @return this builder
+	 */
+	public DeciderBuilder pollingThreads(final int pollingThreads) {
+		Preconditions.checkArgument(pollingThreads > 0, "the number of polling threads should be greater than 0");
+		this.pollingThreads = pollingThreads;
+		return this;
+	}
+
+	/**
+	 * Optional: adjust the number of polling threads between the given bounds
+	 * while the decider is running. A polling thread is added while the polls
+	 * keep returning tasks or while tasks are pending in the task list, and
+	 * removed while the long-polls keep coming back empty. The
+	 * {@link #pollingThreads(int) polling threads} are the initial number of
+	 * polling threads.
+	 *
+	 * @param minPollers
+	 *            the minimum number of polling threads, greater than 0
+	 * @param maxPollers
+	 *            the maximum number of polling threads
+	 * @return this builder
+	 */
+	public DeciderBuilder autoscalePollers(final int minPollers, final int maxPollers) {
+		return autoscalePollers(minPollers, maxPollers, PollerAutoscaler.DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * Optional: adjust the number of polling threads between the given bounds
+	 * while the decider is running.
+	 *
+	 * @param minPollers
+	 *            the minimum number of polling threads, greater than 0
+	 * @param maxPollers
+	 *            the maximum number of polling threads
+	 * @param interval
+	 *            the time between two adjustments, it should be longer than
+	 *            a long-poll (60 seconds)
+	 * @return this builder
+	 * @see #autoscalePollers(int, int)
+	 */
+	public DeciderBuilder autoscalePollers(final int minPollers, final int maxPollers, final Duration interval) {
+		Preconditions.checkArgument(minPollers > 0, "the minimum number of pollers should be greater than 0");
+		Preconditions.checkArgument(maxPollers >= minPollers,
+				"the maximum number of pollers should be greater than the minimum");
+		this.minPollers = minPollers;
+		this.maxPollers = maxPollers;
+		this.autoscalingInterval = Preconditions.checkNotNull(interval, "please specify the interval!");
+		return this;
+	}
+
+	/**
+	 * Optional maximum number of decision tasks executed concurrently, default
+	 * to 1.
+	 * <p>
+	 * The polling threads hand the decision tasks over to the decision
+	 * threads: the decision tasks of different workflow executions are
+	 * executed in parallel, whereas the decision tasks of the same workflow
+	 * execution are never executed concurrently. When the decider is
+	 * {@link #pipelined(boolean) pipelined}, each stage has this number of
+	 * threads.
+	 *
+	 * @param decisionThreads
+	 *            the maximum number of decision tasks executed concurrently,
+	 *            greater than 0
+	 * @return this builder
+	 */
+	public DeciderBuilder decisionThreads(final int decisionThreads) {
+		Preconditions.checkArgument(decisionThreads > 0, "the number of decision threads should be greater than 0");
+		this.decisionThreads = decisionThreads;
+		return this;
+	}
+
+	/**
+	 * Optional, default to false. A pipelined decider executes the decision
+	 * tasks in successive stages having their own threads: build the history,
+	 * decide, then respond the decisions to SWF. The next decision task is
+	 * polled while the previous ones are decided and responded, so that the
+	 * network latency does not add up for each decision task.
+	 * <p>
+	 * When false, a single polling thread executes the decision tasks itself,
+	 * unless several {@link #pollingThreads(int) polling threads} or
+	 * {@link #decisionThreads(int) decision threads} are configured, or the
+	 * polling threads are {@link #autoscalePollers(int, int) autoscaled}.
+	 *
+	 * @param pipelined
+	 *            true to execute the decision tasks in stages
+	 * @return this builder
+	 */
+	public DeciderBuilder pipelined(final boolean pipelined) {
+		this.pipelined = pipelined;
+		return this;
+	}
+
+	/**
+	 * Optional maximum number of decision tasks waiting for each stage of a
+	 * {@link #pipelined(boolean) pipelined} decider, default to 10. A stage
+	 * waits for room in the queue of the next stage.
+	 *
+	 * @param stageQueueCapacity
+	 *            the capacity of the queue of each stage, greater than 0
+	 * @return this builder
+	 */
+	public DeciderBuilder stageQueueCapacity(final int stageQueueCapacity) {
+		Preconditions.checkArgument(stageQueueCapacity > 0, "the stage queue capacity should be greater than 0");
+		this.stageQueueCapacity = stageQueueCapacity;
+		return this;
+	}
+
+	/**
+	 * Optional maximum number of workflow executions whose history is kept by
+	 * the decider, default to 0 (no cache).
+	 * <p>
+	 * The decider keeps the history of the executions it decided recently: for
+	 * the next decision task of such an execution, it only fetches the pages
+	 * of the history containing the new events. The decision tasks are not
+	 * routed to the decider holding the history: SWF schedules them on the
+	 * task list of the execution, where any decider of the task list may poll
+	 * them. The cache pays off with a single decider, or few deciders, per
+	 * task list. The executions not decided for
+	 * {@link #historyCacheIdleTime(Duration)} are evicted.
+	 *
+	 * @param historyCacheSize
+	 *            the maximum number of cached executions, 0 to disable the
+	 *            cache
+	 * @return this builder
+	 */
+	public DeciderBuilder historyCacheSize(final int historyCacheSize) {
+		Preconditions.checkArgument(historyCacheSize >= 0, "the history cache size should not be negative");
+		this.historyCacheSize = historyCacheSize;
+		return this;
+	}
+
+	/**
+	 * Optional size in bytes from which the events of the histories cached
+	 * with {@link #historyCacheSize(int)} are stored out of the heap, default
+	 * to 0 (all the events in the heap).
+	 * <p>
+	 * Workflow histories can hold thousands of events with large inputs,
+	 * results or details: stored out of the heap, these events do not weigh
+	 * on the garbage collector, and are decoded once per decision task when a
+	 * handler accesses them. The histories not cached only live during their decision task, and
+	 * stay in the heap.
+	 *
+	 * @param offHeapEventThreshold
+	 *            the size of a serialized event from which it is stored out of
+	 *            the heap, 0 to keep all the events in the heap
+	 * @return this builder
+	 */
+	public DeciderBuilder offHeapEventThreshold(final int offHeapEventThreshold) {
+		Preconditions.checkArgument(offHeapEventThreshold >= 0, "the off-heap event threshold should not be negative");
+		this.offHeapEventThreshold = offHeapEventThreshold;
+		return this;
+	}
+
+	/**
+	 * Optional time after which the history of an execution not decided is
+	 * evicted from the cache configured with {@link #historyCacheSize(int)},
+	 * default to 1 hour.
+	 *
+	 * @param historyCacheIdleTime
+	 *            the idle time of the cached executions, greater than 0
+	 * @return this builder
+	 */
+	public DeciderBuilder historyCacheIdleTime(final Duration historyCacheIdleTime) {
+		Preconditions.checkArgument(historyCacheIdleTime != null && !historyCacheIdleTime.isNegative()
+				&& !historyCacheIdleTime.isZero(), "the history cache idle time should be greater than 0");
+		this.historyCacheIdleTime = historyCacheIdleTime;
+		return this;
+	}
+
+	/**
+	 * Optional mode of fetching the history of the decision tasks, default to
+	 * {@link HistoryMode#EAGER}.
+	 * <p>
+	 * With {@link HistoryMode#LAZY}, the decider polls the first page of the
+	 * history only: the older pages are fetched when a handler accesses their
+	 * events, which saves the fetch of long histories when only the recent
+	 * events are needed. With {@link HistoryMode#DELTA}, the decider polls the
+	 * pages containing the new events since the previous decision task, the
+	 * older pages are fetched on demand too. The history of an execution
+	 * fetched partially is not cached.
+	 *
+	 * @param historyMode
+	 *            {@link HistoryMode#EAGER}, {@link HistoryMode#LAZY} or
+	 *            {@link HistoryMode#DELTA}
+	 * @return this builder
+	 */
+	public DeciderBuilder historyMode(final HistoryMode historyMode) {
+		this.historyMode = Preconditions.checkNotNull(historyMode, "please specify the history mode!");
+		return this;
+	}
+
 	/**
 	 * Optional name of the decider
 	 *
@@ -0,0 +1,32 @@
+package com.solambda.swiffer.api;
+
+/**
+ * Metrics of the pool executing the tasks polled by a {@link TaskListService}.
+ * <p>
+ * Values are a snapshot taken when the method is called.
+ */
+public interface ExecutionMetrics {
+
+	/**
+	 * @return the maximum number of tasks executed concurrently
+	 */
+	int capacity();
+
+	/**
+	 * @return the number of tasks being executed
+	 */
+	int activeTasks();
+
+	/**
+	 * @return the number of tasks polled and waiting for a thread to execute
+	 *         them
+	 */
+	int queuedTasks();
+
+	/**
+	 * @return the number of tasks executed since the service was created,
+	 *         successfully or not
+	 */
+	long completedTasks();
+
+}
@@ -0,0 +1,29 @@
+package com.solambda.swiffer.api;
+
+import com.amazonaws.services.simpleworkflow.model.DecisionTask;
+
+/**
+ * How a {@link Decider} fetches the history of the workflow executions with
+ * the decision tasks.
+ *
+ * @see DeciderBuilder#historyMode(HistoryMode)
+ */
+public enum HistoryMode {
+    /**
+     * All history is fetched with {@link DecisionTask}.
+     */
+    EAGER,
+
+    /**
+     * Only the first page of history is fetched with {@link DecisionTask}, the
+     * older pages are fetched on-demand when the handlers access their events.
+     */
+    LAZY,
+
+    /**
+     * The pages of history containing the new events since the previous
+     * decision task are fetched with {@link DecisionTask}, the older pages are
+     * fetched on-demand when the handlers access their events.
+     */
+    DELTA
+}
@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package com.solambda.swiffer.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Handler of all the ActivityTaskCompleted events of a decision task, for the
+ * workflows completing many activities at once: the handler is invoked once
+ * with the list of the completions, rather than once per completion as a
+ * {@link OnActivityCompleted} handler.
+ * <p>
+ * The batch handlers of a decision task are invoked after all its single-event
+ * handlers, whatever the position of their events in the history: the
+ * decisions of a batch handler come after theirs.
+ * <p>
+ * The annotated method may have the following parameters:
+ * <ul>
+ * <li>any parameter that is common to all event handlers (see
+ * {@link EventHandlerCommonParameter}), the context being the one of the
+ * decision task
+ * <li>the default parameter is <code>List&lt;MyResultObject&gt; results</code>:
+ * the result outputs of the activities, in the order of their completion.
+ * <li><code>@{@link Input} List&lt;MyInputObject&gt; inputs</code>: the inputs
+ * of the activities that are completed
+ * <li><code>List&lt;WorkflowEvent&gt; events</code>: the completion events
+ * </ul>
+ * A template cannot have both an {@link OnActivityCompleted} and an
+ * {@link OnActivitiesCompleted} handler of the same activity type.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+@EventHandler
+public @interface OnActivitiesCompleted {
+	/**
+	 * The activity type that is completed.
+	 *
+	 * @return the activity type that is completed
+	 */
+	Class<?> value();
+
+}
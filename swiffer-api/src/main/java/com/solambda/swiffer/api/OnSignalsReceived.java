@@ -0,0 +1,44 @@
+/**
+ *
+ */
+package com.solambda.swiffer.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Handler of all the WorkflowExecutionSignaled events of a signal in a
+ * decision task: the handler is invoked once with the list of the signals,
+ * rather than once per signal as a {@link OnSignalReceived} handler.
+ * <p>
+ * The batch handlers of a decision task are invoked after all its single-event
+ * handlers, whatever the position of their events in the history.
+ * <p>
+ * The annotated method may have the following parameters:
+ * <ul>
+ * <li>any parameter that is common to all event handlers (see
+ * {@link EventHandlerCommonParameter}), the context being the one of the
+ * decision task
+ * <li>the default parameter is <code>List&lt;MyInputObject&gt; inputs</code>:
+ * the inputs provided with the signals, in the order of their reception.
+ * <li><code>List&lt;WorkflowEvent&gt; events</code>: the signal events
+ * </ul>
+ * A template cannot have both an {@link OnSignalReceived} and an
+ * {@link OnSignalsReceived} handler of the same signal.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+@EventHandler
+public @interface OnSignalsReceived {
+	/**
+	 * The name of the signal received.
+	 *
+	 * @return the name of the signal received.
+	 */
+	String value();
+}
@@ -0,0 +1,48 @@
+package com.solambda.swiffer.api;
+
+import java.time.Duration;
+
+/**
+ * Receive the progress of a {@link TaskListService} being drained with
+ * {@link TaskListService#drain(Duration, ShutdownListener)}.
+ * <p>
+ * The methods are invoked by the thread draining the service.
+ */
+public interface ShutdownListener {
+
+	/**
+	 * The idle polling operations have been aborted: the service does not
+	 * claim new tasks anymore.
+	 *
+	 * @param inFlightTasks
+	 *            the number of tasks claimed and not finished yet
+	 */
+	public default void pollingStopped(final int inFlightTasks) {
+	}
+
+	/**
+	 * The number of tasks not finished yet has changed.
+	 *
+	 * @param inFlightTasks
+	 *            the number of tasks claimed and not finished yet
+	 */
+	public default void progress(final int inFlightTasks) {
+	}
+
+	/**
+	 * All the claimed tasks are finished, the service is stopped.
+	 */
+	public default void drained() {
+	}
+
+	/**
+	 * The timeout elapsed before all the claimed tasks finished, the service
+	 * is stopped anyway. The remaining tasks time out in SWF.
+	 *
+	 * @param inFlightTasks
+	 *            the number of tasks not finished
+	 */
+	public default void timedOut(final int inFlightTasks) {
+	}
+
+}
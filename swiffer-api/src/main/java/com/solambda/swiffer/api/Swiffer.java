@@ -4,10 +4,24 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
@@ -17,6 +31,9 @@ import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
 import com.amazonaws.services.simpleworkflow.model.*;
 import com.amazonaws.services.simpleworkflow.model.WorkflowType;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.solambda.swiffer.api.duration.DefaultDurationTransformer;
 import com.solambda.swiffer.api.duration.DurationTransformer;
 import com.solambda.swiffer.api.internal.registration.DomainRegistry;
@@ -277,21 +294,142 @@ public class Swiffer {
 	 * @return list of {@link HistoryEvent}
 	 */
 	public List<HistoryEvent> getWorkflowExecutionHistory(String workflowId, String runId) {
+		return streamWorkflowExecutionHistory(workflowId, runId).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns workflow execution history with newer events first, fetching
+	 * the next page of the history only when the stream reaches it.
+	 *
+	 * @param workflowId ID of the workflow
+	 * @param runId      runId of the workflow
+	 * @param eventTypes types of the events to return, all the events if none is specified
+	 * @return lazily paged stream of {@link HistoryEvent}
+	 */
+	public Stream<HistoryEvent> streamWorkflowExecutionHistory(String workflowId, String runId, EventType... eventTypes) {
+		return streamWorkflowExecutionHistory(workflowId, runId, true, eventTypes);
+	}
+
+	/**
+	 * Returns workflow execution history, fetching the next page of the
+	 * history only when the stream reaches it.
+	 * <p>
+	 * The events are filtered as the pages are read: scanning a long history
+	 * for a few event types does not keep the whole history in memory.
+	 *
+	 * @param workflowId ID of the workflow
+	 * @param runId      runId of the workflow
+	 * @param newerFirst set to {@code true} to sort events from newer to older
+	 * @param eventTypes types of the events to return, all the events if none is specified
+	 * @return lazily paged stream of {@link HistoryEvent}
+	 */
+	public Stream<HistoryEvent> streamWorkflowExecutionHistory(String workflowId, String runId, boolean newerFirst, EventType... eventTypes) {
 		WorkflowExecution workflowExecution = new WorkflowExecution().withWorkflowId(workflowId).withRunId(runId);
+		return streamHistory(workflowExecution, newerFirst, null, eventTypes);
+	}
 
-		List<HistoryEvent> allEvents = new ArrayList<>();
-		String nextPageToken = null;
-		do {
-			History history = swf.getWorkflowExecutionHistory(new GetWorkflowExecutionHistoryRequest()
-																	  .withDomain(domain)
-																	  .withExecution(workflowExecution)
-																	  .withReverseOrder(true)
-																	  .withNextPageToken(nextPageToken));
-			allEvents.addAll(history.getEvents());
-			nextPageToken = history.getNextPageToken();
-		} while (nextPageToken != null);
+	/**
+	 * Fetches the histories of the workflow executions in parallel, and passes
+	 * each history to the sink as soon as it is fetched, with newer events
+	 * first.
+	 * <p>
+	 * The sink is called from the fetching threads, concurrently. A failure to
+	 * fetch or to handle a history does not stop the export of the other
+	 * histories: the method returns once all the histories are exported, with
+	 * the failures. A failure to list the executions stops the listing, the
+	 * exports in progress being completed: it is returned for an execution
+	 * without workflow id nor run id.
+	 *
+	 * @param executions           the workflow executions
+	 * @param parallelism          the maximum number of histories fetched at the same time, greater than 0
+	 * @param maxRequestsPerSecond the maximum rate of requests to SWF, greater than 0
+	 * @param sink                 receives each execution with its history
+	 * @param eventTypes           types of the events to export, all the events if none is specified
+	 * @return the exception of each execution whose history could not be exported
+	 */
+	public Map<WorkflowExecution, Exception> exportWorkflowExecutionHistories(Collection<WorkflowExecution> executions, int parallelism,
+			double maxRequestsPerSecond, BiConsumer<WorkflowExecution, List<HistoryEvent>> sink, EventType... eventTypes) {
+		Preconditions.checkNotNull(executions, "Workflow executions must be specified");
+		return export(executions.iterator(), parallelism, newRateLimiter(maxRequestsPerSecond), sink, eventTypes);
+	}
 
-		return allEvents;
+	/**
+	 * Fetches the histories of the open workflow executions in parallel, as
+	 * the executions are listed, and passes each history to the sink as soon
+	 * as it is fetched, with newer events first.
+	 *
+	 * @param oldest               the oldest start date of the workflow executions, required
+	 * @param parallelism          the maximum number of histories fetched at the same time, greater than 0
+	 * @param maxRequestsPerSecond the maximum rate of requests to SWF, listing included, greater than 0
+	 * @param sink                 receives each execution with its history
+	 * @param eventTypes           types of the events to export, all the events if none is specified
+	 * @return the exception of each execution whose history could not be exported
+	 * @see #exportWorkflowExecutionHistories(Collection, int, double, BiConsumer, EventType...)
+	 */
+	public Map<WorkflowExecution, Exception> exportOpenWorkflowExecutionHistories(ZonedDateTime oldest, int parallelism,
+			double maxRequestsPerSecond, BiConsumer<WorkflowExecution, List<HistoryEvent>> sink, EventType... eventTypes) {
+		return exportOpenWorkflowExecutionHistories(oldest, parallelism, newRateLimiter(maxRequestsPerSecond), sink,
+				eventTypes);
+	}
+
+	/**
+	 * @param rateLimiter limits the rate of the requests to SWF, listing included
+	 */
+	Map<WorkflowExecution, Exception> exportOpenWorkflowExecutionHistories(ZonedDateTime oldest, int parallelism,
+			RateLimiter rateLimiter, BiConsumer<WorkflowExecution, List<HistoryEvent>> sink, EventType... eventTypes) {
+		Preconditions.checkNotNull(oldest, "Oldest start date of workflow is required");
+		return export(new OpenExecutionPages(oldest, rateLimiter), parallelism, rateLimiter, sink, eventTypes);
+	}
+
+	private static RateLimiter newRateLimiter(double maxRequestsPerSecond) {
+		Preconditions.checkArgument(maxRequestsPerSecond > 0, "Maximum rate of requests should be greater than 0");
+		return RateLimiter.create(maxRequestsPerSecond);
+	}
+
+	private Map<WorkflowExecution, Exception> export(Iterator<WorkflowExecution> executions, int parallelism, RateLimiter rateLimiter,
+			BiConsumer<WorkflowExecution, List<HistoryEvent>> sink, EventType[] eventTypes) {
+		Preconditions.checkArgument(parallelism > 0, "Parallelism should be greater than 0");
+		Preconditions.checkNotNull(sink, "History sink must be specified");
+		Map<WorkflowExecution, Exception> failures = new ConcurrentHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+				.setNameFormat("swiffer-history-export-%d")
+				.setDaemon(true)
+				.build());
+		try {
+			List<CompletableFuture<Void>> exports = new ArrayList<>();
+			try {
+				executions.forEachRemaining(execution -> exports.add(CompletableFuture.runAsync(() -> {
+					try {
+						sink.accept(execution, streamHistory(execution, true, rateLimiter, eventTypes).collect(Collectors.toList()));
+					} catch (Exception e) {
+						this.LOGGER.warn("[Domain: {}] Cannot export the history of {}", this.domain, execution, e);
+						failures.put(execution, e);
+					}
+				}, executor)));
+			} catch (Exception e) {
+				// the exports already started are completed
+				this.LOGGER.warn("[Domain: {}] Cannot list the workflow executions to export", this.domain, e);
+				failures.put(new WorkflowExecution(), e);
+			}
+			CompletableFuture.allOf(exports.toArray(new CompletableFuture<?>[exports.size()])).join();
+		} finally {
+			executor.shutdown();
+		}
+		return failures;
+	}
+
+	/**
+	 * @param rateLimiter limits the rate of the page requests, or null
+	 */
+	private Stream<HistoryEvent> streamHistory(WorkflowExecution workflowExecution, boolean newerFirst, RateLimiter rateLimiter,
+			EventType[] eventTypes) {
+		Stream<HistoryEvent> events = StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+				new HistoryPages(workflowExecution, newerFirst, rateLimiter), Spliterator.ORDERED | Spliterator.NONNULL), false);
+		if (eventTypes.length == 0) {
+			return events;
+		}
+		Set<String> typeNames = Stream.of(eventTypes).map(EventType::toString).collect(Collectors.toSet());
+		return events.filter(event -> typeNames.contains(event.getEventType()));
 	}
 
 	/**
@@ -360,16 +498,28 @@ public class Swiffer {
 		Preconditions.checkNotNull(oldest, "Oldest start or close date of workflow is required");
 		Preconditions.checkArgument(maxNumberOfExecutions > 0, "Maximum number of executions should greater than 0");
 
-		ExecutionTimeFilter startTimeFilter = new ExecutionTimeFilter().withOldestDate(Date.from(oldest.toInstant()));
-
-		WorkflowExecutionInfos workflowExecutionInfos = swf.listOpenWorkflowExecutions(new ListOpenWorkflowExecutionsRequest()
-																							   .withDomain(domain)
-																							   .withMaximumPageSize(maxNumberOfExecutions)
-																							   .withStartTimeFilter(startTimeFilter));
+		WorkflowExecutionInfos workflowExecutionInfos = listOpenExecutions(startTimeFilter(oldest), maxNumberOfExecutions, null);
 
 		return workflowExecutionInfos.getExecutionInfos().stream().map(WorkflowExecutionInfo::getExecution).collect(Collectors.toList());
 	}
 
+	private static ExecutionTimeFilter startTimeFilter(ZonedDateTime oldest) {
+		return new ExecutionTimeFilter().withOldestDate(Date.from(oldest.toInstant()));
+	}
+
+	/**
+	 * @param maximumPageSize the maximum number of executions, or null for the default page size
+	 * @param nextPageToken   the token of the page, or null for the first page
+	 */
+	private WorkflowExecutionInfos listOpenExecutions(ExecutionTimeFilter startTimeFilter, Integer maximumPageSize,
+			String nextPageToken) {
+		return swf.listOpenWorkflowExecutions(new ListOpenWorkflowExecutionsRequest()
+													  .withDomain(domain)
+													  .withMaximumPageSize(maximumPageSize)
+													  .withStartTimeFilter(startTimeFilter)
+													  .withNextPageToken(nextPageToken));
+	}
+
 	private WorkflowExecutionInfo getWorkflowExecution(final String workflowId, final String runId) {
 		this.LOGGER.debug("[Domain: {}] Describe workflow {} execution {}", this.domain, workflowId, runId);
 		final WorkflowExecutionDetail detail = this.swf.describeWorkflowExecution(new DescribeWorkflowExecutionRequest()
@@ -449,6 +599,76 @@ public class Swiffer {
 
 	}
 
+	/**
+	 * The events of a workflow execution history, fetched page by page.
+	 */
+	private class HistoryPages extends AbstractIterator<HistoryEvent> {
+		private final WorkflowExecution workflowExecution;
+		private final boolean newerFirst;
+		private final RateLimiter rateLimiter;
+		private Iterator<HistoryEvent> page = Collections.emptyIterator();
+		private String nextPageToken;
+		private boolean lastPage;
+
+		HistoryPages(WorkflowExecution workflowExecution, boolean newerFirst, RateLimiter rateLimiter) {
+			this.workflowExecution = workflowExecution;
+			this.newerFirst = newerFirst;
+			this.rateLimiter = rateLimiter;
+		}
+
+		@Override
+		protected HistoryEvent computeNext() {
+			while (!this.page.hasNext()) {
+				if (this.lastPage) {
+					return endOfData();
+				}
+				if (this.rateLimiter != null) {
+					this.rateLimiter.acquire();
+				}
+				History history = swf.getWorkflowExecutionHistory(new GetWorkflowExecutionHistoryRequest()
+																		  .withDomain(domain)
+																		  .withExecution(this.workflowExecution)
+																		  .withReverseOrder(this.newerFirst)
+																		  .withNextPageToken(this.nextPageToken));
+				this.page = history.getEvents().iterator();
+				this.nextPageToken = history.getNextPageToken();
+				this.lastPage = this.nextPageToken == null;
+			}
+			return this.page.next();
+		}
+	}
+
+	/**
+	 * The open workflow executions, listed page by page.
+	 */
+	private class OpenExecutionPages extends AbstractIterator<WorkflowExecution> {
+		private final ExecutionTimeFilter startTimeFilter;
+		private final RateLimiter rateLimiter;
+		private Iterator<WorkflowExecutionInfo> page = Collections.emptyIterator();
+		private String nextPageToken;
+		private boolean lastPage;
+
+		OpenExecutionPages(ZonedDateTime oldest, RateLimiter rateLimiter) {
+			this.startTimeFilter = startTimeFilter(oldest);
+			this.rateLimiter = rateLimiter;
+		}
+
+		@Override
+		protected WorkflowExecution computeNext() {
+			while (!this.page.hasNext()) {
+				if (this.lastPage) {
+					return endOfData();
+				}
+				this.rateLimiter.acquire();
+				WorkflowExecutionInfos infos = listOpenExecutions(this.startTimeFilter, null, this.nextPageToken);
+				this.page = infos.getExecutionInfos().iterator();
+				this.nextPageToken = infos.getNextPageToken();
+				this.lastPage = this.nextPageToken == null;
+			}
+			return this.page.next().getExecution();
+		}
+	}
+
 	/**
 	 * @return true if swiffer can access AWS SWF, false otherwise
 	 */
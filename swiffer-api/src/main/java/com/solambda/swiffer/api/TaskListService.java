@@ -1,5 +1,7 @@
 package com.solambda.swiffer.api;
 
+import java.time.Duration;
+
 import com.amazonaws.services.simpleworkflow.model.ActivityTask;
 import com.amazonaws.services.simpleworkflow.model.DecisionTask;
 
@@ -30,6 +32,35 @@ public interface TaskListService {
 	 */
 	public void stop();
 
+	/**
+	 * Stop the service quickly: the idle polling operations are aborted right
+	 * away instead of waiting for their long-poll to return, then the method
+	 * waits for the completion of the tasks being executed, up to the given
+	 * timeout. This method does nothing if the poller is not started.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait for the tasks being executed
+	 * @param listener
+	 *            notified of the progress of the shutdown
+	 * @return true if all the tasks being executed completed, false if the
+	 *         timeout elapsed before
+	 */
+	public boolean drain(Duration timeout, ShutdownListener listener);
+
+	/**
+	 * Stop the service quickly, see
+	 * {@link #drain(Duration, ShutdownListener)}.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait for the tasks being executed
+	 * @return true if all the tasks being executed completed, false if the
+	 *         timeout elapsed before
+	 */
+	public default boolean drain(final Duration timeout) {
+		return drain(timeout, new ShutdownListener() {
+		});
+	}
+
 	/**
 	 * @return true if the service is started, false otherwise.
 	 */
@@ -13,4 +13,9 @@ package com.solambda.swiffer.api;
  */
 public interface Worker extends TaskListService {
 
+	/**
+	 * @return the metrics of the pool executing the activity tasks
+	 */
+	ExecutionMetrics executionMetrics();
+
 }
@@ -3,19 +3,27 @@ package com.solambda.swiffer.api;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.amazonaws.services.simpleworkflow.model.CountPendingActivityTasksRequest;
+import com.amazonaws.services.simpleworkflow.model.TaskList;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.solambda.swiffer.api.internal.MethodInvoker;
+import com.solambda.swiffer.api.internal.PollerAutoscaler;
+import com.solambda.swiffer.api.internal.TaskContextPoller;
 import com.solambda.swiffer.api.internal.VersionedName;
 import com.solambda.swiffer.api.internal.activities.ActivityExecutionReporter;
 import com.solambda.swiffer.api.internal.activities.ActivityExecutionReporterImpl;
@@ -25,17 +33,29 @@ import com.solambda.swiffer.api.internal.activities.ActivityExecutorImpl;
 import com.solambda.swiffer.api.internal.activities.ActivityExecutorRegistry;
 import com.solambda.swiffer.api.internal.activities.ActivityTaskContext;
 import com.solambda.swiffer.api.internal.activities.ActivityTaskPoller;
+import com.solambda.swiffer.api.internal.activities.AsyncActivityTaskPoller;
 import com.solambda.swiffer.api.internal.activities.WorkerImpl;
 import com.solambda.swiffer.api.internal.registration.ActivityTypeRegistry;
+import com.solambda.swiffer.api.internal.utils.VirtualThreads;
 import com.solambda.swiffer.api.mapper.DataMapper;
 
 public class WorkerBuilder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(WorkerBuilder.class);
 
+	private static final Object[] NO_ARGUMENTS = {};
+
 	private AmazonSimpleWorkflow swf;
 	private String domain;
 	private String identity;
 	private String taskList;
+	private int pollingThreads = 1;
+	private int minPollers;
+	private int maxPollers;
+	private Duration autoscalingInterval;
+	private Duration drainHeartbeatInterval;
+	private int executionThreads = WorkerImpl.DEFAULT_EXECUTION_THREADS;
+	private ExecutorService executorService;
+	private boolean virtualThreads;
 	private List<Object> executors;
 	private ActivityTypeRegistry activityTypeRegistry;
 	private final DataMapper dataMapper;
@@ -48,15 +68,59 @@ public class WorkerBuilder {
 		this.dataMapper = dataMapper;
 	}
 
+	/**
+	 * Build the worker. When the SWF client is an
+	 * {@link AmazonSimpleWorkflowAsync}, the task list is polled with the
+	 * asynchronous client.
+	 *
+	 * @return a new instance of {@link Worker}
+	 */
 	public Worker build() {
 		final ActivityExecutorRegistry registry = createExecutorRegistry();
-		final ActivityTaskPoller poller = new ActivityTaskPoller(
-				this.swf,
-				this.domain,
-				this.taskList,
-				this.identity);
+		final TaskContextPoller<ActivityTaskContext> poller = createPoller();
 		final ActivityExecutionReporter reporter = new ActivityExecutionReporterImpl(this.swf);
-		return new WorkerImpl(poller, registry, reporter);
+		Preconditions.checkState(!(this.virtualThreads && this.executorService != null),
+				"cannot use virtual threads with a specified executor!");
+		final boolean ownExecutor = this.executorService == null;
+		final ExecutorService executor;
+		if (this.virtualThreads) {
+			executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+		} else {
+			executor = ownExecutor ? createExecutionPool() : this.executorService;
+		}
+		final WorkerImpl worker = new WorkerImpl(poller, this.pollingThreads, registry, reporter, executor,
+				this.executionThreads, ownExecutor);
+		if (this.autoscalingInterval != null) {
+			worker.autoscalePollers(createAutoscaler(this.taskList));
+		}
+		if (this.drainHeartbeatInterval != null) {
+			worker.drainHeartbeatInterval(this.drainHeartbeatInterval);
+		}
+		return worker;
+	}
+
+	private PollerAutoscaler createAutoscaler(final String taskList) {
+		return new PollerAutoscaler(this.minPollers, this.maxPollers,
+				() -> this.swf.countPendingActivityTasks(new CountPendingActivityTasksRequest()
+						.withDomain(this.domain)
+						.withTaskList(new TaskList().withName(taskList)))
+						.getCount(),
+				this.autoscalingInterval);
+	}
+
+	private TaskContextPoller<ActivityTaskContext> createPoller() {
+		if (this.swf instanceof AmazonSimpleWorkflowAsync) {
+			return new AsyncActivityTaskPoller((AmazonSimpleWorkflowAsync) this.swf, this.domain, this.taskList,
+					this.identity);
+		}
+		return new ActivityTaskPoller(this.swf, this.domain, this.taskList, this.identity);
+	}
+
+	private ExecutorService createExecutionPool() {
+		final String taskList = String.valueOf(this.taskList).replace("%", "%%");
+		return Executors.newFixedThreadPool(this.executionThreads, new ThreadFactoryBuilder()
+				.setNameFormat("swiffer-worker-" + taskList + "-%d")
+				.build());
 	}
 
 	private ActivityExecutorRegistry createExecutorRegistry() {
@@ -117,21 +181,30 @@ public class WorkerBuilder {
 		System.out.println(1 << 3);
 	}
 
+	/**
+	 * Compile the parameters of the executor once into a provider, with the
+	 * deserializers of the input resolved here. The executors of no or one
+	 * parameter, the most common, get a provider allocating at most the array
+	 * of arguments.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private ActivityExecutorArgumentsProvider createArgumentsProvider(final Method publicMethod) {
 		final AnnotatedType[] parameterTypes = publicMethod.getAnnotatedParameterTypes();
-		if (parameterTypes.length == 0) {
-			return (c) -> new Object[0];
-		} else {
-			final List<Function<ActivityTaskContext, Object>> argumentProviders = new ArrayList<Function<ActivityTaskContext, Object>>();
-			for (final AnnotatedType annotatedType : parameterTypes) {
-				final Function<ActivityTaskContext, Object> argumentProvider = createArgumentProvider(annotatedType);
-				argumentProviders.add(argumentProvider);
-			}
+		final Function<ActivityTaskContext, Object>[] argumentProviders = new Function[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			argumentProviders[i] = createArgumentProvider(parameterTypes[i]);
+		}
+		switch (argumentProviders.length) {
+		case 0:
+			return (c) -> NO_ARGUMENTS;
+		case 1:
+			final Function<ActivityTaskContext, Object> argumentProvider = argumentProviders[0];
+			return (c) -> new Object[] { argumentProvider.apply(c) };
+		default:
 			return (c) -> {
-				final Object[] arguments = new Object[parameterTypes.length];
-				int i = 0;
-				for (final Function<ActivityTaskContext, Object> function : argumentProviders) {
-					arguments[i++] = function.apply(c);
+				final Object[] arguments = new Object[argumentProviders.length];
+				for (int i = 0; i < arguments.length; i++) {
+					arguments[i] = argumentProviders[i].apply(c);
 				}
 				return arguments;
 			};
@@ -146,8 +219,9 @@ public class WorkerBuilder {
 			// FIXME: a parameter annotated with @GetState trigger state
 			// retrieval
 			// default is to get the activitytask input
+			final Function<String, Object> deserializer = dataMapper.deserializer(parameterType);
 			return (activityTaskContext) -> {
-				Object input = dataMapper.deserialize(activityTaskContext.input(), parameterType);
+				Object input = deserializer.apply(activityTaskContext.input());
 				if (input == null) {
 					LOGGER.warn("Input value was expected, but got null instead.");
 				}
@@ -172,6 +246,139 @@ public class WorkerBuilder {
 		return this;
 	}
 
+	/**
+	 * Optional number of threads polling the task list concurrently, default
+	 * to 1.
+	 * <p>
+	 * All the polling threads feed the same pool of activity execution
+	 * threads: use several polling threads when a single long-poll at a time
+	 * cannot claim tasks as fast as the worker can execute them.
+	 *
+	 * @param pollingThreads
+	 *            the number of concurrent polling threads, greater than 0
+	 * @return this builder
+	 */
+	public WorkerBuilder pollingThreads(final int pollingThreads) {
+		Preconditions.checkArgument(pollingThreads > 0, "the number of polling threads should be greater than 0");
+		this.pollingThreads = pollingThreads;
+		return this;
+	}
+
+	/**
+	 * Optional: adjust the number of polling threads between the given bounds
+	 * while the worker is running. A polling thread is added while the polls
+	 * keep returning tasks or while tasks are pending in the task list, and
+	 * removed while the long-polls keep coming back empty. The
+	 * {@link #pollingThreads(int) polling threads} are the initial number of
+	 * polling threads.
+	 *
+	 * @param minPollers
+	 *            the minimum number of polling threads, greater than 0
+	 * @param maxPollers
+	 *            the maximum number of polling threads
+	 * @return this builder
+	 */
+	public WorkerBuilder autoscalePollers(final int minPollers, final int maxPollers) {
+		return autoscalePollers(minPollers, maxPollers, PollerAutoscaler.DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * Optional: adjust the number of polling threads between the given bounds
+	 * while the worker is running.
+	 *
+	 * @param minPollers
+	 *            the minimum number of polling threads, greater than 0
+	 * @param maxPollers
+	 *            the maximum number of polling threads
+	 * @param interval
+	 *            the time between two adjustments, it should be longer than
+	 *            a long-poll (60 seconds)
+	 * @return this builder
+	 * @see #autoscalePollers(int, int)
+	 */
+	public WorkerBuilder autoscalePollers(final int minPollers, final int maxPollers, final Duration interval) {
+		Preconditions.checkArgument(minPollers > 0, "the minimum number of pollers should be greater than 0");
+		Preconditions.checkArgument(maxPollers >= minPollers,
+				"the maximum number of pollers should be greater than the minimum");
+		this.minPollers = minPollers;
+		this.maxPollers = maxPollers;
+		this.autoscalingInterval = Preconditions.checkNotNull(interval, "please specify the interval!");
+		return this;
+	}
+
+	/**
+	 * Optional time between two heartbeats of the activity tasks being
+	 * executed while the worker is {@link Worker#drain(Duration) drained},
+	 * default to 10 seconds. It should be shorter than the heartbeat timeout
+	 * of the activity types.
+	 *
+	 * @param drainHeartbeatInterval
+	 *            the time between two heartbeats
+	 * @return this builder
+	 */
+	public WorkerBuilder drainHeartbeatInterval(final Duration drainHeartbeatInterval) {
+		Preconditions.checkArgument(drainHeartbeatInterval != null && !drainHeartbeatInterval.isNegative()
+				&& !drainHeartbeatInterval.isZero(), "the heartbeat interval should be positive");
+		this.drainHeartbeatInterval = drainHeartbeatInterval;
+		return this;
+	}
+
+	/**
+	 * Optional maximum number of activity tasks executed concurrently, default
+	 * to 10.
+	 * <p>
+	 * Unless an executor is specified with
+	 * {@link #executorService(ExecutorService)}, it is the size of the thread
+	 * pool created by the worker. Tasks are polled only when fewer tasks are
+	 * being executed.
+	 *
+	 * @param executionThreads
+	 *            the maximum number of tasks executed concurrently, greater
+	 *            than 0
+	 * @return this builder
+	 */
+	public WorkerBuilder executionThreads(final int executionThreads) {
+		Preconditions.checkArgument(executionThreads > 0, "the number of execution threads should be greater than 0");
+		this.executionThreads = executionThreads;
+		return this;
+	}
+
+	/**
+	 * Optional executor running the activity tasks, instead of the fixed
+	 * thread pool created by the worker.
+	 * <p>
+	 * The number of tasks submitted concurrently to the executor is still
+	 * limited by {@link #executionThreads(int)}. The executor is not shutdown
+	 * when the worker stops: the worker only waits for its own tasks to
+	 * complete.
+	 *
+	 * @param executorService
+	 *            the executor
+	 * @return this builder
+	 */
+	public WorkerBuilder executorService(final ExecutorService executorService) {
+		this.executorService = Preconditions.checkNotNull(executorService, "please specify an executor!");
+		return this;
+	}
+
+	/**
+	 * Optional: execute each activity task on its own virtual thread, instead
+	 * of a pool of platform threads. Well suited to activities blocking on I/O.
+	 * <p>
+	 * Requires Java 21 or later at runtime: {@link #build()} throws an
+	 * {@link IllegalStateException} on older JVMs.
+	 *
+	 * @param maxConcurrentTasks
+	 *            the maximum number of activity tasks executed concurrently,
+	 *            greater than 0
+	 * @return this builder
+	 */
+	public WorkerBuilder virtualThreads(final int maxConcurrentTasks) {
+		executionThreads(maxConcurrentTasks);
+		this.virtualThreads = true;
+		return this;
+	}
+
 	public WorkerBuilder executors(final Object... executors) {
 		this.executors = Arrays.asList(executors);
 		return this;
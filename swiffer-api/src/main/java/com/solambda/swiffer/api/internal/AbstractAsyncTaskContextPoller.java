@@ -0,0 +1,160 @@
+package com.solambda.swiffer.api.internal;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.google.common.base.Preconditions;
+import com.solambda.swiffer.api.exceptions.TaskContextPollingException;
+
+/**
+ * A poller relying on the asynchronous SWF client.
+ * <p>
+ * A polling operation does not need a thread of its own: the long-poll is
+ * executed by the executor of the {@link AmazonSimpleWorkflowAsync} client,
+ * which can be shared by the pollers of many task lists, and its result is
+ * chained with {@link CompletableFuture}s.
+ * <p>
+ * The services handing the tasks over to their own executors poll with
+ * {@link #pollAsync()}: a polling thread claims a slot, starts a polling
+ * operation and claims the next slot, the task being handed over once polled.
+ * {@link #poll()} blocks until the result, for the services executing the
+ * tasks in the polling threads.
+ */
+public abstract class AbstractAsyncTaskContextPoller<T extends TaskContext> implements TaskContextPoller<T> {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(this.getClass());
+
+	protected AmazonSimpleWorkflowAsync swf;
+	protected String domain;
+	protected String taskList;
+	protected String identity;
+
+	private volatile boolean stopped;
+	/**
+	 * The calls in progress, with the future of their result.
+	 */
+	private final Map<CompletableFuture<?>, Future<?>> pendingCalls = new ConcurrentHashMap<>();
+
+	public AbstractAsyncTaskContextPoller(final AmazonSimpleWorkflowAsync swf, final String domain,
+			final String taskList, final String identity) {
+		super();
+		this.swf = Preconditions.checkNotNull(swf, "please specify a SWF client!");
+		this.domain = Preconditions.checkNotNull(domain, "please specify the domain!");
+		this.taskList = Preconditions.checkNotNull(taskList, "please specify the task list to poll!");
+		this.identity = identity;
+	}
+
+	@Override
+	public T poll() throws TaskContextPollingException {
+		try {
+			return pollAsync().get(80, TimeUnit.SECONDS);
+		} catch (final CancellationException e1) {
+			// was requested to stop
+			this.LOGGER.info("Cancelling the polling operation, the poller was requested to stop.");
+			return null;
+		} catch (final InterruptedException e1) {
+			throw new RuntimeException(e1);
+		} catch (final ExecutionException e1) {
+			if (e1.getCause() instanceof CancellationException) {
+				this.LOGGER.info("Cancelling the polling operation, the poller was requested to stop.");
+				return null;
+			}
+			final String message = String.format("[%s:%s] Cannot poll tasklist %s",
+					this.domain, this.identity, this.taskList);
+			throw new TaskContextPollingException(message, e1.getCause());
+		} catch (final TimeoutException e) {
+			this.LOGGER.error("[{}:{}] Polling tasklist {} timeout !",
+					this.domain, this.identity, this.taskList, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Poll the task list without blocking.
+	 *
+	 * @return a future completed with the new task context, or with null if
+	 *         no task context is available in the task list. The future is
+	 *         cancelled if the poller is stopped.
+	 */
+	public CompletableFuture<T> pollAsync() {
+		if (this.stopped) {
+			final CompletableFuture<T> cancelled = new CompletableFuture<>();
+			cancelled.cancel(false);
+			return cancelled;
+		}
+		return pollForTaskAsync();
+	}
+
+	protected abstract CompletableFuture<T> pollForTaskAsync();
+
+	/**
+	 * Invoke an asynchronous method of the SWF client.
+	 *
+	 * @param method
+	 *            the method, invoked with the request and a handler
+	 * @param request
+	 *            the request
+	 * @return a future completed with the result of the method
+	 */
+	protected <Q extends AmazonWebServiceRequest, R> CompletableFuture<R> call(
+			final BiFunction<Q, AsyncHandler<Q, R>, Future<R>> method, final Q request) {
+		final CompletableFuture<R> result = new CompletableFuture<>();
+		final Future<R> call = method.apply(request, new AsyncHandler<Q, R>() {
+			@Override
+			public void onError(final Exception exception) {
+				result.completeExceptionally(exception);
+			}
+
+			@Override
+			public void onSuccess(final Q request, final R response) {
+				result.complete(response);
+			}
+		});
+		this.pendingCalls.put(result, call);
+		result.whenComplete((response, failure) -> this.pendingCalls.remove(result));
+		if (this.stopped) {
+			// stopped while the call was being submitted
+			abort(result, call);
+		}
+		return result;
+	}
+
+	private void abort(final CompletableFuture<?> result, final Future<?> call) {
+		// the client may not notice the interruption of the call: cancel the
+		// result too so that nobody waits for it
+		call.cancel(true);
+		result.cancel(false);
+	}
+
+	@Override
+	public void stop() {
+		// the pending long-polls are aborted: a task claimed in the meantime
+		// is not lost, it times out and is rescheduled by SWF
+		this.stopped = true;
+		this.pendingCalls.forEach(this::abort);
+	}
+
+	@Override
+	public AmazonSimpleWorkflowAsync swf() {
+		return this.swf;
+	}
+
+	@Override
+	public String domain() {
+		return this.domain;
+	}
+
+}
@@ -1,10 +1,13 @@
 package com.solambda.swiffer.api.internal;
 
+import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -23,8 +26,9 @@ public abstract class AbstractTaskContextPoller<T extends TaskContext> implement
 	protected String domain;
 	protected String taskList;
 	protected String identity;
-	private Future<T> currentPollingOperation;
 	private ExecutorService executor;
+	private final Set<Future<T>> pollingOperations = ConcurrentHashMap.newKeySet();
+	private volatile boolean aborted;
 
 	public AbstractTaskContextPoller(final AmazonSimpleWorkflow swf, final String domain, final String taskList,
 			final String identity) {
@@ -33,18 +37,22 @@ public abstract class AbstractTaskContextPoller<T extends TaskContext> implement
 		this.domain = Preconditions.checkNotNull(domain, "please specify the domain!");
 		this.taskList = Preconditions.checkNotNull(taskList, "please specify the task list to poll!");
 		this.identity = identity;
-		this.executor = Executors.newSingleThreadExecutor();
+		// several threads can poll concurrently with the same poller: each
+		// polling operation runs in its own thread
+		this.executor = Executors.newCachedThreadPool();
 	}
 
 	@Override
 	public T poll() throws TaskContextPollingException {
-		if (this.currentPollingOperation != null) {
-			throw new IllegalStateException("pending polling operation!");
-		}
+		Future<T> pollingOperation = null;
 		try {
-			this.currentPollingOperation = this.executor.submit(() -> pollForTask());
-			return this.currentPollingOperation.get(80, TimeUnit.SECONDS);
-		} catch (final CancellationException e1) {
+			pollingOperation = this.executor.submit(() -> pollForTask());
+			this.pollingOperations.add(pollingOperation);
+			if (this.aborted) {
+				pollingOperation.cancel(true);
+			}
+			return pollingOperation.get(80, TimeUnit.SECONDS);
+		} catch (final RejectedExecutionException | CancellationException e1) {
 			// was requested to stop
 			this.LOGGER.info("Cancelling the polling operation, the poller was requested to stop.");
 			return null;
@@ -59,7 +67,9 @@ public abstract class AbstractTaskContextPoller<T extends TaskContext> implement
 					this.domain, this.identity, this.taskList, e);
 			return null;
 		} finally {
-			this.currentPollingOperation = null;
+			if (pollingOperation != null) {
+				this.pollingOperations.remove(pollingOperation);
+			}
 		}
 	}
 
@@ -77,6 +87,17 @@ public abstract class AbstractTaskContextPoller<T extends TaskContext> implement
 		this.executor.shutdown();
 	}
 
+	@Override
+	public void abort() {
+		this.aborted = true;
+		stop();
+		// release the threads waiting for the polling operations. The
+		// underlying swf calls keep running until they return
+		for (final Future<T> pollingOperation : this.pollingOperations) {
+			pollingOperation.cancel(true);
+		}
+	}
+
 	@Override
 	public AmazonSimpleWorkflow swf() {
 		return this.swf;
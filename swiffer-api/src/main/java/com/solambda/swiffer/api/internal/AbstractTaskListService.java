@@ -1,88 +1,329 @@
 package com.solambda.swiffer.api.internal;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.AbstractExecutionThreadService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Service;
 import com.google.common.util.concurrent.Service.State;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.solambda.swiffer.api.ShutdownListener;
 import com.solambda.swiffer.api.TaskListService;
 import com.solambda.swiffer.api.exceptions.TaskContextPollingException;
 
 public abstract class AbstractTaskListService<T extends TaskContext> implements TaskListService {
 
+	private static final Duration DRAIN_CHECK_INTERVAL = Duration.ofMillis(100);
+
 	private final Logger LOGGER = LoggerFactory.getLogger(this.getClass());
 
 	protected TaskContextPoller<T> poller;
-	private AbstractExecutionThreadService daemonService;
+	/**
+	 * The poller if it polls without blocking, null otherwise.
+	 */
+	private final AbstractAsyncTaskContextPoller<T> asyncPoller;
+	/**
+	 * The failure of a polling operation completed outside of the polling
+	 * threads, rethrown by the next polling thread.
+	 */
+	private final AtomicReference<Exception> asyncPollingFailure = new AtomicReference<>();
+	private final int pollingThreads;
+	private List<PollingService> daemonServices;
+	private int nextServiceIndex;
+	private PollerAutoscaler autoscaler;
+	private ScheduledExecutorService autoscalingExecutor;
 
 	public AbstractTaskListService(final TaskContextPoller<T> poller) {
+		this(poller, 1);
+	}
+
+	/**
+	 * @param poller
+	 *            the poller shared by all the polling threads
+	 * @param pollingThreads
+	 *            the number of threads polling the task list concurrently
+	 */
+	@SuppressWarnings("unchecked")
+	public AbstractTaskListService(final TaskContextPoller<T> poller, final int pollingThreads) {
 		super();
+		Preconditions.checkArgument(pollingThreads > 0, "the number of polling threads should be greater than 0");
 		this.poller = poller;
+		this.asyncPoller = poller instanceof AbstractAsyncTaskContextPoller
+				? (AbstractAsyncTaskContextPoller<T>) poller
+				: null;
+		this.pollingThreads = pollingThreads;
+	}
+
+	/**
+	 * Adjust the number of polling threads while the service is running,
+	 * starting from the number of polling threads given to the constructor.
+	 *
+	 * @param autoscaler
+	 *            the autoscaler of the polling threads
+	 */
+	public void autoscalePollers(final PollerAutoscaler autoscaler) {
+		Preconditions.checkState(this.daemonServices == null, "the service is already started!");
+		this.autoscaler = Preconditions.checkNotNull(autoscaler, "please specify an autoscaler!");
 	}
 
 	@Override
-	public void start() {
-		if (this.daemonService == null) {
-			this.daemonService = new AbstractExecutionThreadService() {
-				@Override
-				protected void run() throws Exception {
-					while (isRunning()) {
-						try {
-							final T task = pollTaskList();
-							if (task != null) {
-								executeTask(task);
-							}
-						} catch (final Exception e) {
-							AbstractTaskListService.this.LOGGER.error(
-									"Error running poller. Service is going to stop now.",
-									e);
-							throw e;
+	public synchronized void start() {
+		if (this.daemonServices == null) {
+			this.daemonServices = new CopyOnWriteArrayList<>();
+			this.nextServiceIndex = 0;
+			final int pollers = this.autoscaler == null
+					? this.pollingThreads
+					: this.autoscaler.bound(this.pollingThreads);
+			for (int i = 0; i < pollers; i++) {
+				this.daemonServices.add(createDaemonService());
+			}
+		}
+		for (final PollingService daemonService : this.daemonServices) {
+			if (daemonService.retired) {
+				continue;
+			}
+			final State state = daemonService.state();
+			switch (state) {
+			case NEW:
+				daemonService.startAsync();
+				daemonService.awaitRunning();
+				break;
+			case STARTING:
+				daemonService.awaitRunning();
+				break;
+			case RUNNING:
+				break;
+			case STOPPING:
+			case FAILED:
+			case TERMINATED:
+			default:
+				throw new IllegalStateException("polling service is " + state + "!");
+			}
+		}
+		if (this.autoscaler != null && this.autoscalingExecutor == null) {
+			this.autoscalingExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+					.setNameFormat(getClass().getSimpleName() + "-autoscaler")
+					.setDaemon(true)
+					.build());
+			final long interval = this.autoscaler.interval().toMillis();
+			this.autoscalingExecutor.scheduleWithFixedDelay(this::adjustPollers, interval, interval,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * A thread polling the task list and executing the tasks.
+	 */
+	private class PollingService extends AbstractExecutionThreadService {
+
+		private final int index;
+		/**
+		 * True once the autoscaler removed this poller: the thread exits after
+		 * its current polling operation, without stopping the poller shared by
+		 * the other threads.
+		 */
+		private volatile boolean retired;
+
+		PollingService(final int index) {
+			super();
+			this.index = index;
+		}
+
+		@Override
+		protected void run() throws Exception {
+			final boolean nonBlocking = AbstractTaskListService.this.asyncPoller != null && handsOffTasks();
+			while (isRunning() && !this.retired) {
+				try {
+					final Exception asyncPollingFailure = AbstractTaskListService.this.asyncPollingFailure.get();
+					if (asyncPollingFailure != null) {
+						throw asyncPollingFailure;
+					}
+					if (!acquireExecutionSlot()) {
+						if (AbstractTaskListService.this.autoscaler != null) {
+							AbstractTaskListService.this.autoscaler.executionSlotsExhausted();
 						}
+						// no capacity yet: check the service is still
+						// running before waiting again
+						continue;
 					}
-					AbstractTaskListService.this.LOGGER.info("Service not running anymore");
+					if (nonBlocking) {
+						// the task is executed once polled, the thread
+						// polls again as soon as a slot is free
+						pollAsync();
+						continue;
+					}
+					final T task = pollTaskListOrReleaseSlot();
+					if (AbstractTaskListService.this.autoscaler != null) {
+						AbstractTaskListService.this.autoscaler.pollCompleted(task != null);
+					}
+					if (task != null) {
+						executeTask(task);
+					}
+				} catch (final Exception e) {
+					AbstractTaskListService.this.LOGGER.error(
+							"Error running poller. Service is going to stop now.",
+							e);
+					throw e;
 				}
+			}
+			AbstractTaskListService.this.LOGGER.info("Service not running anymore");
+		}
 
-				@Override
-				protected void triggerShutdown() {
-					super.triggerShutdown();
-					AbstractTaskListService.this.poller.stop();
-				}
-			};
-			this.daemonService.addListener(new Service.Listener() {
-				@Override
-				public void failed(final State from, final Throwable failure) {
-					super.failed(from, failure);
-				}
-			}, MoreExecutors.directExecutor());
+		@Override
+		protected void triggerShutdown() {
+			super.triggerShutdown();
+			AbstractTaskListService.this.poller.stop();
 		}
-		final State state = this.daemonService.state();
-		switch (state) {
-		case NEW:
-			this.daemonService.startAsync();
-			this.daemonService.awaitRunning();
-			break;
-		case STARTING:
-			this.daemonService.awaitRunning();
-			break;
-		case RUNNING:
-			break;
-		case STOPPING:
-		case FAILED:
-		case TERMINATED:
-		default:
-			throw new IllegalStateException("polling service is " + state + "!");
+
+		@Override
+		protected String serviceName() {
+			return AbstractTaskListService.this.getClass().getSimpleName() + "-poller-" + this.index;
+		}
+
+		void retire() {
+			this.retired = true;
+		}
+
+		boolean isActive() {
+			return !this.retired && (isRunning() || state() == State.STARTING);
+		}
+	}
+
+	/**
+	 * Poll the task list without blocking, the slot acquired being released
+	 * if no task is polled.
+	 */
+	private void pollAsync() {
+		this.asyncPoller.pollAsync().whenComplete((task, failure) -> {
+			if (this.autoscaler != null) {
+				this.autoscaler.pollCompleted(task != null);
+			}
+			if (task == null) {
+				releaseExecutionSlot();
+				if (failure != null && !isCancellation(failure)) {
+					this.asyncPollingFailure.compareAndSet(null, asException(failure));
+				}
+				return;
+			}
+			try {
+				executeTask(task);
+			} catch (final RuntimeException e) {
+				// the slot is released by the implementation
+				this.asyncPollingFailure.compareAndSet(null, e);
+			}
+		});
+	}
+
+	private static boolean isCancellation(final Throwable failure) {
+		return failure instanceof CancellationException || failure.getCause() instanceof CancellationException;
+	}
+
+	private static Exception asException(final Throwable failure) {
+		final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+				? failure.getCause()
+				: failure;
+		return cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause);
+	}
+
+	private PollingService createDaemonService() {
+		final PollingService daemonService = new PollingService(this.nextServiceIndex++);
+		daemonService.addListener(new Service.Listener() {
+			@Override
+			public void failed(final State from, final Throwable failure) {
+				super.failed(from, failure);
+			}
+		}, MoreExecutors.directExecutor());
+		return daemonService;
+	}
+
+	private synchronized void adjustPollers() {
+		try {
+			if (this.daemonServices == null) {
+				return;
+			}
+			// forget the retired pollers that are done
+			this.daemonServices.removeIf(daemonService -> daemonService.state() == State.TERMINATED);
+			final int current = pollingThreads();
+			final int target = this.autoscaler.nextPollerCount(current);
+			for (int i = current; i < target; i++) {
+				final PollingService daemonService = createDaemonService();
+				this.daemonServices.add(daemonService);
+				daemonService.startAsync();
+			}
+			for (int i = current; i > target; i--) {
+				this.daemonServices.stream()
+						.filter(PollingService::isActive)
+						.reduce((first, second) -> second)
+						.ifPresent(PollingService::retire);
+			}
+		} catch (final Exception e) {
+			this.LOGGER.error("Cannot adjust the number of pollers", e);
 		}
 	}
 
+	/**
+	 * @return the number of threads currently polling the task list
+	 */
+	public int pollingThreads() {
+		final List<PollingService> daemonServices = this.daemonServices;
+		return daemonServices == null ? 0
+				: (int) daemonServices.stream().filter(PollingService::isActive).count();
+	}
+
 	/**
 	 * Execute the task.
+	 * <p>
+	 * If the service limits its capacity with
+	 * {@link #acquireExecutionSlot()}, the implementation is responsible for
+	 * calling {@link #releaseExecutionSlot()} once the task is executed.
 	 *
 	 * @param task
 	 */
 	protected abstract void executeTask(final T task);
 
+	/**
+	 * @return true if {@link #executeTask(TaskContext)} hands the task over to
+	 *         other threads and limits the tasks in flight with
+	 *         {@link #acquireExecutionSlot()}: with an
+	 *         {@link AbstractAsyncTaskContextPoller}, the polling threads then
+	 *         poll without waiting for the result. The default implementation
+	 *         returns false
+	 */
+	protected boolean handsOffTasks() {
+		return false;
+	}
+
+	/**
+	 * Wait until the service is able to execute one more task. Called before
+	 * each polling operation, so that a task is claimed only when it can be
+	 * executed. The default implementation does not limit the capacity.
+	 *
+	 * @return true if the service can poll a task, false if no capacity became
+	 *         available in a reasonable amount of time
+	 */
+	protected boolean acquireExecutionSlot() {
+		return true;
+	}
+
+	/**
+	 * Give back the capacity acquired with {@link #acquireExecutionSlot()}.
+	 * The default implementation does nothing.
+	 */
+	protected void releaseExecutionSlot() {
+	}
+
 	/**
 	 * Execute the task. For testing purpose
 	 *
@@ -95,6 +336,18 @@ public abstract class AbstractTaskListService<T extends TaskContext> implements
 		return t;
 	}
 
+	private T pollTaskListOrReleaseSlot() throws TaskContextPollingException {
+		T task = null;
+		try {
+			task = pollTaskList();
+			return task;
+		} finally {
+			if (task == null) {
+				releaseExecutionSlot();
+			}
+		}
+	}
+
 	/**
 	 * A test only method that poll the task list once and execute the task
 	 *
@@ -110,25 +363,126 @@ public abstract class AbstractTaskListService<T extends TaskContext> implements
 
 	@Override
 	public void stop() {
-		if (this.daemonService != null) {
-			if (this.daemonService.state() == State.FAILED) {
-				this.LOGGER.info("Service is stopped with a failure state");
+		stopPolling(false);
+	}
+
+	/**
+	 * Stop the polling threads and wait for them to terminate.
+	 *
+	 * @param abort
+	 *            true to abort the polling operations in progress, false to
+	 *            wait for them to return
+	 * @return true if the service was started
+	 */
+	private boolean stopPolling(final boolean abort) {
+		synchronized (this) {
+			if (this.autoscalingExecutor != null) {
+				this.autoscalingExecutor.shutdownNow();
+				this.autoscalingExecutor = null;
+			}
+		}
+		if (this.daemonServices == null) {
+			return false;
+		}
+		this.LOGGER.info("Stopping the service");
+		for (final AbstractExecutionThreadService daemonService : this.daemonServices) {
+			if (daemonService.state() != State.FAILED) {
+				daemonService.stopAsync();
+			}
+		}
+		if (abort) {
+			this.poller.abort();
+		}
+		boolean failed = false;
+		for (final AbstractExecutionThreadService daemonService : this.daemonServices) {
+			if (daemonService.state() == State.FAILED) {
+				failed = true;
 			} else {
-				this.LOGGER.info("Stopping the service");
-				this.daemonService.stopAsync();
-				this.daemonService.awaitTerminated();
-				this.daemonService = null;
-				this.LOGGER.info("Service stopped");
+				try {
+					daemonService.awaitTerminated();
+				} catch (final IllegalStateException e) {
+					failed = true;
+				}
+			}
+		}
+		if (failed) {
+			this.LOGGER.info("Service is stopped with a failure state");
+		} else {
+			this.daemonServices = null;
+			this.LOGGER.info("Service stopped");
+		}
+		return true;
+	}
+
+	@Override
+	public boolean drain(final Duration timeout, final ShutdownListener listener) {
+		Preconditions.checkNotNull(timeout, "please specify the timeout!");
+		Preconditions.checkNotNull(listener, "please specify a listener!");
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		if (!stopPolling(true)) {
+			return true;
+		}
+		int inFlightTasks = inFlightTasks();
+		listener.pollingStopped(inFlightTasks);
+		drainStarted();
+		try {
+			while (inFlightTasks > 0 && System.nanoTime() < deadline) {
+				Thread.sleep(DRAIN_CHECK_INTERVAL.toMillis());
+				final int current = inFlightTasks();
+				if (current != inFlightTasks) {
+					inFlightTasks = current;
+					listener.progress(inFlightTasks);
+				}
 			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			drainFinished(inFlightTasks == 0);
 		}
+		if (inFlightTasks == 0) {
+			this.LOGGER.info("Service drained");
+			listener.drained();
+			return true;
+		}
+		this.LOGGER.warn("Service stopped with {} tasks not finished", inFlightTasks);
+		listener.timedOut(inFlightTasks);
+		return false;
+	}
+
+	/**
+	 * @return the number of tasks claimed and not finished yet. The default
+	 *         implementation executes the tasks in the polling threads, so
+	 *         that no task is in flight once they are stopped
+	 */
+	protected int inFlightTasks() {
+		return 0;
+	}
+
+	/**
+	 * Called once the polling threads are stopped, before waiting for the
+	 * tasks in flight. The default implementation does nothing.
+	 */
+	protected void drainStarted() {
+	}
+
+	/**
+	 * Called at the end of a drain to release the resources of the service.
+	 * The default implementation does nothing.
+	 *
+	 * @param drained
+	 *            true if all the tasks in flight finished, false if the drain
+	 *            timed out
+	 */
+	protected void drainFinished(final boolean drained) {
 	}
 
 	@Override
 	public boolean isStarted() {
-		return this.daemonService != null
-				&& (this.daemonService.isRunning()
-						|| this.daemonService.state() == State.STARTING
-						|| this.daemonService.state() == State.STOPPING);
+		return this.daemonServices != null
+				&& this.daemonServices.stream()
+						.anyMatch(daemonService -> daemonService.isRunning()
+								|| daemonService.state() == State.STARTING
+								|| daemonService.state() == State.STOPPING);
 	}
 
 }
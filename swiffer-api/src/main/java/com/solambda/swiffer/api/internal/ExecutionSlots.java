@@ -0,0 +1,84 @@
+package com.solambda.swiffer.api.internal;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A fixed number of slots to execute tasks.
+ * <p>
+ * A slot is acquired before polling a task list, and released once the polled
+ * task has been executed and responded to SWF (or if no task was polled). This
+ * way a task is only claimed when the service is able to execute it right
+ * away.
+ */
+public class ExecutionSlots {
+
+	private final int capacity;
+	private final Semaphore semaphore;
+
+	/**
+	 * @param capacity
+	 *            the maximum number of tasks being executed concurrently
+	 */
+	public ExecutionSlots(final int capacity) {
+		super();
+		Preconditions.checkArgument(capacity > 0, "the number of execution slots should be greater than 0");
+		this.capacity = capacity;
+		this.semaphore = new Semaphore(capacity);
+	}
+
+	/**
+	 * Wait for a free slot.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @return true if a slot was acquired, false if the timeout elapsed before
+	 *         a slot was available
+	 * @throws InterruptedException
+	 */
+	public boolean tryAcquire(final Duration timeout) throws InterruptedException {
+		return this.semaphore.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Release a slot previously acquired.
+	 */
+	public void release() {
+		this.semaphore.release();
+	}
+
+	/**
+	 * Wait for all the acquired slots to be released.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @return true if all the slots are free, false if the timeout elapsed
+	 *         before
+	 * @throws InterruptedException
+	 */
+	public boolean awaitAllReleased(final Duration timeout) throws InterruptedException {
+		if (this.semaphore.tryAcquire(this.capacity, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+			this.semaphore.release(this.capacity);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the maximum number of tasks being executed concurrently
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return the number of slots currently acquired
+	 */
+	public int inUse() {
+		return this.capacity - this.semaphore.availablePermits();
+	}
+
+}
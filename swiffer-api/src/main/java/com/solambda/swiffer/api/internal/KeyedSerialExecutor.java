@@ -0,0 +1,70 @@
+package com.solambda.swiffer.api.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Execute tasks on an {@link Executor}, one at a time for a given key and in
+ * the order of submission, while tasks of different keys run in parallel.
+ */
+public class KeyedSerialExecutor {
+
+	private final Executor executor;
+	private final ConcurrentMap<Object, CompletableFuture<Void>> lastTasks = new ConcurrentHashMap<>();
+
+	public KeyedSerialExecutor(final Executor executor) {
+		super();
+		this.executor = Preconditions.checkNotNull(executor, "please specify an executor!");
+	}
+
+	/**
+	 * Submit a task that starts once all the tasks previously submitted with
+	 * the same key are done, successfully or not.
+	 *
+	 * @param key
+	 *            the key of the task
+	 * @param task
+	 *            the task to execute
+	 * @return a future completed when the task is done
+	 */
+	public CompletableFuture<Void> submit(final Object key, final Runnable task) {
+		return submit(key, previous -> previous.thenRunAsync(task, this.executor));
+	}
+
+	/**
+	 * Submit a chain of stages that starts once all the tasks previously
+	 * submitted with the same key are done, successfully or not. The next task
+	 * of the key waits for the whole chain, so the stages may run on other
+	 * executors.
+	 *
+	 * @param key
+	 *            the key of the task
+	 * @param stages
+	 *            append the stages of the task to the given future, completed
+	 *            once the previous tasks of the key are done
+	 * @return a future completed when the last stage is done
+	 */
+	public CompletableFuture<Void> submit(final Object key,
+			final Function<CompletableFuture<Void>, CompletableFuture<Void>> stages) {
+		final CompletableFuture<Void> future = this.lastTasks.compute(key,
+				(k, lastTask) -> stages.apply(lastTask == null
+						? CompletableFuture.completedFuture(null)
+						: lastTask.handle((result, failure) -> null)));
+		// forget the key once its last task is done
+		future.whenComplete((result, failure) -> this.lastTasks.remove(key, future));
+		return future;
+	}
+
+	/**
+	 * @return the number of keys having tasks pending or running
+	 */
+	public int pendingKeys() {
+		return this.lastTasks.size();
+	}
+
+}
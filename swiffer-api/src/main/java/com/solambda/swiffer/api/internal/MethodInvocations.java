@@ -0,0 +1,221 @@
+package com.solambda.swiffer.api.internal;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Generate with the {@link LambdaMetafactory} a class invoking a method
+ * directly, as a lambda calling the method would.
+ * <p>
+ * The public instance methods of up to {@value #MAX_PARAMETERS} parameters
+ * are supported, which covers the handlers and the executors.
+ * <p>
+ * The generated classes are defined in the class loader of this class: the
+ * methods of the classes it does not see, loaded by a child class loader as in
+ * the application servers, are invoked reflectively.
+ */
+class MethodInvocations {
+
+	static final int MAX_PARAMETERS = 4;
+
+	/**
+	 * Invoke a method of its target with its arguments, through the class
+	 * generated for the method.
+	 * <p>
+	 * The generated classes are called from a call site per number of
+	 * parameters, rather than through an adapter per method, so that an
+	 * invocation only costs one dispatch.
+	 */
+	interface Invocation {
+		Object invoke(Object target, Object[] args) throws Throwable;
+	}
+
+	private static final class FunctionInvocation implements Invocation {
+
+		private final Object function;
+		private final int parameterCount;
+
+		FunctionInvocation(final Object function, final int parameterCount) {
+			this.function = function;
+			this.parameterCount = parameterCount;
+		}
+
+		@Override
+		public Object invoke(final Object target, final Object[] args) throws Throwable {
+			switch (this.parameterCount) {
+			case 0:
+				return ((Function0) this.function).apply(target);
+			case 1:
+				return ((Function1) this.function).apply(target, args[0]);
+			case 2:
+				return ((Function2) this.function).apply(target, args[0], args[1]);
+			case 3:
+				return ((Function3) this.function).apply(target, args[0], args[1], args[2]);
+			default:
+				return ((Function4) this.function).apply(target, args[0], args[1], args[2], args[3]);
+			}
+		}
+	}
+
+	private static final class ProcedureInvocation implements Invocation {
+
+		private final Object procedure;
+		private final int parameterCount;
+
+		ProcedureInvocation(final Object procedure, final int parameterCount) {
+			this.procedure = procedure;
+			this.parameterCount = parameterCount;
+		}
+
+		@Override
+		public Object invoke(final Object target, final Object[] args) throws Throwable {
+			switch (this.parameterCount) {
+			case 0:
+				((Procedure0) this.procedure).apply(target);
+				break;
+			case 1:
+				((Procedure1) this.procedure).apply(target, args[0]);
+				break;
+			case 2:
+				((Procedure2) this.procedure).apply(target, args[0], args[1]);
+				break;
+			case 3:
+				((Procedure3) this.procedure).apply(target, args[0], args[1], args[2]);
+				break;
+			default:
+				((Procedure4) this.procedure).apply(target, args[0], args[1], args[2], args[3]);
+			}
+			return null;
+		}
+	}
+
+	interface Function0 {
+		Object apply(Object target) throws Throwable;
+	}
+
+	interface Function1 {
+		Object apply(Object target, Object arg0) throws Throwable;
+	}
+
+	interface Function2 {
+		Object apply(Object target, Object arg0, Object arg1) throws Throwable;
+	}
+
+	interface Function3 {
+		Object apply(Object target, Object arg0, Object arg1, Object arg2) throws Throwable;
+	}
+
+	interface Function4 {
+		Object apply(Object target, Object arg0, Object arg1, Object arg2, Object arg3) throws Throwable;
+	}
+
+	interface Procedure0 {
+		void apply(Object target) throws Throwable;
+	}
+
+	interface Procedure1 {
+		void apply(Object target, Object arg0) throws Throwable;
+	}
+
+	interface Procedure2 {
+		void apply(Object target, Object arg0, Object arg1) throws Throwable;
+	}
+
+	interface Procedure3 {
+		void apply(Object target, Object arg0, Object arg1, Object arg2) throws Throwable;
+	}
+
+	interface Procedure4 {
+		void apply(Object target, Object arg0, Object arg1, Object arg2, Object arg3) throws Throwable;
+	}
+
+	private static final Class<?>[] FUNCTIONS = { Function0.class, Function1.class, Function2.class,
+			Function3.class, Function4.class };
+	private static final Class<?>[] PROCEDURES = { Procedure0.class, Procedure1.class, Procedure2.class,
+			Procedure3.class, Procedure4.class };
+
+	private MethodInvocations() {
+	}
+
+	/**
+	 * @param method
+	 *            the method to invoke
+	 * @return the invocation of the method, or null if the method is not
+	 *         supported and should be invoked reflectively
+	 */
+	static Invocation of(final Method method) {
+		final int parameterCount = method.getParameterCount();
+		if (parameterCount > MAX_PARAMETERS || Modifier.isStatic(method.getModifiers())
+				|| !Modifier.isPublic(method.getModifiers())
+				|| !Modifier.isPublic(method.getDeclaringClass().getModifiers())
+				|| !isLinkable(method)) {
+			return null;
+		}
+		final boolean isVoid = method.getReturnType() == void.class;
+		final Object function;
+		try {
+			function = generate(method, isVoid ? PROCEDURES[parameterCount] : FUNCTIONS[parameterCount]);
+		} catch (final Throwable e) {
+			// not accessible from this class: let the reflective call report it
+			return null;
+		}
+		return isVoid ? new ProcedureInvocation(function, parameterCount)
+				: new FunctionInvocation(function, parameterCount);
+	}
+
+	/**
+	 * @return true if the class loader of this class resolves the classes of
+	 *         the method to the same classes, so that the generated class can
+	 *         link to the method
+	 */
+	private static boolean isLinkable(final Method method) {
+		if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+			return false;
+		}
+		for (final Class<?> parameterType : method.getParameterTypes()) {
+			if (!isVisible(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isVisible(final Class<?> type) {
+		if (type.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(type.getName(), false, MethodInvocations.class.getClassLoader()) == type;
+		} catch (final ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	private static Object generate(final Method method, final Class<?> functionType) throws Throwable {
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final MethodHandle implementation = lookup.unreflect(method);
+		final Method functionMethod = functionType.getMethods()[0];
+		final MethodType functionMethodType = MethodType.methodType(functionMethod.getReturnType(),
+				functionMethod.getParameterTypes());
+		// the arguments are cast to the wrappers of the primitive parameters,
+		// then unboxed
+		MethodType instantiatedType = implementation.type().wrap();
+		if (method.getReturnType() == void.class) {
+			instantiatedType = instantiatedType.changeReturnType(void.class);
+		}
+		final CallSite site;
+		try {
+			site = LambdaMetafactory.metafactory(lookup, functionMethod.getName(),
+					MethodType.methodType(functionType), functionMethodType, implementation, instantiatedType);
+		} catch (final LambdaConversionException e) {
+			throw new IllegalStateException(e);
+		}
+		return site.getTarget().invoke();
+	}
+}
@@ -3,18 +3,73 @@ package com.solambda.swiffer.api.internal;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import com.google.common.primitives.Primitives;
+import com.solambda.swiffer.api.internal.MethodInvocations.Invocation;
+
+/**
+ * Invoke a method of an object through a class generated once, rather than
+ * through {@link Method#invoke(Object, Object...)} which checks the access and
+ * the arguments on every call. The methods which cannot be invoked that way
+ * are invoked reflectively, as are the arguments the generated class does not
+ * accept: the reflective call widens an {@link Integer} passed for a
+ * {@code long} parameter, where the generated class only unboxes a
+ * {@link Long}.
+ * <p>
+ * The exceptions are the ones of the reflective call: an exception thrown by
+ * the method is wrapped in an {@link InvocationTargetException}, arguments not
+ * matching the parameters of the method raise an {@link IllegalStateException}.
+ *
+ * @see MethodInvocations
+ */
 public class MethodInvoker {
 
 	private Object object;
 	private Method method;
+	private Class<?>[] parameterTypes;
+	/**
+	 * Null if the method is invoked reflectively.
+	 */
+	private Invocation invocation;
 
 	public MethodInvoker(final Object object, final Method method) {
 		super();
 		this.object = object;
 		this.method = method;
+		this.parameterTypes = method.getParameterTypes();
+		this.invocation = method.getDeclaringClass().isInstance(object) ? MethodInvocations.of(method) : null;
 	}
 
 	public Object invoke(final Object... args) throws InvocationTargetException {
+		if (this.invocation == null || args == null || args.length != this.parameterTypes.length) {
+			return invokeReflectively(args);
+		}
+		try {
+			return this.invocation.invoke(this.object, args);
+		} catch (final Throwable e) {
+			return recover(args, e);
+		}
+	}
+
+	/**
+	 * Kept out of {@link #invoke(Object...)} so that it is small enough to be
+	 * inlined in the handlers.
+	 *
+	 * @return the result of the reflective call, if the generated class
+	 *         rejected the arguments before calling the method
+	 * @throws InvocationTargetException
+	 *             wrapping the exception thrown by the method
+	 */
+	private Object recover(final Object[] args, final Throwable e) throws InvocationTargetException {
+		// raised either by the conversion of the arguments, before the method
+		// is called, or by the method
+		if ((e instanceof ClassCastException || e instanceof NullPointerException) && !accepts(args)) {
+			return invokeReflectively(args);
+		}
+		// the method invoked thrown an exception =>
+		throw new InvocationTargetException(e);
+	}
+
+	private Object invokeReflectively(final Object... args) throws InvocationTargetException {
 		try {
 			return this.method.invoke(this.object, args);
 		} catch (final IllegalAccessException e) {
@@ -26,4 +81,14 @@ public class MethodInvoker {
 			throw e;
 		}
 	}
+
+	private boolean accepts(final Object[] args) {
+		for (int i = 0; i < args.length; i++) {
+			final Class<?> parameterType = this.parameterTypes[i];
+			if (args[i] == null ? parameterType.isPrimitive() : !Primitives.wrap(parameterType).isInstance(args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
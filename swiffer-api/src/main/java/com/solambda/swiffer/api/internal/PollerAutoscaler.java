@@ -0,0 +1,158 @@
+package com.solambda.swiffer.api.internal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Compute the number of threads polling a task list from the outcome of the
+ * recent polling operations and from the backlog of the task list.
+ * <p>
+ * A poller is added while the polls keep returning tasks or while tasks are
+ * pending in the task list, unless the pollers had to wait for a free
+ * execution slot: more pollers would only wait longer. A poller is removed
+ * while the long-polls keep coming back empty.
+ */
+public class PollerAutoscaler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PollerAutoscaler.class);
+
+	/**
+	 * Default time between two adjustments, longer than a SWF long-poll so
+	 * that empty polls are observed.
+	 */
+	public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(90);
+
+	/**
+	 * Ratio of empty polls under which a poller is added.
+	 */
+	private static final double GROW_THRESHOLD = 0.1;
+	/**
+	 * Ratio of empty polls above which a poller is removed.
+	 */
+	private static final double SHRINK_THRESHOLD = 0.9;
+
+	private final int minPollers;
+	private final int maxPollers;
+	private final IntSupplier backlog;
+	private final Duration interval;
+
+	private final AtomicInteger polls = new AtomicInteger();
+	private final AtomicInteger emptyPolls = new AtomicInteger();
+	private final AtomicInteger slotWaits = new AtomicInteger();
+
+	/**
+	 * @param minPollers
+	 *            the minimum number of pollers, greater than 0
+	 * @param maxPollers
+	 *            the maximum number of pollers
+	 * @param backlog
+	 *            the number of tasks pending in the task list, or null if the
+	 *            backlog is unknown
+	 * @param interval
+	 *            the time between two adjustments
+	 */
+	public PollerAutoscaler(final int minPollers, final int maxPollers, final IntSupplier backlog,
+			final Duration interval) {
+		super();
+		Preconditions.checkArgument(minPollers > 0, "the minimum number of pollers should be greater than 0");
+		Preconditions.checkArgument(maxPollers >= minPollers,
+				"the maximum number of pollers should be greater than the minimum");
+		this.minPollers = minPollers;
+		this.maxPollers = maxPollers;
+		this.backlog = backlog;
+		this.interval = Preconditions.checkNotNull(interval, "please specify the interval!");
+	}
+
+	/**
+	 * Record the outcome of a polling operation.
+	 *
+	 * @param taskReceived
+	 *            true if the poll returned a task
+	 */
+	public void pollCompleted(final boolean taskReceived) {
+		this.polls.incrementAndGet();
+		if (!taskReceived) {
+			this.emptyPolls.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Record that a poller found no free execution slot in time.
+	 */
+	public void executionSlotsExhausted() {
+		this.slotWaits.incrementAndGet();
+	}
+
+	/**
+	 * Compute the number of pollers from the polls recorded since the previous
+	 * call.
+	 *
+	 * @param currentPollers
+	 *            the current number of pollers
+	 * @return the new number of pollers
+	 */
+	public int nextPollerCount(final int currentPollers) {
+		final int polls = this.polls.getAndSet(0);
+		final int emptyPolls = this.emptyPolls.getAndSet(0);
+		final int slotWaits = this.slotWaits.getAndSet(0);
+		final int backlog = currentBacklog();
+		// the execution capacity bounds the throughput, not the pollers
+		final boolean canGrow = slotWaits == 0;
+		int next = currentPollers;
+		if (backlog > 0) {
+			if (canGrow) {
+				next = currentPollers + 1;
+			}
+		} else if (polls > 0) {
+			// no poll completed means the pollers are waiting for execution
+			// capacity: nothing to learn from this period
+			final double emptyRatio = (double) emptyPolls / polls;
+			if (emptyRatio <= GROW_THRESHOLD && canGrow) {
+				next = currentPollers + 1;
+			} else if (emptyRatio >= SHRINK_THRESHOLD) {
+				next = currentPollers - 1;
+			}
+		}
+		next = bound(next);
+		if (next != currentPollers) {
+			LOGGER.info("Adjusting pollers from {} to {}: {} polls, {} empty, {} waits for a slot, backlog of {}",
+					currentPollers, next, polls, emptyPolls, slotWaits, backlog);
+		}
+		return next;
+	}
+
+	private int currentBacklog() {
+		if (this.backlog == null) {
+			return -1;
+		}
+		try {
+			return this.backlog.getAsInt();
+		} catch (final Exception e) {
+			LOGGER.warn("Cannot count the pending tasks", e);
+			return -1;
+		}
+	}
+
+	/**
+	 * @param pollers
+	 *            a number of pollers
+	 * @return the number of pollers within the bounds of this autoscaler
+	 */
+	public int bound(final int pollers) {
+		return Math.max(this.minPollers, Math.min(this.maxPollers, pollers));
+	}
+
+	/**
+	 * @return the time between two adjustments
+	 */
+	public Duration interval() {
+		return this.interval;
+	}
+
+}
@@ -26,4 +26,14 @@ public interface TaskContextPoller<T extends TaskContext> extends SwfAware {
 	 */
 	public abstract void stop();
 
+	/**
+	 * Stop polling and abort the polling operations in progress, so that the
+	 * threads blocked on {@link #poll()} return null right away. A task
+	 * claimed by an aborted polling operation is not executed: it times out
+	 * and is rescheduled by SWF.
+	 */
+	public default void abort() {
+		stop();
+	}
+
 }
\ No newline at end of file
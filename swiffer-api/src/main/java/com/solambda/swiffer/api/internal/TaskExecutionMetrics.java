@@ -0,0 +1,80 @@
+package com.solambda.swiffer.api.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.solambda.swiffer.api.ExecutionMetrics;
+
+/**
+ * {@link ExecutionMetrics} maintained by the service while it submits and
+ * executes tasks, whatever the kind of executor used.
+ */
+public class TaskExecutionMetrics implements ExecutionMetrics {
+
+	private final int capacity;
+	private final AtomicInteger queuedTasks = new AtomicInteger();
+	private final AtomicInteger activeTasks = new AtomicInteger();
+	private final AtomicLong completedTasks = new AtomicLong();
+
+	public TaskExecutionMetrics(final int capacity) {
+		super();
+		this.capacity = capacity;
+	}
+
+	/**
+	 * A task has been submitted to the executor.
+	 */
+	public void submitted() {
+		this.queuedTasks.incrementAndGet();
+	}
+
+	/**
+	 * A task submitted to the executor has been rejected.
+	 */
+	public void rejected() {
+		this.queuedTasks.decrementAndGet();
+	}
+
+	/**
+	 * A thread starts executing a submitted task.
+	 */
+	public void started() {
+		this.queuedTasks.decrementAndGet();
+		this.activeTasks.incrementAndGet();
+	}
+
+	/**
+	 * A task has been executed.
+	 */
+	public void completed() {
+		this.activeTasks.decrementAndGet();
+		this.completedTasks.incrementAndGet();
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public int activeTasks() {
+		return this.activeTasks.get();
+	}
+
+	@Override
+	public int queuedTasks() {
+		return this.queuedTasks.get();
+	}
+
+	@Override
+	public long completedTasks() {
+		return this.completedTasks.get();
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionMetrics [capacity=" + this.capacity + ", activeTasks=" + activeTasks() + ", queuedTasks="
+				+ queuedTasks() + ", completedTasks=" + completedTasks() + "]";
+	}
+
+}
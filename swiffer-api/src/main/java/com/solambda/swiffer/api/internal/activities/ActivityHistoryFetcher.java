@@ -0,0 +1,161 @@
+package com.solambda.swiffer.api.internal.activities;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
+import com.amazonaws.services.simpleworkflow.model.GetWorkflowExecutionHistoryRequest;
+import com.amazonaws.services.simpleworkflow.model.History;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.google.common.base.Preconditions;
+import com.solambda.swiffer.api.internal.decisions.ExecutionHistoryCache;
+import com.solambda.swiffer.api.internal.decisions.WorkflowHistory;
+
+/**
+ * Fetch the history of the workflow executions of the activity tasks of a
+ * worker.
+ * <p>
+ * The histories are cached: the next fetch of the history of an execution only
+ * reads the pages containing the events that occurred since. The activity
+ * tasks of the same execution fetching its history concurrently share the same
+ * fetch.
+ * <p>
+ * The started event of an activity task may not be in the history yet when
+ * the task is received: the history is fetched again, waiting longer each
+ * time, until the event appears or the timeout elapses.
+ */
+public class ActivityHistoryFetcher {
+
+	/**
+	 * Default maximum number of executions whose history is cached.
+	 */
+	public static final int DEFAULT_CACHED_EXECUTIONS = 100;
+	/**
+	 * Default time after which the history of an execution not fetched is
+	 * evicted.
+	 */
+	public static final Duration DEFAULT_IDLE_TIME = Duration.ofMinutes(5);
+	/**
+	 * Default time to wait for the started event of an activity task.
+	 */
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
+
+	private static final Duration INITIAL_BACKOFF = Duration.ofMillis(100);
+	private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+	private final AmazonSimpleWorkflow swf;
+	private final String domain;
+	private final ExecutionHistoryCache histories;
+	private final Duration timeout;
+
+	private final ConcurrentMap<WorkflowExecution, CompletableFuture<WorkflowHistory>> fetches = new ConcurrentHashMap<>();
+
+	public ActivityHistoryFetcher(final AmazonSimpleWorkflow swf, final String domain) {
+		this(swf, domain, new ExecutionHistoryCache(DEFAULT_CACHED_EXECUTIONS, DEFAULT_IDLE_TIME), DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * @param swf
+	 *            the SWF client
+	 * @param domain
+	 *            the domain of the executions
+	 * @param histories
+	 *            the cache of the histories
+	 * @param timeout
+	 *            the time to wait for the started event of an activity task
+	 */
+	public ActivityHistoryFetcher(final AmazonSimpleWorkflow swf, final String domain,
+			final ExecutionHistoryCache histories, final Duration timeout) {
+		super();
+		this.swf = Preconditions.checkNotNull(swf, "please specify the SWF client!");
+		this.domain = Preconditions.checkNotNull(domain, "please specify the domain!");
+		this.histories = Preconditions.checkNotNull(histories, "please specify the history cache!");
+		this.timeout = Preconditions.checkNotNull(timeout, "please specify the timeout!");
+	}
+
+	/**
+	 * @param execution
+	 *            the workflow execution of the activity task
+	 * @param startedEventId
+	 *            the id of the started event of the activity task
+	 * @return the history of the execution, containing the started event
+	 * @throws IllegalStateException
+	 *             if the started event is not in the history before the
+	 *             timeout, or if the thread is interrupted while waiting
+	 */
+	public WorkflowHistory history(final WorkflowExecution execution, final long startedEventId) {
+		final long deadline = System.nanoTime() + this.timeout.toNanos();
+		long backoff = INITIAL_BACKOFF.toNanos();
+		while (true) {
+			final WorkflowHistory history = fetch(execution);
+			if (history.getEventById(startedEventId) != null) {
+				return history;
+			}
+			final long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				throw new IllegalStateException(String.format(
+						"the started event %s of the activity task is not in the history of %s after %s",
+						startedEventId, execution, this.timeout));
+			}
+			sleep(Math.min(backoff, remaining));
+			backoff = Math.min(backoff * 2, MAX_BACKOFF.toNanos());
+		}
+	}
+
+	/**
+	 * Fetch the history of the execution, or wait for the fetch in progress.
+	 */
+	private WorkflowHistory fetch(final WorkflowExecution execution) {
+		final CompletableFuture<WorkflowHistory> fetch = new CompletableFuture<>();
+		final CompletableFuture<WorkflowHistory> inProgress = this.fetches.putIfAbsent(execution, fetch);
+		if (inProgress != null) {
+			try {
+				return inProgress.join();
+			} catch (final CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+		try {
+			final WorkflowHistory history = fetchNewEvents(execution);
+			fetch.complete(history);
+			return history;
+		} catch (final RuntimeException e) {
+			fetch.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.fetches.remove(execution, fetch);
+		}
+	}
+
+	private WorkflowHistory fetchNewEvents(final WorkflowExecution execution) {
+		final List<HistoryEvent> fetchedEvents = new ArrayList<>();
+		String nextPageToken = null;
+		do {
+			final History page = this.swf.getWorkflowExecutionHistory(new GetWorkflowExecutionHistoryRequest()
+					.withDomain(this.domain)
+					.withExecution(execution)
+					.withReverseOrder(true)
+					.withNextPageToken(nextPageToken));
+			fetchedEvents.addAll(page.getEvents());
+			nextPageToken = page.getNextPageToken();
+		} while (nextPageToken != null && !this.histories.reachesCachedHistory(execution, fetchedEvents));
+		return this.histories.completeAndCache(execution, fetchedEvents);
+	}
+
+	private static void sleep(final long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for the history", e);
+		}
+	}
+
+}
@@ -1,29 +1,41 @@
 package com.solambda.swiffer.api.internal.activities;
 
-import java.time.Duration;
-import java.util.ArrayList;
-import java.util.List;
-
 import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
 import com.amazonaws.services.simpleworkflow.model.ActivityTask;
 import com.amazonaws.services.simpleworkflow.model.ActivityType;
-import com.amazonaws.services.simpleworkflow.model.GetWorkflowExecutionHistoryRequest;
-import com.amazonaws.services.simpleworkflow.model.History;
-import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.google.common.base.Preconditions;
 import com.solambda.swiffer.api.internal.VersionedName;
 import com.solambda.swiffer.api.internal.decisions.WorkflowHistory;
-import com.solambda.swiffer.api.internal.decisions.WorkflowHistoryImpl;
 
 public class ActivityTaskContextImpl implements ActivityTaskContext {
 
-	private AmazonSimpleWorkflow swf;
 	private ActivityTask task;
-	private String domain;
+	private ActivityHistoryFetcher historyFetcher;
 
+	/**
+	 * @deprecated the history of the execution cannot be fetched without the
+	 *             domain: use
+	 *             {@link #ActivityTaskContextImpl(AmazonSimpleWorkflow, String, ActivityTask)}
+	 */
+	@Deprecated
 	public ActivityTaskContextImpl(final AmazonSimpleWorkflow client, final ActivityTask task) {
+		this(task, null);
+	}
+
+	public ActivityTaskContextImpl(final AmazonSimpleWorkflow client, final String domain, final ActivityTask task) {
+		this(task, new ActivityHistoryFetcher(client, domain));
+	}
+
+	/**
+	 * @param historyFetcher
+	 *            fetch the history of the execution, shared with the other
+	 *            activity tasks of the worker, or null if the history cannot
+	 *            be fetched
+	 */
+	public ActivityTaskContextImpl(final ActivityTask task, final ActivityHistoryFetcher historyFetcher) {
 		super();
-		this.swf = client;
 		this.task = task;
+		this.historyFetcher = historyFetcher;
 	}
 
 	@Override
@@ -47,39 +59,14 @@ public class ActivityTaskContextImpl implements ActivityTaskContext {
 		return new VersionedName(activityType.getName(), activityType.getVersion());
 	}
 
+	/**
+	 * @return the history of the workflow execution, up to the started event of
+	 *         this task at least
+	 */
 	@Override
 	public WorkflowHistory history() {
-		WorkflowHistory history = null;
-		do {
-			history = fetchHistory();
-		} while (taskIsNotInHistory(history) && sleep(Duration.ofSeconds(2)));
-		return history;
-	}
-
-	private boolean sleep(final Duration duration) {
-		try {
-			Thread.sleep(duration.toMillis());
-		} catch (final InterruptedException e) {
-		}
-		return true;
-	}
-
-	private boolean taskIsNotInHistory(final WorkflowHistory history) {
-		return history.getEventById(this.task.getStartedEventId()) == null;
-	}
-
-	private WorkflowHistory fetchHistory() {
-		final List<HistoryEvent> allEvents = new ArrayList<HistoryEvent>();
-		String nextPageToken = null;
-		do {
-			final History history = this.swf.getWorkflowExecutionHistory(new GetWorkflowExecutionHistoryRequest()
-					.withDomain(this.domain)
-					.withExecution(this.task.getWorkflowExecution())
-					.withReverseOrder(true)
-					.withNextPageToken(nextPageToken));
-			allEvents.addAll(history.getEvents());
-			nextPageToken = history.getNextPageToken();
-		} while (nextPageToken != null);
-		return new WorkflowHistoryImpl(allEvents);
+		Preconditions.checkState(this.historyFetcher != null,
+				"the domain of the task is unknown, cannot fetch the history of the execution");
+		return this.historyFetcher.history(this.task.getWorkflowExecution(), this.task.getStartedEventId());
 	}
 }
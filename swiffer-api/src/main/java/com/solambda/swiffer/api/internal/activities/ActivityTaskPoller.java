@@ -14,28 +14,45 @@ public class ActivityTaskPoller
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ActivityTaskPoller.class);
 
+	private final ActivityHistoryFetcher historyFetcher;
+
 	public ActivityTaskPoller(final AmazonSimpleWorkflow swf, final String domain, final String taskList,
 			final String identity) {
 		super(swf, domain, taskList, identity);
+		this.historyFetcher = new ActivityHistoryFetcher(swf, domain);
 	}
 
 	@Override
 	protected ActivityTaskContext pollForTask() throws Exception {
 		LOGGER.debug("[{}:{}] Polling Activity task list '{}'", this.domain, this.identity, this.taskList);
-		final PollForActivityTaskRequest pollForActivityTaskRequest = new PollForActivityTaskRequest()
-				.withDomain(this.domain)
-				.withIdentity(this.identity)
-				.withTaskList(new TaskList().withName(this.taskList));
-		final ActivityTask activityTask = this.swf.pollForActivityTask(pollForActivityTaskRequest);
+		final ActivityTask activityTask = this.swf.pollForActivityTask(
+				newPollRequest(this.domain, this.taskList, this.identity));
+		return toTaskContext(this.domain, this.taskList, this.identity, activityTask, this.historyFetcher);
+	}
+
+	static PollForActivityTaskRequest newPollRequest(final String domain, final String taskList,
+			final String identity) {
+		return new PollForActivityTaskRequest()
+				.withDomain(domain)
+				.withIdentity(identity)
+				.withTaskList(new TaskList().withName(taskList));
+	}
+
+	/**
+	 * @param historyFetcher
+	 *            fetch the history of the execution of the task, shared by the
+	 *            tasks of the poller
+	 * @return the context of the polled activity task, or null if no task was
+	 *         available
+	 */
+	static ActivityTaskContext toTaskContext(final String domain, final String taskList, final String identity,
+			final ActivityTask activityTask, final ActivityHistoryFetcher historyFetcher) {
 		if (activityTask == null || activityTask.getTaskToken() == null) {
-			LOGGER.debug("[{}:{}] no ActivityTask available in task list '{}'", this.domain, this.identity,
-					this.taskList);
+			LOGGER.debug("[{}:{}] no ActivityTask available in task list '{}'", domain, identity, taskList);
 			return null;
 		}
-		LOGGER.debug("[{}:{}] ActivityTask received from '{}':{}", this.domain, this.identity, this.taskList,
-				activityTask);
-		return new ActivityTaskContextImpl(this.swf, activityTask);
-
+		LOGGER.debug("[{}:{}] ActivityTask received from '{}':{}", domain, identity, taskList, activityTask);
+		return new ActivityTaskContextImpl(activityTask, historyFetcher);
 	}
 
 }
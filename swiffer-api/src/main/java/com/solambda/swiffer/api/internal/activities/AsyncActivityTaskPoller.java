@@ -0,0 +1,37 @@
+package com.solambda.swiffer.api.internal.activities;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.amazonaws.services.simpleworkflow.model.ActivityTask;
+import com.amazonaws.services.simpleworkflow.model.PollForActivityTaskRequest;
+import com.solambda.swiffer.api.internal.AbstractAsyncTaskContextPoller;
+
+/**
+ * Poll activity tasks with the asynchronous SWF client.
+ */
+public class AsyncActivityTaskPoller extends AbstractAsyncTaskContextPoller<ActivityTaskContext> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncActivityTaskPoller.class);
+
+	private final ActivityHistoryFetcher historyFetcher;
+
+	public AsyncActivityTaskPoller(final AmazonSimpleWorkflowAsync swf, final String domain, final String taskList,
+			final String identity) {
+		super(swf, domain, taskList, identity);
+		this.historyFetcher = new ActivityHistoryFetcher(swf, domain);
+	}
+
+	@Override
+	protected CompletableFuture<ActivityTaskContext> pollForTaskAsync() {
+		LOGGER.debug("[{}:{}] Polling Activity task list '{}'", this.domain, this.identity, this.taskList);
+		return this.<PollForActivityTaskRequest, ActivityTask> call(this.swf::pollForActivityTaskAsync,
+				ActivityTaskPoller.newPollRequest(this.domain, this.taskList, this.identity))
+						.thenApply(activityTask -> ActivityTaskPoller.toTaskContext(this.domain, this.taskList,
+								this.identity, activityTask, this.historyFetcher));
+	}
+
+}
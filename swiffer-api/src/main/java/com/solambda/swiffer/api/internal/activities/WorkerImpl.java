@@ -2,24 +2,55 @@ package com.solambda.swiffer.api.internal.activities;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.solambda.swiffer.api.ExecutionMetrics;
 import com.solambda.swiffer.api.Worker;
 import com.solambda.swiffer.api.exceptions.ActivityTaskExecutionFailedException;
+import com.solambda.swiffer.api.exceptions.CancelActivityRequested;
 import com.solambda.swiffer.api.internal.AbstractTaskListService;
+import com.solambda.swiffer.api.internal.ExecutionSlots;
 import com.solambda.swiffer.api.internal.Failure;
 import com.solambda.swiffer.api.internal.TaskContextPoller;
+import com.solambda.swiffer.api.internal.TaskExecutionMetrics;
 import com.solambda.swiffer.api.internal.VersionedName;
 
 public class WorkerImpl extends AbstractTaskListService<ActivityTaskContext> implements Worker {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(WorkerImpl.class);
+	/**
+	 * Default maximum number of activity tasks executed concurrently.
+	 */
+	public static final int DEFAULT_EXECUTION_THREADS = 10;
+	/**
+	 * Default time between two heartbeats of the activity tasks in flight
+	 * while the worker is drained.
+	 */
+	public static final Duration DEFAULT_DRAIN_HEARTBEAT_INTERVAL = Duration.ofSeconds(10);
+	private static final Duration SLOT_WAITING_TIMEOUT = Duration.ofSeconds(1);
+
 	private ExecutorService executor;
+	private final boolean shutdownExecutorOnStop;
+	private ExecutionSlots slots;
+	private TaskExecutionMetrics metrics;
+	/**
+	 * Tokens of the activity tasks claimed and not reported yet.
+	 */
+	private final Set<String> inFlightTaskTokens = ConcurrentHashMap.newKeySet();
+	private Duration drainHeartbeatInterval = DEFAULT_DRAIN_HEARTBEAT_INTERVAL;
+	private ScheduledExecutorService heartbeatExecutor;
 
 	private ActivityExecutorRegistry registry;
 
@@ -29,18 +60,111 @@ public class WorkerImpl extends AbstractTaskListService<ActivityTaskContext> imp
 			final TaskContextPoller<ActivityTaskContext> poller,
 			final ActivityExecutorRegistry registry,
 			final ActivityExecutionReporter reporter) {
-		super(poller);
-		this.executor = Executors.newFixedThreadPool(10);
+		this(poller, 1, registry, reporter);
+	}
+
+	public WorkerImpl(
+			final TaskContextPoller<ActivityTaskContext> poller,
+			final int pollingThreads,
+			final ActivityExecutorRegistry registry,
+			final ActivityExecutionReporter reporter) {
+		this(poller, pollingThreads, registry, reporter,
+				Executors.newFixedThreadPool(DEFAULT_EXECUTION_THREADS), DEFAULT_EXECUTION_THREADS, true);
+	}
+
+	/**
+	 * @param poller
+	 *            the poller of activity tasks
+	 * @param pollingThreads
+	 *            the number of threads polling the task list concurrently
+	 * @param registry
+	 *            the activity executors
+	 * @param reporter
+	 *            the reporter of task executions
+	 * @param executor
+	 *            the executor running the activity tasks
+	 * @param executionThreads
+	 *            the maximum number of activity tasks executed concurrently.
+	 *            It should not exceed the number of threads of the executor,
+	 *            otherwise polled tasks would wait in its queue
+	 * @param shutdownExecutorOnStop
+	 *            true if the executor is owned by this worker and should be
+	 *            shutdown when the worker stops
+	 */
+	public WorkerImpl(
+			final TaskContextPoller<ActivityTaskContext> poller,
+			final int pollingThreads,
+			final ActivityExecutorRegistry registry,
+			final ActivityExecutionReporter reporter,
+			final ExecutorService executor,
+			final int executionThreads,
+			final boolean shutdownExecutorOnStop) {
+		super(poller, pollingThreads);
+		this.executor = Preconditions.checkNotNull(executor, "please specify an executor!");
+		this.shutdownExecutorOnStop = shutdownExecutorOnStop;
+		this.slots = new ExecutionSlots(executionThreads);
+		this.metrics = new TaskExecutionMetrics(executionThreads);
 		this.registry = registry;
 		this.reporter = reporter;
 	}
 
+	/**
+	 * @param interval
+	 *            the time between two heartbeats of the activity tasks in
+	 *            flight while the worker is drained
+	 */
+	public void drainHeartbeatInterval(final Duration interval) {
+		this.drainHeartbeatInterval = Preconditions.checkNotNull(interval, "please specify the interval!");
+	}
+
+	@Override
+	protected boolean acquireExecutionSlot() {
+		try {
+			return this.slots.tryAcquire(SLOT_WAITING_TIMEOUT);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	protected void releaseExecutionSlot() {
+		this.slots.release();
+	}
+
+	@Override
+	protected boolean handsOffTasks() {
+		return true;
+	}
+
 	@Override
 	protected void executeTask(final ActivityTaskContext task) {
 		// emit the task execution in another thread.
-		this.executor.submit(() -> {
-			executeTaskImmediately(task);
-		});
+		// the slot is released once the execution has been reported to SWF
+		this.metrics.submitted();
+		this.inFlightTaskTokens.add(task.taskToken());
+		try {
+			this.executor.submit(() -> {
+				this.metrics.started();
+				try {
+					executeTaskImmediately(task);
+				} finally {
+					this.metrics.completed();
+					this.inFlightTaskTokens.remove(task.taskToken());
+					releaseExecutionSlot();
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			this.metrics.rejected();
+			this.inFlightTaskTokens.remove(task.taskToken());
+			releaseExecutionSlot();
+			throw e;
+		}
+	}
+
+	@Override
+	public ExecutionMetrics executionMetrics() {
+		return this.metrics;
 	}
 
 	@Override
@@ -85,15 +209,67 @@ public class WorkerImpl extends AbstractTaskListService<ActivityTaskContext> imp
 		}
 	}
 
+	@Override
+	protected int inFlightTasks() {
+		return this.slots.inUse();
+	}
+
+	@Override
+	protected void drainStarted() {
+		// the activities may not heartbeat by themselves: keep them alive in
+		// SWF until they finish
+		this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat(getClass().getSimpleName() + "-heartbeat")
+				.setDaemon(true)
+				.build());
+		final long interval = this.drainHeartbeatInterval.toMillis();
+		this.heartbeatExecutor.scheduleWithFixedDelay(this::heartbeatInFlightTasks, interval, interval,
+				TimeUnit.MILLISECONDS);
+	}
+
+	private void heartbeatInFlightTasks() {
+		for (final String taskToken : this.inFlightTaskTokens) {
+			try {
+				this.reporter.progress(taskToken, null);
+			} catch (final CancelActivityRequested e) {
+				LOGGER.info("Cancellation requested for the activity task {} being drained", taskToken);
+			} catch (final Exception e) {
+				// the task may have been reported in the meantime
+				LOGGER.debug("Cannot record an heartbeat for the activity task {}", taskToken, e);
+			}
+		}
+	}
+
+	@Override
+	protected void drainFinished(final boolean drained) {
+		if (this.heartbeatExecutor != null) {
+			this.heartbeatExecutor.shutdownNow();
+			this.heartbeatExecutor = null;
+		}
+		if (this.shutdownExecutorOnStop) {
+			if (drained) {
+				this.executor.shutdown();
+			} else {
+				// the remaining activities time out in SWF
+				this.executor.shutdownNow();
+			}
+		}
+	}
+
 	@Override
 	public void stop() {
 		// super.stop blocks until the service poll and execute the last task
 		super.stop();
-		// ... so that we can safely shutdown (do not accept new tasks)
-		this.executor.shutdown();
 		try {
-			// ...and wait for the last activity to finish and respond to swf
-			this.executor.awaitTermination(1, TimeUnit.HOURS);
+			if (this.shutdownExecutorOnStop) {
+				// ... so that we can safely shutdown (do not accept new tasks)
+				this.executor.shutdown();
+				// ...and wait for the last activity to finish and respond to swf
+				this.executor.awaitTermination(1, TimeUnit.HOURS);
+			} else {
+				// the executor is shared: only wait for our own activities
+				this.slots.awaitAllReleased(Duration.ofHours(1));
+			}
 		} catch (final InterruptedException e) {
 			throw new IllegalStateException("Awaited more than 1 hours for an activity to terminate!");
 		}
@@ -46,4 +46,8 @@ public class ActivityName implements ContextName {
 		return "TaskName[" + type + "]";
 	}
 
+	public VersionedName type() {
+		return type;
+	}
+
 }
@@ -48,4 +48,8 @@ public class MarkerName implements ContextName {
 		return "MarkerName[" + name + "]";
 	}
 
+	public String name() {
+		return name;
+	}
+
 }
@@ -50,4 +50,8 @@ public class WorkflowName implements ContextName {
 		return "WorkflowName[" + this.type + "]";
 	}
 
+	public VersionedName type() {
+		return this.type;
+	}
+
 }
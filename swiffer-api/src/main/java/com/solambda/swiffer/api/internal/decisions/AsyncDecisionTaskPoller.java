@@ -0,0 +1,95 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.amazonaws.services.simpleworkflow.model.DecisionTask;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.PollForDecisionTaskRequest;
+import com.google.common.base.Preconditions;
+import com.solambda.swiffer.api.HistoryMode;
+import com.solambda.swiffer.api.internal.AbstractAsyncTaskContextPoller;
+import com.solambda.swiffer.api.mapper.DataMapper;
+
+/**
+ * Poll decision tasks with the asynchronous SWF client. The pages of the
+ * history are fetched one after the other, without blocking any thread.
+ */
+public class AsyncDecisionTaskPoller extends AbstractAsyncTaskContextPoller<DecisionTaskContext> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncDecisionTaskPoller.class);
+	private final DataMapper dataMapper;
+	private final ExecutionHistoryCache historyCache;
+	private final HistoryMode historyMode;
+
+	public AsyncDecisionTaskPoller(final AmazonSimpleWorkflowAsync swf, final String domain, final String taskList,
+			final String identity, final DataMapper dataMapper) {
+		this(swf, domain, taskList, identity, dataMapper, null);
+	}
+
+	/**
+	 * @param historyCache
+	 *            the histories of the executions recently decided, or null to
+	 *            always fetch the complete history
+	 */
+	public AsyncDecisionTaskPoller(final AmazonSimpleWorkflowAsync swf, final String domain, final String taskList,
+			final String identity, final DataMapper dataMapper, final ExecutionHistoryCache historyCache) {
+		this(swf, domain, taskList, identity, dataMapper, historyCache, HistoryMode.EAGER);
+	}
+
+	/**
+	 * @param historyCache
+	 *            the histories of the executions recently decided, or null to
+	 *            always fetch the complete history
+	 * @param historyMode
+	 *            how the pages of the history are fetched, {@link HistoryMode#EAGER},
+	 *            {@link HistoryMode#LAZY} or {@link HistoryMode#DELTA}
+	 */
+	public AsyncDecisionTaskPoller(final AmazonSimpleWorkflowAsync swf, final String domain, final String taskList,
+			final String identity, final DataMapper dataMapper, final ExecutionHistoryCache historyCache,
+			final HistoryMode historyMode) {
+		super(swf, domain, taskList, identity);
+		this.dataMapper = dataMapper;
+		this.historyCache = historyCache;
+		this.historyMode = Preconditions.checkNotNull(historyMode, "please specify the history mode!");
+	}
+
+	@Override
+	protected CompletableFuture<DecisionTaskContext> pollForTaskAsync() {
+		LOGGER.debug("[{}:{}] Polling Decision task list '{}'", this.domain, this.identity, this.taskList);
+		return pollForHistory(null, new ArrayList<>())
+				.thenApply(decisionTask -> DecisionTaskPoller.toTaskContext(this.swf, this.domain, this.taskList,
+						this.identity, decisionTask, this.dataMapper, this.historyCache,
+						nextPageToken -> pollForPage(nextPageToken).join()));
+	}
+
+	private CompletableFuture<DecisionTask> pollForPage(final String nextPageToken) {
+		return this.<PollForDecisionTaskRequest, DecisionTask> call(this.swf::pollForDecisionTaskAsync,
+				DecisionTaskPoller.newPollRequest(this.domain, this.taskList, this.identity, nextPageToken));
+	}
+
+	private CompletableFuture<DecisionTask> pollForHistory(final String nextPageToken,
+			final List<HistoryEvent> fetchedEvents) {
+		return pollForPage(nextPageToken)
+				.thenCompose(decisionTask -> {
+					if (decisionTask == null) {
+						return CompletableFuture.completedFuture(null);
+					}
+					if (decisionTask.getEvents() != null) {
+						fetchedEvents.addAll(decisionTask.getEvents());
+					}
+					if (!DecisionTaskPoller.isFetchComplete(this.historyMode, decisionTask, fetchedEvents,
+							this.historyCache)) {
+						return pollForHistory(decisionTask.getNextPageToken(), fetchedEvents);
+					}
+					return CompletableFuture.completedFuture(
+							DecisionTaskPoller.withFetchedEvents(decisionTask, fetchedEvents, this.historyCache));
+				});
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.solambda.swiffer.api.Decisions;
+
+/**
+ * Handle at once all the new events of a decision task having this handler,
+ * and make decisions of them.
+ */
+public interface BatchEventHandler extends EventHandler {
+
+	/**
+	 * @param context
+	 *            the context of the decision task
+	 * @param events
+	 *            the new events of the decision task having this handler, in
+	 *            the order of the new events
+	 * @param decisions
+	 * @return a string to be automatically registered as a marker, or none.
+	 * @throws DecisionTaskExecutionException
+	 */
+	public String handleEvents(DecisionTaskContext context, List<WorkflowEvent> events, Decisions decisions)
+			throws DecisionTaskExecutionException;
+
+	@Override
+	public default String handleEvent(final EventContext event, final Decisions decisions)
+			throws DecisionTaskExecutionException {
+		return handleEvents(event, Collections.singletonList(event.event()), decisions);
+	}
+}
@@ -0,0 +1,21 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.List;
+
+import com.solambda.swiffer.api.Decisions;
+
+public interface BatchEventHandlerArgumentsProvider {
+
+	/**
+	 * Transform the given events into an array of arguments.
+	 *
+	 * @param context
+	 *            the context of the decision task
+	 * @param events
+	 *            the events handled at once
+	 * @param decisions
+	 * @return the arguments of the handler
+	 */
+	public Object[] getArguments(DecisionTaskContext context, List<WorkflowEvent> events, Decisions decisions);
+
+}
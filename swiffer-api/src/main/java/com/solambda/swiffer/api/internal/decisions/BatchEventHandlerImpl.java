@@ -0,0 +1,47 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import com.solambda.swiffer.api.Decisions;
+import com.solambda.swiffer.api.internal.MethodInvoker;
+
+public class BatchEventHandlerImpl implements BatchEventHandler {
+
+	private EventHandlerType type;
+	private MethodInvoker methodInvoker;
+	private BatchEventHandlerArgumentsProvider argumentsProvider;
+
+	public BatchEventHandlerImpl(
+			final EventHandlerType type,
+			final MethodInvoker methodInvoker,
+			final BatchEventHandlerArgumentsProvider argumentsProvider) {
+		super();
+		this.type = type;
+		this.methodInvoker = methodInvoker;
+		this.argumentsProvider = argumentsProvider;
+	}
+
+	@Override
+	public String handleEvents(final DecisionTaskContext context, final List<WorkflowEvent> events,
+			final Decisions decisions) throws DecisionTaskExecutionException {
+		try {
+			final Object[] arguments = this.argumentsProvider.getArguments(context, events, decisions);
+			final Object result = this.methodInvoker.invoke(arguments);
+			if (result == null) {
+				return null;
+			}
+			return result.toString();
+		} catch (final InvocationTargetException e) {
+			// reported on the first event of the batch
+			throw new DecisionTaskExecutionException(new EventContextImpl(context, events.get(0)),
+					e.getTargetException());
+		}
+	}
+
+	@Override
+	public EventHandlerType getEventHandlerType() {
+		return this.type;
+	}
+
+}
@@ -1,5 +1,12 @@
 package com.solambda.swiffer.api.internal.decisions;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,24 +14,151 @@ import com.amazonaws.services.simpleworkflow.model.AmazonSimpleWorkflowException
 import com.amazonaws.services.simpleworkflow.model.UnknownResourceException;
 import com.solambda.swiffer.api.Decider;
 import com.solambda.swiffer.api.Decisions;
+import com.solambda.swiffer.api.ExecutionMetrics;
 import com.solambda.swiffer.api.internal.AbstractTaskListService;
+import com.solambda.swiffer.api.internal.ExecutionSlots;
+import com.solambda.swiffer.api.internal.KeyedSerialExecutor;
 import com.solambda.swiffer.api.internal.TaskContextPoller;
+import com.solambda.swiffer.api.internal.TaskExecutionMetrics;
 
 public class DeciderImpl extends AbstractTaskListService<DecisionTaskContext> implements Decider {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DeciderImpl.class);
 
+	private static final Duration SLOT_WAITING_TIMEOUT = Duration.ofSeconds(1);
+
 	private WorkflowTemplateRegistry registry;
 	private DecisionExecutor executor;
 
+	/**
+	 * Executors of the stages of the decision tasks, or null if the tasks are
+	 * executed by the polling threads.
+	 */
+	private final DecisionStages stages;
+	private final KeyedSerialExecutor serialExecutor;
+	private final ExecutionSlots slots;
+	private final TaskExecutionMetrics metrics;
+	/**
+	 * The failure of a decision task executed in stages that stops the
+	 * decider, rethrown in a polling thread as if the task had been executed
+	 * there.
+	 */
+	private final AtomicReference<IllegalStateException> stageFailure = new AtomicReference<>();
+
 	public DeciderImpl(final TaskContextPoller<DecisionTaskContext> poller, final WorkflowTemplateRegistry registry) {
-		super(poller);
+		this(poller, registry, 1, null);
+	}
+
+	/**
+	 * @param poller
+	 *            the poller of decision tasks
+	 * @param registry
+	 *            the workflow templates
+	 * @param pollingThreads
+	 *            the number of threads polling the task list concurrently
+	 * @param stages
+	 *            the executors of the stages of the decision tasks, or null to
+	 *            execute the tasks in the polling threads
+	 */
+	public DeciderImpl(final TaskContextPoller<DecisionTaskContext> poller, final WorkflowTemplateRegistry registry,
+			final int pollingThreads, final DecisionStages stages) {
+		super(poller, pollingThreads);
 		this.registry = registry;
 		this.executor = new DecisionExecutorImpl(poller.swf());
+		this.stages = stages;
+		if (stages == null) {
+			this.serialExecutor = null;
+			this.slots = null;
+			this.metrics = new TaskExecutionMetrics(pollingThreads);
+		} else {
+			this.serialExecutor = new KeyedSerialExecutor(stages.history());
+			this.slots = new ExecutionSlots(stages.capacity());
+			this.metrics = new TaskExecutionMetrics(stages.capacity());
+		}
+	}
+
+	@Override
+	protected boolean acquireExecutionSlot() {
+		final IllegalStateException failure = this.stageFailure.get();
+		if (failure != null) {
+			throw failure;
+		}
+		if (this.slots == null) {
+			return true;
+		}
+		try {
+			return this.slots.tryAcquire(SLOT_WAITING_TIMEOUT);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	protected void releaseExecutionSlot() {
+		if (this.slots != null) {
+			this.slots.release();
+		}
+	}
+
+	@Override
+	protected boolean handsOffTasks() {
+		return this.stages != null;
 	}
 
 	@Override
 	protected void executeTask(final DecisionTaskContext task) {
-		executeTaskImmediately(task);
+		this.metrics.submitted();
+		if (this.stages == null) {
+			this.metrics.started();
+			try {
+				executeTaskImmediately(task);
+			} finally {
+				this.metrics.completed();
+			}
+		} else {
+			// decision tasks of the same workflow execution are never executed
+			// concurrently, and are executed in the order they were polled.
+			// a slot is held until the decisions are responded: with a slot
+			// per stage thread, the next task is polled while the previous
+			// ones are being decided and responded
+			final AtomicBoolean started = new AtomicBoolean();
+			try {
+				this.serialExecutor.submit(executionKey(task), previous -> previous
+						.thenApplyAsync(ignored -> {
+							started.set(true);
+							this.metrics.started();
+							final WorkflowTemplate template = getWorkflowTemplateOrFail(task);
+							task.history();
+							return template;
+						}, this.stages.history())
+						.thenApplyAsync(template -> decide(task, template), this.stages.decide())
+						.thenAcceptAsync(decisions -> this.executor.apply(task, decisions), this.stages.respond())
+						.whenComplete((result, failure) -> {
+							if (failure != null) {
+								handleStageFailure(task, failure);
+							}
+							if (started.get()) {
+								this.metrics.completed();
+							} else {
+								this.metrics.rejected();
+							}
+							releaseExecutionSlot();
+						}));
+			} catch (final RejectedExecutionException e) {
+				this.metrics.rejected();
+				releaseExecutionSlot();
+				throw e;
+			}
+		}
+	}
+
+	private Object executionKey(final DecisionTaskContext task) {
+		return Arrays.asList(task.workflowId(), task.runId());
+	}
+
+	@Override
+	public ExecutionMetrics executionMetrics() {
+		return this.metrics;
 	}
 
 	@Override
@@ -32,19 +166,27 @@ public class DeciderImpl extends AbstractTaskListService<DecisionTaskContext> im
 		// retrieve the workflow template:
 		// retrieve the event handler in the template
 		LOGGER.debug("executing decision task {}", task);
-		final WorkflowTemplate template = getWorkflowTemplate(task);
+		final WorkflowTemplate template = getWorkflowTemplateOrFail(task);
+		LOGGER.debug("executing decision task with template {} of workflow {}", template.getClass().getSimpleName(),
+				template.getWorkflowType());
+		execute(task, template);
+	}
+
+	private WorkflowTemplate getWorkflowTemplateOrFail(final DecisionTaskContext task) {
+		final WorkflowTemplate template = this.registry.get(task.workflowType());
 		if (template == null) {
 			// FATAL issue : how to recover from that ?
 			throw new IllegalStateException("Cannot find a workflow template for " + task.workflowType());
-		} else {
-			LOGGER.debug("executing decision task with template {} of workflow {}", template.getClass().getSimpleName(),
-					template.getWorkflowType());
-			execute(task, template);
 		}
+		return template;
 	}
 
-	private WorkflowTemplate getWorkflowTemplate(final DecisionTaskContext task) {
-		return this.registry.get(task.workflowType());
+	private Decisions decide(final DecisionTaskContext task, final WorkflowTemplate template) {
+		try {
+			return template.decide(task);
+		} catch (final DecisionTaskExecutionException e) {
+			throw new CompletionException(e);
+		}
 	}
 
 	private void execute(final DecisionTaskContext context,
@@ -52,28 +194,88 @@ public class DeciderImpl extends AbstractTaskListService<DecisionTaskContext> im
 		try {
 			final Decisions decisions = template.decide(context);
 			this.executor.apply(context, decisions);
-		} catch (UnknownResourceException ex) {
+		} catch (final Exception e) {
+			handleFailure(context, e);
+		}
+	}
+
+	/**
+	 * Handle the failure of a decision task executed in stages as
+	 * {@link #execute(DecisionTaskContext, WorkflowTemplate)} does, the
+	 * failures stopping the decider being rethrown by the next polling
+	 * thread acquiring a slot.
+	 */
+	private void handleStageFailure(final DecisionTaskContext context, final Throwable failure) {
+		final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+				? failure.getCause()
+				: failure;
+		try {
+			handleFailure(context, cause);
+		} catch (final IllegalStateException e) {
+			this.stageFailure.compareAndSet(null, e);
+		}
+	}
+
+	/**
+	 * Log the failures the decision task recovers from: it will time out and
+	 * be rescheduled.
+	 *
+	 * @throws IllegalStateException
+	 *             if the failure should stop the decider
+	 */
+	private void handleFailure(final DecisionTaskContext context, final Throwable failure) {
+		if (failure instanceof UnknownResourceException) {
 			//TODO: add more sophisticated error handling?
-			LOGGER.error("Cannot make decisions based on the context  " + context, ex);
-		} catch (AmazonSimpleWorkflowException ex) {
-			switch (ex.getErrorType()) {
+			LOGGER.error("Cannot make decisions based on the context  " + context, failure);
+		} else if (failure instanceof AmazonSimpleWorkflowException) {
+			switch (((AmazonSimpleWorkflowException) failure).getErrorType()) {
 				case Client:
-					LOGGER.error("SWF Client error for context " + context, ex);
+					LOGGER.error("SWF Client error for context " + context, failure);
 					break;
 				case Service:
 				case Unknown:
-					throw new IllegalStateException("Cannot make decisions based on the context  " + context, ex);
+					throw new IllegalStateException("Cannot make decisions based on the context  " + context, failure);
 			}
-		} catch (final Exception e) {
+		} else {
 			// how to recover from that ?
 			// use a marker for failure, and externally relaunch ?
-			throw new IllegalStateException("Cannot make decisions based on the context  " + context, e);
+			throw new IllegalStateException("Cannot make decisions based on the context  " + context, failure);
+		}
+	}
+
+	@Override
+	protected int inFlightTasks() {
+		return this.slots == null ? 0 : this.slots.inUse();
+	}
+
+	@Override
+	protected void drainFinished(final boolean drained) {
+		if (this.stages != null) {
+			if (drained) {
+				try {
+					this.stages.shutdown(Duration.ZERO);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			} else {
+				// the remaining decision tasks time out in SWF
+				this.stages.shutdownNow();
+			}
 		}
 	}
 
 	@Override
 	public void stop() {
 		super.stop();
+		if (this.stages != null) {
+			try {
+				// wait for the pending decision tasks before shutting down
+				this.slots.awaitAllReleased(Duration.ofHours(1));
+				this.stages.shutdown(Duration.ofHours(1));
+			} catch (final InterruptedException e) {
+				throw new IllegalStateException("Awaited more than 1 hours for a decision task to terminate!");
+			}
+		}
 	}
 
 }
@@ -0,0 +1,162 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * The executors of the successive stages of a decision task, once it has been
+ * polled:
+ * <ol>
+ * <li>build the history of the workflow execution,
+ * <li>make the decisions with the workflow template,
+ * <li>respond the decisions to SWF.
+ * </ol>
+ * When each stage has its own executor, the stages of different decision tasks
+ * overlap: a decision task can be decided while the decisions of the previous
+ * one are being sent to SWF.
+ */
+public class DecisionStages {
+
+	private final ExecutorService history;
+	private final ExecutorService decide;
+	private final ExecutorService respond;
+	private final int capacity;
+
+	private DecisionStages(final ExecutorService history, final ExecutorService decide,
+			final ExecutorService respond, final int capacity) {
+		super();
+		this.history = history;
+		this.decide = decide;
+		this.respond = respond;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * All the stages of a decision task are executed by the same pool.
+	 *
+	 * @param executor
+	 *            the pool executing the decision tasks
+	 * @param threads
+	 *            the number of threads of the pool
+	 * @return the stages
+	 */
+	public static DecisionStages sharedPool(final ExecutorService executor, final int threads) {
+		Preconditions.checkNotNull(executor, "please specify an executor!");
+		return new DecisionStages(executor, executor, executor, threads);
+	}
+
+	/**
+	 * Each stage has its own threads and a bounded queue of decision tasks
+	 * waiting for the stage. A stage whose next stage queue is full waits for
+	 * room in this queue.
+	 *
+	 * @param taskList
+	 *            the task list of the decider, used to name the threads
+	 * @param threadsPerStage
+	 *            the number of threads of each stage
+	 * @param queueCapacity
+	 *            the maximum number of decision tasks waiting for each stage
+	 * @return the stages
+	 */
+	public static DecisionStages pipeline(final String taskList, final int threadsPerStage, final int queueCapacity) {
+		Preconditions.checkArgument(threadsPerStage > 0, "the number of threads should be greater than 0");
+		Preconditions.checkArgument(queueCapacity > 0, "the queue capacity should be greater than 0");
+		return new DecisionStages(
+				newStage(taskList, "history", threadsPerStage, queueCapacity),
+				newStage(taskList, "decide", threadsPerStage, queueCapacity),
+				newStage(taskList, "respond", threadsPerStage, queueCapacity),
+				3 * threadsPerStage);
+	}
+
+	private static ExecutorService newStage(final String taskList, final String stage, final int threads,
+			final int queueCapacity) {
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new ThreadFactoryBuilder()
+						.setNameFormat("swiffer-decider-" + taskList.replace("%", "%%") + "-" + stage + "-%d")
+						.build(),
+				DecisionStages::waitForRoomInQueue);
+	}
+
+	private static void waitForRoomInQueue(final Runnable task, final ThreadPoolExecutor executor) {
+		if (executor.isShutdown()) {
+			throw new RejectedExecutionException("the decision stage is shutdown");
+		}
+		try {
+			executor.getQueue().put(task);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException("interrupted while waiting for the decision stage", e);
+		}
+	}
+
+	/**
+	 * @return the executor building the history of the workflow executions
+	 */
+	public ExecutorService history() {
+		return this.history;
+	}
+
+	/**
+	 * @return the executor making the decisions
+	 */
+	public ExecutorService decide() {
+		return this.decide;
+	}
+
+	/**
+	 * @return the executor responding the decisions to SWF
+	 */
+	public ExecutorService respond() {
+		return this.respond;
+	}
+
+	/**
+	 * @return the number of decision tasks the stages can work on at the same
+	 *         time
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Shutdown the executors of the stages, waiting for the submitted tasks.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait for each stage
+	 * @throws InterruptedException
+	 */
+	public void shutdown(final Duration timeout) throws InterruptedException {
+		// shutdown in the order of the stages so that a task going to the
+		// next stage is not rejected
+		for (final ExecutorService executor : executors()) {
+			executor.shutdown();
+			executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Shutdown the executors of the stages, interrupting the tasks in
+	 * progress.
+	 */
+	public void shutdownNow() {
+		for (final ExecutorService executor : executors()) {
+			executor.shutdownNow();
+		}
+	}
+
+	private Set<ExecutorService> executors() {
+		return new LinkedHashSet<>(Arrays.asList(this.history, this.decide, this.respond));
+	}
+
+}
@@ -24,6 +24,11 @@ public interface DecisionTaskContext extends TaskContext {
 	 */
 	String workflowId();
 
+	/**
+	 * @return the run ID of the workflow execution
+	 */
+	String runId();
+
 	/**
 	 * @return the new {@link WorkflowEvent}s received since the last
 	 *         decision-making, sorted by ascending {@link WorkflowEvent#id()}s
@@ -51,4 +56,10 @@ public interface DecisionTaskContext extends TaskContext {
      * @see #hasMarker(String) how to assess presence of the Marker withut details
      */
     <T> Optional<T> getMarkerDetails(String markerName, Class<T> type);
+
+    /**
+     * @return the payloads of the events deserialized during this decision
+     *         task
+     */
+    PayloadCache payloads();
 }
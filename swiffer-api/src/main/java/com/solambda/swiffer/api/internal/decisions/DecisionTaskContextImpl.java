@@ -1,10 +1,13 @@
 package com.solambda.swiffer.api.internal.decisions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
 import com.amazonaws.services.simpleworkflow.model.DecisionTask;
@@ -19,33 +22,46 @@ public class DecisionTaskContextImpl implements DecisionTaskContext {
 	private AmazonSimpleWorkflow swf;
 	private DecisionTask decisionTask;
 	private WorkflowHistory history;
+	/**
+	 * The marker events of the task by name, most recent first, indexed on
+	 * the first lookup made before the history is built.
+	 */
+	private Map<String, List<HistoryEvent>> markers;
 	private String domain;
     private final DataMapper dataMapper;
+    private final PayloadCache payloads = new PayloadCache();
 
     public DecisionTaskContextImpl(final AmazonSimpleWorkflow swf, final String domain,
                                    final DecisionTask decisionTask,
                                    DataMapper dataMapper) {
+        this(swf, domain, decisionTask, dataMapper, null);
+    }
+
+    /**
+     * @param history
+     *            the history of the workflow execution, or null if the
+     *            decision task contains all the events of the history
+     */
+    public DecisionTaskContextImpl(final AmazonSimpleWorkflow swf, final String domain,
+                                   final DecisionTask decisionTask,
+                                   DataMapper dataMapper,
+                                   WorkflowHistory history) {
         super();
 		this.swf = swf;
 		this.decisionTask = decisionTask;
 		this.domain = domain;
 		this.dataMapper = dataMapper;
+		this.history = history;
 	}
 
 	@Override
 	public WorkflowHistory history() {
 		if (this.history == null) {
-			final List<HistoryEvent> events = prefetchAllHistoryEvents(this.decisionTask);
-			this.history = new WorkflowHistoryImpl(events);
+			this.history = new WorkflowHistoryImpl(this.decisionTask.getEvents());
 		}
 		return this.history;
 	}
 
-	private List<HistoryEvent> prefetchAllHistoryEvents(final DecisionTask decisionTask) {
-		// TODO: load all the pages if more than one
-		return decisionTask.getEvents();
-	}
-
 	@Override
 	public String taskToken() {
 		return this.decisionTask.getTaskToken();
@@ -54,10 +70,12 @@ public class DecisionTaskContextImpl implements DecisionTaskContext {
 	@Override
 	public List<WorkflowEvent> newEvents() {
 		final Long previousStartedEventId = this.decisionTask.getPreviousStartedEventId();
-		return Lists.reverse(history().events().stream()
-				.filter(e -> e.id().compareTo(previousStartedEventId) > 0)
-				.collect(Collectors.toList()));
-
+		// the ids of the events go from 1 to the size of the history, most
+		// recent first: the new events are the first ones
+		final List<WorkflowEvent> events = history().events();
+		final int newEventCount = events.size()
+				- (previousStartedEventId == null ? 0 : previousStartedEventId.intValue());
+		return Lists.reverse(events.subList(0, Math.max(0, Math.min(newEventCount, events.size()))));
 	}
 
 	@Override
@@ -71,17 +89,41 @@ public class DecisionTaskContextImpl implements DecisionTaskContext {
 		return decisionTask.getWorkflowExecution().getWorkflowId();
 	}
 
+	@Override
+	public String runId() {
+		return decisionTask.getWorkflowExecution().getRunId();
+	}
+
 	@Override
     public boolean hasMarker(String markerName) {
-        return decisionTask.getEvents().stream().anyMatch(isMarkerRecordedEvent(markerName));
+        return markerEvents(markerName).findAny().isPresent();
     }
 
 	@Override
     public <T> Optional<T> getMarkerDetails(String markerName, Class<T> type) {
-        return decisionTask.getEvents().stream()
-                           .filter(isMarkerRecordedEvent(markerName))
-                           .findFirst()
-                           .map(deserialize(type));
+        return markerEvents(markerName).findFirst()
+                                       .map(deserialize(type));
+	}
+
+	/**
+	 * @return the SWF events of the marker, most recent first: looked up in
+	 *         the history once built, in an index of the markers of the task
+	 *         otherwise, which does not require the ids of the events to be
+	 *         complete
+	 */
+	private Stream<HistoryEvent> markerEvents(String markerName) {
+		if (this.history != null) {
+			return this.history.markerEvents(markerName).stream().map(WorkflowEvent::historyEvent);
+		}
+		if (this.markers == null) {
+			this.markers = indexMarkers(this.decisionTask.getEvents());
+		}
+		return this.markers.getOrDefault(markerName, Collections.emptyList()).stream();
+	}
+
+	@Override
+	public PayloadCache payloads() {
+		return this.payloads;
 	}
 
 	@Override
@@ -90,12 +132,19 @@ public class DecisionTaskContextImpl implements DecisionTaskContext {
 				+ ", workflowType=" + workflowType() + "]";
 	}
 
-    private static Predicate<HistoryEvent> isMarkerRecordedEvent(String markerName) {
-        return event -> event.getMarkerRecordedEventAttributes() != null
-                        && event.getMarkerRecordedEventAttributes().getMarkerName().equals(markerName);
+    private static Map<String, List<HistoryEvent>> indexMarkers(List<HistoryEvent> events) {
+        Map<String, List<HistoryEvent>> markers = new HashMap<>();
+        for (HistoryEvent event : events) {
+            if (event.getMarkerRecordedEventAttributes() != null) {
+                markers.computeIfAbsent(event.getMarkerRecordedEventAttributes().getMarkerName(), name -> new ArrayList<>())
+                       .add(event);
+            }
+        }
+        return markers;
     }
 
     private <T> Function<HistoryEvent, T> deserialize(Class<T> type) {
-        return event -> dataMapper.deserialize(event.getMarkerRecordedEventAttributes().getDetails(), type);
+        return event -> payloads.get(event.getEventId(), PayloadCache.DETAILS, type,
+                () -> dataMapper.deserialize(event.getMarkerRecordedEventAttributes().getDetails(), type));
     }
 }
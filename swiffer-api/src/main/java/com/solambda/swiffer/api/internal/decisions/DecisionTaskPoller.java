@@ -1,7 +1,8 @@
 package com.solambda.swiffer.api.internal.decisions;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +12,8 @@ import com.amazonaws.services.simpleworkflow.model.DecisionTask;
 import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
 import com.amazonaws.services.simpleworkflow.model.PollForDecisionTaskRequest;
 import com.amazonaws.services.simpleworkflow.model.TaskList;
+import com.google.common.base.Preconditions;
+import com.solambda.swiffer.api.HistoryMode;
 import com.solambda.swiffer.api.internal.AbstractTaskContextPoller;
 import com.solambda.swiffer.api.mapper.DataMapper;
 
@@ -18,64 +21,165 @@ public class DecisionTaskPoller extends AbstractTaskContextPoller<DecisionTaskCo
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DecisionTaskPoller.class);
 	private final DataMapper dataMapper;
+	private final ExecutionHistoryCache historyCache;
+	private final HistoryMode historyMode;
 
 	public DecisionTaskPoller(final AmazonSimpleWorkflow swf, final String domain, final String taskList,
 			final String identity, DataMapper dataMapper) {
+		this(swf, domain, taskList, identity, dataMapper, null);
+	}
+
+	/**
+	 * @param historyCache
+	 *            the histories of the executions recently decided, or null to
+	 *            always fetch the complete history
+	 */
+	public DecisionTaskPoller(final AmazonSimpleWorkflow swf, final String domain, final String taskList,
+			final String identity, final DataMapper dataMapper, final ExecutionHistoryCache historyCache) {
+		this(swf, domain, taskList, identity, dataMapper, historyCache, HistoryMode.EAGER);
+	}
+
+	/**
+	 * @param historyCache
+	 *            the histories of the executions recently decided, or null to
+	 *            always fetch the complete history
+	 * @param historyMode
+	 *            how the pages of the history are fetched, {@link HistoryMode#EAGER},
+	 *            {@link HistoryMode#LAZY} or {@link HistoryMode#DELTA}
+	 */
+	public DecisionTaskPoller(final AmazonSimpleWorkflow swf, final String domain, final String taskList,
+			final String identity, final DataMapper dataMapper, final ExecutionHistoryCache historyCache,
+			final HistoryMode historyMode) {
 		super(swf, domain, taskList, identity);
 		this.dataMapper = dataMapper;
+		this.historyCache = historyCache;
+		this.historyMode = Preconditions.checkNotNull(historyMode, "please specify the history mode!");
 	}
 
 	@Override
 	protected DecisionTaskContext pollForTask() throws Exception {
 		LOGGER.debug("[{}:{}] Polling Decision task list '{}'", this.domain, this.identity, this.taskList);
 
-		// FIXME: issue #5
-		DecisionTask decisionTask = pollForDecisionTask(HistoryMode.EAGER);
+		DecisionTask decisionTask = pollForDecisionTask(this.historyMode);
+		return toTaskContext(this.swf, this.domain, this.taskList, this.identity, decisionTask, this.dataMapper,
+				this.historyCache, this::pollForPage);
+	}
+
+	private DecisionTask pollForPage(final String nextPageToken) {
+		return this.swf.pollForDecisionTask(newPollRequest(this.domain, this.taskList, this.identity, nextPageToken));
+	}
+
+	static PollForDecisionTaskRequest newPollRequest(final String domain, final String taskList,
+			final String identity, final String nextPageToken) {
+		return new PollForDecisionTaskRequest()
+				.withDomain(domain)
+				.withTaskList(taskList == null ? null : new TaskList().withName(taskList))
+				.withReverseOrder(true)
+				.withIdentity(identity)
+				.withNextPageToken(nextPageToken);
+	}
 
+	/**
+	 * @param decisionTask
+	 *            the decision task with the events fetched, and the token of
+	 *            the next page if the history is not complete
+	 * @param historyCache
+	 *            the histories of the executions recently decided, or null
+	 * @param pageFetcher
+	 *            fetch the older pages of the history on demand
+	 * @return the context of the polled decision task, or null if no task was
+	 *         available
+	 */
+	static DecisionTaskContext toTaskContext(final AmazonSimpleWorkflow swf, final String domain,
+			final String taskList, final String identity, final DecisionTask decisionTask,
+			final DataMapper dataMapper, final ExecutionHistoryCache historyCache,
+			final Function<String, DecisionTask> pageFetcher) {
 		if (decisionTask == null || decisionTask.getTaskToken() == null) {
-			LOGGER.debug("[{}:{}] no DecisionTask available in task list '{}'", this.domain, this.identity,
-					this.taskList);
+			LOGGER.debug("[{}:{}] no DecisionTask available in task list '{}'", domain, identity, taskList);
 			return null;
 		}
-		LOGGER.debug("[{}:{}] DecisionTask received from '{}':{}", this.domain, this.identity, this.taskList,
-				decisionTask);
-		return new DecisionTaskContextImpl(this.swf, this.domain, decisionTask, dataMapper);
-	}
-
-	private DecisionTask pollForDecisionTask(HistoryMode mode) {
-		switch (mode) {
-			case EAGER:
-				return pollForAllHistory();
-			default:
-				throw new UnsupportedOperationException("History mode " + mode + " is not supported.");
+		LOGGER.debug("[{}:{}] DecisionTask received from '{}':{}", domain, identity, taskList, decisionTask);
+		WorkflowHistory history = null;
+		if (decisionTask.getNextPageToken() != null) {
+			history = new LazyWorkflowHistory(decisionTask, pageFetcher);
+		} else if (historyCache != null) {
+			history = historyCache.completeAndCache(decisionTask.getWorkflowExecution(), decisionTask.getEvents());
 		}
+		return new DecisionTaskContextImpl(swf, domain, decisionTask, dataMapper, history);
 	}
 
-	private DecisionTask pollForAllHistory() {
+	private DecisionTask pollForDecisionTask(HistoryMode mode) {
 		String nextPageToken = null;
-		Collection<HistoryEvent> allEvents = new ArrayList<>();
+		List<HistoryEvent> fetchedEvents = new ArrayList<>();
 		DecisionTask decisionTask;
 		do {
-			decisionTask = swf.pollForDecisionTask(new PollForDecisionTaskRequest()
-														   .withDomain(domain)
-														   .withTaskList(taskList == null ? null : new TaskList().withName(taskList))
-														   .withReverseOrder(true)
-														   .withIdentity(identity)
-														   .withNextPageToken(nextPageToken));
-			if (decisionTask != null) {
-				nextPageToken = decisionTask.getNextPageToken();
-				if (decisionTask.getEvents() != null)
-				{
-					allEvents.addAll(decisionTask.getEvents());
-				}
+			decisionTask = swf.pollForDecisionTask(newPollRequest(domain, taskList, identity, nextPageToken));
+			if (decisionTask == null) {
+				return null;
+			}
+			nextPageToken = decisionTask.getNextPageToken();
+			if (decisionTask.getEvents() != null)
+			{
+				fetchedEvents.addAll(decisionTask.getEvents());
 			}
 		}
-		while (nextPageToken != null);
+		while (!isFetchComplete(mode, decisionTask, fetchedEvents, historyCache));
 
-		if (decisionTask != null) {
-			decisionTask.setEvents(allEvents);
+		return withFetchedEvents(decisionTask, fetchedEvents, historyCache);
+	}
+
+	/**
+	 * @param mode
+	 *            the history mode
+	 * @param lastPage
+	 *            the page of history polled last
+	 * @param fetchedEvents
+	 *            the events fetched so far, most recent first
+	 * @return true if no more page needs to be fetched before deciding
+	 */
+	static boolean isFetchComplete(final HistoryMode mode, final DecisionTask lastPage,
+			final List<HistoryEvent> fetchedEvents, final ExecutionHistoryCache historyCache) {
+		if (isHistoryComplete(lastPage, fetchedEvents, historyCache)) {
+			return true;
 		}
+		switch (mode) {
+			case LAZY:
+				return true;
+			case DELTA:
+				// the pages are polled most recent first: the new events are
+				// fetched once the previous decision task is reached
+				final Long previousStartedEventId = lastPage.getPreviousStartedEventId();
+				return !fetchedEvents.isEmpty() && fetchedEvents.get(fetchedEvents.size() - 1).getEventId()
+						<= (previousStartedEventId == null ? 0L : previousStartedEventId) + 1;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Set the fetched events to the decision task. The next page token of the
+	 * decision task is kept only if the older pages of the history need to be
+	 * fetched, that is if they are not cached.
+	 *
+	 * @param lastPage
+	 *            the page of history polled last
+	 * @param fetchedEvents
+	 *            the events fetched, most recent first
+	 * @return the decision task
+	 */
+	static DecisionTask withFetchedEvents(final DecisionTask lastPage, final List<HistoryEvent> fetchedEvents,
+			final ExecutionHistoryCache historyCache) {
+		if (isHistoryComplete(lastPage, fetchedEvents, historyCache)) {
+			lastPage.setNextPageToken(null);
+		}
+		lastPage.setEvents(fetchedEvents);
+		return lastPage;
+	}
 
-		return decisionTask;
+	private static boolean isHistoryComplete(final DecisionTask lastPage, final List<HistoryEvent> fetchedEvents,
+			final ExecutionHistoryCache historyCache) {
+		// the older events may be cached
+		return lastPage.getNextPageToken() == null || historyCache != null
+				&& historyCache.reachesCachedHistory(lastPage.getWorkflowExecution(), fetchedEvents);
 	}
 }
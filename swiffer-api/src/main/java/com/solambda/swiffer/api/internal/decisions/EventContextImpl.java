@@ -85,6 +85,11 @@ public class EventContextImpl implements
 		return this.decisionContext.newEvents();
 	}
 
+	@Override
+	public PayloadCache payloads() {
+		return this.decisionContext.payloads();
+	}
+
 	@Override
 	public String signalName() {
 		return this.event.signalName();
@@ -190,4 +195,9 @@ public class EventContextImpl implements
 	public String workflowId() {
 		return decisionContext.workflowId();
 	}
+
+	@Override
+	public String runId() {
+		return decisionContext.runId();
+	}
 }
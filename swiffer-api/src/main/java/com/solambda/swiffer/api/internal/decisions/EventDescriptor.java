@@ -0,0 +1,438 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static com.amazonaws.services.simpleworkflow.model.EventType.*;
+import static com.solambda.swiffer.api.internal.events.EventCategory.*;
+import static com.solambda.swiffer.api.internal.events.WorkflowEventState.*;
+
+import com.amazonaws.services.simpleworkflow.model.ActivityType;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.WorkflowType;
+import com.solambda.swiffer.api.internal.events.EventCategory;
+import com.solambda.swiffer.api.internal.events.WorkflowEventState;
+
+/**
+ * The category, the state and the attribute accessors of an {@link EventType},
+ * built once per type so that reading an attribute of a {@link WorkflowEvent}
+ * is an array lookup rather than a switch over all the types.
+ * <p>
+ * The attributes a type does not have are read as null.
+ */
+class EventDescriptor {
+
+	/**
+	 * Read an attribute of an event.
+	 */
+	interface Accessor<T> {
+		/**
+		 * @param workflowEvent
+		 *            the event, to read the attributes of its initial event
+		 * @param event
+		 *            the wrapped SWF event
+		 * @return the attribute
+		 */
+		T read(WorkflowEvent workflowEvent, HistoryEvent event);
+	}
+
+	private static final Accessor<?> NONE = (w, e) -> null;
+	private static final Accessor<?> UNSUPPORTED = (w, e) -> {
+		throw new IllegalArgumentException("Unknown EventType " + w.type());
+	};
+
+	private static final EventDescriptor[] DESCRIPTORS = new EventDescriptor[EventType.values().length];
+
+	final EventType type;
+	final EventCategory category;
+	final WorkflowEventState state;
+	Accessor<String> signalName = none();
+	Accessor<String> input = none();
+	Accessor<String> control = none();
+	Accessor<String> output = none();
+	Accessor<String> reason = none();
+	Accessor<String> details = none();
+	Accessor<Long> initialEventId = none();
+	Accessor<String> cause = none();
+	Accessor<ActivityType> activityType = none();
+	Accessor<String> timerId = none();
+	Accessor<String> markerName = none();
+	Accessor<String> activityId = none();
+	Accessor<WorkflowType> childWorkflowType = none();
+	Accessor<String> childWorkflowId = none();
+	Accessor<String> childWorkflowRunId = none();
+	Accessor<String> externalWorkflowId = none();
+	Accessor<String> externalWorkflowRunId = none();
+
+	private EventDescriptor(final EventType type, final EventCategory category, final WorkflowEventState state) {
+		super();
+		this.type = type;
+		this.category = category;
+		this.state = state;
+	}
+
+	/**
+	 * @return the descriptor of the type
+	 */
+	static EventDescriptor of(final EventType type) {
+		return DESCRIPTORS[type.ordinal()];
+	}
+
+	static {
+		describe(ActivityTaskCancelRequested, ACTIVITY, ACTIVE)
+				.reason((w, e) -> "Activity Task Cancel Requested")
+				.initialEventId((w, e) -> e.getEventId());
+		describe(ActivityTaskCanceled, ACTIVITY, CANCELED)
+				.input((w, e) -> w.initialEvent().input())
+				.reason((w, e) -> "Activity Task Canceled")
+				.details((w, e) -> e.getActivityTaskCanceledEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getActivityTaskCanceledEventAttributes().getScheduledEventId())
+				.activityType((w, e) -> w.initialEvent().activityTypeAttribute());
+		describe(ActivityTaskCompleted, ACTIVITY, SUCCESS)
+				.input((w, e) -> w.initialEvent().input())
+				.output((w, e) -> e.getActivityTaskCompletedEventAttributes().getResult())
+				.initialEventId((w, e) -> e.getActivityTaskCompletedEventAttributes().getScheduledEventId())
+				.activityType((w, e) -> w.initialEvent().activityTypeAttribute());
+		describe(ActivityTaskFailed, ACTIVITY, ERROR)
+				.input((w, e) -> w.initialEvent().input())
+				.reason((w, e) -> e.getActivityTaskFailedEventAttributes().getReason())
+				.details((w, e) -> e.getActivityTaskFailedEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getActivityTaskFailedEventAttributes().getScheduledEventId())
+				.activityType((w, e) -> w.initialEvent().activityTypeAttribute());
+		describe(ActivityTaskScheduled, ACTIVITY, INITIAL)
+				.input((w, e) -> e.getActivityTaskScheduledEventAttributes().getInput())
+				.control((w, e) -> e.getActivityTaskScheduledEventAttributes().getControl())
+				.initialEventId((w, e) -> e.getEventId())
+				.activityType((w, e) -> e.getActivityTaskScheduledEventAttributes().getActivityType())
+				.activityId((w, e) -> e.getActivityTaskScheduledEventAttributes().getActivityId());
+		describe(ActivityTaskStarted, ACTIVITY, ACTIVE)
+				.input((w, e) -> w.initialEvent().input())
+				.initialEventId((w, e) -> e.getActivityTaskStartedEventAttributes().getScheduledEventId())
+				.activityType((w, e) -> w.initialEvent().activityTypeAttribute());
+		describe(ActivityTaskTimedOut, ACTIVITY, TIMEOUT)
+				.input((w, e) -> w.initialEvent().input())
+				.reason((w, e) -> e.getActivityTaskTimedOutEventAttributes().getTimeoutType())
+				.details((w, e) -> e.getActivityTaskTimedOutEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getActivityTaskTimedOutEventAttributes().getScheduledEventId())
+				.activityType((w, e) -> w.initialEvent().activityTypeAttribute());
+		describe(RequestCancelActivityTaskFailed, ACTIVITY, ERROR)
+				.reason((w, e) -> "Request Cancel Activity Task Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getRequestCancelActivityTaskFailedEventAttributes().getCause());
+		describe(ScheduleActivityTaskFailed, ACTIVITY, ERROR)
+				.reason((w, e) -> "Schedule Activity Task Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getScheduleActivityTaskFailedEventAttributes().getCause())
+				.activityType((w, e) -> e.getScheduleActivityTaskFailedEventAttributes().getActivityType())
+				.activityId((w, e) -> e.getScheduleActivityTaskFailedEventAttributes().getActivityId());
+		describe(StartTimerFailed, TIMER, ERROR)
+				.reason((w, e) -> "Start Timer Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getStartTimerFailedEventAttributes().getCause())
+				.timerId((w, e) -> e.getStartTimerFailedEventAttributes().getTimerId());
+		describe(TimerCanceled, TIMER, CANCELED)
+				.control((w, e) -> w.initialEvent().control())
+				.output((w, e) -> "Timer Canceled")
+				.initialEventId((w, e) -> e.getTimerCanceledEventAttributes().getStartedEventId())
+				.timerId((w, e) -> e.getTimerCanceledEventAttributes().getTimerId());
+		describe(TimerFired, TIMER, SUCCESS)
+				.control((w, e) -> w.initialEvent().control())
+				.output((w, e) -> "Timer Fired")
+				.initialEventId((w, e) -> e.getTimerFiredEventAttributes().getStartedEventId())
+				.timerId((w, e) -> e.getTimerFiredEventAttributes().getTimerId());
+		describe(TimerStarted, TIMER, INITIAL)
+				.input((w, e) -> "Timer Started")
+				.control((w, e) -> e.getTimerStartedEventAttributes().getControl())
+				.initialEventId((w, e) -> e.getEventId())
+				.timerId((w, e) -> e.getTimerStartedEventAttributes().getTimerId());
+		describe(CancelTimerFailed, TIMER, ERROR)
+				.initialEventId((w, e) -> e.getEventId())
+				.timerId((w, e) -> e.getCancelTimerFailedEventAttributes().getTimerId());
+		describe(WorkflowExecutionCancelRequested, WORKFLOW_EXECUTION, ACTIVE)
+				.reason((w, e) -> "Workflow Execution Cancel Requested")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getWorkflowExecutionCancelRequestedEventAttributes().getCause());
+		describe(WorkflowExecutionCanceled, WORKFLOW_EXECUTION, CANCELED)
+				.reason((w, e) -> "Workflow Execution Canceled")
+				.details((w, e) -> e.getWorkflowExecutionCanceledEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(WorkflowExecutionCompleted, WORKFLOW_EXECUTION, SUCCESS)
+				.output((w, e) -> e.getWorkflowExecutionCompletedEventAttributes().getResult())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(WorkflowExecutionFailed, WORKFLOW_EXECUTION, ERROR)
+				.reason((w, e) -> "Workflow Execution Failed")
+				.details((w, e) -> e.getWorkflowExecutionFailedEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(WorkflowExecutionStarted, WORKFLOW_EXECUTION, INITIAL)
+				.input((w, e) -> e.getWorkflowExecutionStartedEventAttributes().getInput())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(WorkflowExecutionTerminated, WORKFLOW_EXECUTION, SUCCESS)
+				.reason((w, e) -> "Workflow Execution Terminated")
+				.details((w, e) -> e.getWorkflowExecutionTerminatedEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(WorkflowExecutionTimedOut, WORKFLOW_EXECUTION, TIMEOUT)
+				.reason((w, e) -> "Workflow Execution Timed Out")
+				.initialEventId((w, e) -> e.getEventId());
+		describe(CancelWorkflowExecutionFailed, WORKFLOW_EXECUTION, ERROR)
+				.reason((w, e) -> "Cancel Workflow Execution Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getCancelWorkflowExecutionFailedEventAttributes().getCause());
+		describe(CompleteWorkflowExecutionFailed, WORKFLOW_EXECUTION, ERROR)
+				.reason((w, e) -> "Complete Workflow Execution Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getCompleteWorkflowExecutionFailedEventAttributes().getCause());
+		describe(FailWorkflowExecutionFailed, WORKFLOW_EXECUTION, ERROR)
+				.reason((w, e) -> "Fail Workflow Execution Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getFailWorkflowExecutionFailedEventAttributes().getCause());
+		describe(ContinueAsNewWorkflowExecutionFailed, WORKFLOW_EXECUTION, ERROR)
+				.reason((w, e) -> "Continue As New Workflow Execution Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getContinueAsNewWorkflowExecutionFailedEventAttributes().getCause());
+		describe(WorkflowExecutionContinuedAsNew, WORKFLOW_EXECUTION, INITIAL)
+				.input((w, e) -> e.getWorkflowExecutionContinuedAsNewEventAttributes().getInput())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(ChildWorkflowExecutionCanceled, CHILD_WORKFLOW, CANCELED)
+				.reason((w, e) -> "Child Workflow Execution Canceled")
+				.details((w, e) -> e.getChildWorkflowExecutionCanceledEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getChildWorkflowExecutionCanceledEventAttributes().getInitiatedEventId())
+				.childWorkflowType((w, e) -> e.getChildWorkflowExecutionCanceledEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getChildWorkflowExecutionCanceledEventAttributes().getWorkflowExecution().getWorkflowId())
+				.childWorkflowRunId((w, e) -> e.getChildWorkflowExecutionCanceledEventAttributes().getWorkflowExecution().getRunId());
+		describe(ChildWorkflowExecutionCompleted, CHILD_WORKFLOW, SUCCESS)
+				.output((w, e) -> e.getChildWorkflowExecutionCompletedEventAttributes().getResult())
+				.initialEventId((w, e) -> e.getChildWorkflowExecutionCompletedEventAttributes().getInitiatedEventId())
+				.childWorkflowType((w, e) -> e.getChildWorkflowExecutionCompletedEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getChildWorkflowExecutionCompletedEventAttributes().getWorkflowExecution().getWorkflowId())
+				.childWorkflowRunId((w, e) -> e.getChildWorkflowExecutionCompletedEventAttributes().getWorkflowExecution().getRunId());
+		describe(ChildWorkflowExecutionFailed, CHILD_WORKFLOW, ERROR)
+				.reason((w, e) -> e.getChildWorkflowExecutionFailedEventAttributes().getReason())
+				.details((w, e) -> e.getChildWorkflowExecutionFailedEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getChildWorkflowExecutionFailedEventAttributes().getInitiatedEventId())
+				.childWorkflowType((w, e) -> e.getChildWorkflowExecutionFailedEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getChildWorkflowExecutionFailedEventAttributes().getWorkflowExecution().getWorkflowId())
+				.childWorkflowRunId((w, e) -> e.getChildWorkflowExecutionFailedEventAttributes().getWorkflowExecution().getRunId());
+		describe(ChildWorkflowExecutionStarted, CHILD_WORKFLOW, ACTIVE)
+				.initialEventId((w, e) -> e.getChildWorkflowExecutionStartedEventAttributes().getInitiatedEventId())
+				.childWorkflowType((w, e) -> e.getChildWorkflowExecutionStartedEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getChildWorkflowExecutionStartedEventAttributes().getWorkflowExecution().getWorkflowId())
+				.childWorkflowRunId((w, e) -> e.getChildWorkflowExecutionStartedEventAttributes().getWorkflowExecution().getRunId());
+		describe(ChildWorkflowExecutionTerminated, CHILD_WORKFLOW, SUCCESS)
+				.reason((w, e) -> "Child Workflow Execution Terminated")
+				.details((w, e) -> e.getChildWorkflowExecutionTerminatedEventAttributes().getWorkflowExecution().getRunId())
+				.initialEventId((w, e) -> e.getChildWorkflowExecutionTerminatedEventAttributes().getInitiatedEventId())
+				.childWorkflowType((w, e) -> e.getChildWorkflowExecutionTerminatedEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getChildWorkflowExecutionTerminatedEventAttributes().getWorkflowExecution().getWorkflowId())
+				.childWorkflowRunId((w, e) -> e.getChildWorkflowExecutionTerminatedEventAttributes().getWorkflowExecution().getRunId());
+		describe(ChildWorkflowExecutionTimedOut, CHILD_WORKFLOW, TIMEOUT)
+				.reason((w, e) -> "Child Workflow Execution Timed Out")
+				.details((w, e) -> e.getChildWorkflowExecutionTimedOutEventAttributes().getTimeoutType())
+				.initialEventId((w, e) -> e.getChildWorkflowExecutionTimedOutEventAttributes().getInitiatedEventId())
+				.childWorkflowType((w, e) -> e.getChildWorkflowExecutionTimedOutEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getChildWorkflowExecutionTimedOutEventAttributes().getWorkflowExecution().getWorkflowId())
+				.childWorkflowRunId((w, e) -> e.getChildWorkflowExecutionTimedOutEventAttributes().getWorkflowExecution().getRunId());
+		describe(StartChildWorkflowExecutionFailed, CHILD_WORKFLOW, ERROR)
+				.control((w, e) -> e.getStartChildWorkflowExecutionFailedEventAttributes().getControl())
+				.reason((w, e) -> "Start Child Workflow Execution Failed")
+				.initialEventId((w, e) -> e.getStartChildWorkflowExecutionFailedEventAttributes().getInitiatedEventId())
+				.cause((w, e) -> e.getStartChildWorkflowExecutionFailedEventAttributes().getCause())
+				.childWorkflowType((w, e) -> e.getStartChildWorkflowExecutionFailedEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getStartChildWorkflowExecutionFailedEventAttributes().getWorkflowId());
+		describe(StartChildWorkflowExecutionInitiated, CHILD_WORKFLOW, INITIAL)
+				.input((w, e) -> e.getStartChildWorkflowExecutionInitiatedEventAttributes().getInput())
+				.control((w, e) -> e.getStartChildWorkflowExecutionInitiatedEventAttributes().getControl())
+				.initialEventId((w, e) -> e.getEventId())
+				.childWorkflowType((w, e) -> e.getStartChildWorkflowExecutionInitiatedEventAttributes().getWorkflowType())
+				.childWorkflowId((w, e) -> e.getStartChildWorkflowExecutionInitiatedEventAttributes().getWorkflowId());
+		describe(DecisionTaskCompleted, DECISION, SUCCESS)
+				.output((w, e) -> e.getDecisionTaskCompletedEventAttributes().getExecutionContext())
+				.initialEventId((w, e) -> e.getDecisionTaskCompletedEventAttributes().getScheduledEventId());
+		describe(DecisionTaskScheduled, DECISION, INITIAL)
+				.initialEventId((w, e) -> e.getEventId());
+		describe(DecisionTaskStarted, DECISION, ACTIVE)
+				.initialEventId((w, e) -> e.getDecisionTaskStartedEventAttributes().getScheduledEventId());
+		describe(DecisionTaskTimedOut, DECISION, TIMEOUT)
+				.initialEventId((w, e) -> e.getDecisionTaskTimedOutEventAttributes().getScheduledEventId());
+		describe(ExternalWorkflowExecutionCancelRequested, CANCEL_EXTERNAL_WORKFLOW, ACTIVE)
+				.initialEventId((w, e) -> e.getExternalWorkflowExecutionCancelRequestedEventAttributes().getInitiatedEventId())
+				.externalWorkflowId((w, e) -> e.getExternalWorkflowExecutionCancelRequestedEventAttributes().getWorkflowExecution().getWorkflowId())
+				.externalWorkflowRunId((w, e) -> e.getExternalWorkflowExecutionCancelRequestedEventAttributes().getWorkflowExecution().getRunId());
+		describe(RequestCancelExternalWorkflowExecutionFailed, CANCEL_EXTERNAL_WORKFLOW, ERROR)
+				.control((w, e) -> e.getRequestCancelExternalWorkflowExecutionFailedEventAttributes().getControl())
+				.reason((w, e) -> "Request Cancel External Workflow Execution Failed")
+				.details((w, e) -> e.getRequestCancelExternalWorkflowExecutionFailedEventAttributes().getCause())
+				.initialEventId((w, e) -> e.getRequestCancelExternalWorkflowExecutionFailedEventAttributes().getInitiatedEventId())
+				.externalWorkflowId((w, e) -> e.getRequestCancelExternalWorkflowExecutionFailedEventAttributes().getWorkflowId())
+				.externalWorkflowRunId((w, e) -> e.getRequestCancelExternalWorkflowExecutionFailedEventAttributes().getRunId());
+		describe(RequestCancelExternalWorkflowExecutionInitiated, CANCEL_EXTERNAL_WORKFLOW, INITIAL)
+				.control((w, e) -> e.getRequestCancelExternalWorkflowExecutionInitiatedEventAttributes().getControl())
+				.initialEventId((w, e) -> e.getEventId())
+				.externalWorkflowId((w, e) -> e.getRequestCancelExternalWorkflowExecutionInitiatedEventAttributes().getWorkflowId())
+				.externalWorkflowRunId((w, e) -> e.getRequestCancelExternalWorkflowExecutionInitiatedEventAttributes().getRunId());
+		describe(ExternalWorkflowExecutionSignaled, SIGNAL_EXTERNAL_WORKFLOW, SUCCESS)
+				.signalName((w, e) -> w.initialEvent().signalName())
+				.output((w, e) -> e.getExternalWorkflowExecutionSignaledEventAttributes().getWorkflowExecution().getRunId())
+				.initialEventId((w, e) -> e.getExternalWorkflowExecutionSignaledEventAttributes().getInitiatedEventId());
+		describe(SignalExternalWorkflowExecutionFailed, SIGNAL_EXTERNAL_WORKFLOW, ERROR)
+				.signalName((w, e) -> w.initialEvent().signalName())
+				.control((w, e) -> e.getSignalExternalWorkflowExecutionFailedEventAttributes().getControl())
+				.reason((w, e) -> "Signal External Workflow Execution Failed")
+				.details((w, e) -> e.getSignalExternalWorkflowExecutionFailedEventAttributes().getCause())
+				.initialEventId((w, e) -> e.getSignalExternalWorkflowExecutionFailedEventAttributes().getInitiatedEventId());
+		describe(SignalExternalWorkflowExecutionInitiated, SIGNAL_EXTERNAL_WORKFLOW, INITIAL)
+				.signalName((w, e) -> e.getSignalExternalWorkflowExecutionInitiatedEventAttributes().getSignalName())
+				.input((w, e) -> e.getSignalExternalWorkflowExecutionInitiatedEventAttributes().getInput())
+				.control((w, e) -> e.getSignalExternalWorkflowExecutionInitiatedEventAttributes().getControl())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(LambdaFunctionCompleted, LAMBDA, SUCCESS)
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getLambdaFunctionCompletedEventAttributes().getScheduledEventId());
+		describe(LambdaFunctionFailed, LAMBDA, ERROR)
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getLambdaFunctionFailedEventAttributes().getScheduledEventId());
+		describe(LambdaFunctionScheduled, LAMBDA, INITIAL)
+				.input((w, e) -> e.getLambdaFunctionScheduledEventAttributes().getInput())
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(LambdaFunctionStarted, LAMBDA, ACTIVE)
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getLambdaFunctionStartedEventAttributes().getScheduledEventId());
+		describe(LambdaFunctionTimedOut, LAMBDA, CANCELED)
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getLambdaFunctionTimedOutEventAttributes().getScheduledEventId());
+		describe(ScheduleLambdaFunctionFailed, LAMBDA, ERROR)
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getEventId());
+		describe(StartLambdaFunctionFailed, LAMBDA, ERROR)
+				.output(unsupported())
+				.details(unsupported())
+				.initialEventId((w, e) -> e.getStartLambdaFunctionFailedEventAttributes().getScheduledEventId());
+		describe(MarkerRecorded, MARKER, INITIAL)
+				.input((w, e) -> e.getMarkerRecordedEventAttributes().getDetails())
+				.output((w, e) -> e.getMarkerRecordedEventAttributes().getDetails())
+				.details((w, e) -> e.getMarkerRecordedEventAttributes().getDetails())
+				.initialEventId((w, e) -> e.getEventId())
+				.markerName((w, e) -> e.getMarkerRecordedEventAttributes().getMarkerName());
+		describe(RecordMarkerFailed, MARKER, ERROR)
+				.reason((w, e) -> "Record Marker Failed")
+				.initialEventId((w, e) -> e.getEventId())
+				.cause((w, e) -> e.getRecordMarkerFailedEventAttributes().getCause())
+				.markerName((w, e) -> e.getRecordMarkerFailedEventAttributes().getMarkerName());
+		describe(WorkflowExecutionSignaled, SIGNAL, SUCCESS)
+				.signalName((w, e) -> e.getWorkflowExecutionSignaledEventAttributes().getSignalName())
+				.input((w, e) -> e.getWorkflowExecutionSignaledEventAttributes().getInput())
+				.output((w, e) -> e.getWorkflowExecutionSignaledEventAttributes().getInput())
+				.initialEventId((w, e) -> e.getEventId());
+		for (final EventType type : EventType.values()) {
+			if (DESCRIPTORS[type.ordinal()] == null) {
+				throw new IllegalStateException("no descriptor of the event type " + type);
+			}
+		}
+	}
+
+	private static EventDescriptor describe(final EventType type, final EventCategory category,
+			final WorkflowEventState state) {
+		final EventDescriptor descriptor = new EventDescriptor(type, category, state);
+		DESCRIPTORS[type.ordinal()] = descriptor;
+		return descriptor;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Accessor<T> none() {
+		return (Accessor<T>) NONE;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Accessor<T> unsupported() {
+		return (Accessor<T>) UNSUPPORTED;
+	}
+
+	private EventDescriptor signalName(final Accessor<String> accessor) {
+		this.signalName = accessor;
+		return this;
+	}
+
+	private EventDescriptor input(final Accessor<String> accessor) {
+		this.input = accessor;
+		return this;
+	}
+
+	private EventDescriptor control(final Accessor<String> accessor) {
+		this.control = accessor;
+		return this;
+	}
+
+	private EventDescriptor output(final Accessor<String> accessor) {
+		this.output = accessor;
+		return this;
+	}
+
+	private EventDescriptor reason(final Accessor<String> accessor) {
+		this.reason = accessor;
+		return this;
+	}
+
+	private EventDescriptor details(final Accessor<String> accessor) {
+		this.details = accessor;
+		return this;
+	}
+
+	private EventDescriptor initialEventId(final Accessor<Long> accessor) {
+		this.initialEventId = accessor;
+		return this;
+	}
+
+	private EventDescriptor cause(final Accessor<String> accessor) {
+		this.cause = accessor;
+		return this;
+	}
+
+	private EventDescriptor activityType(final Accessor<ActivityType> accessor) {
+		this.activityType = accessor;
+		return this;
+	}
+
+	private EventDescriptor timerId(final Accessor<String> accessor) {
+		this.timerId = accessor;
+		return this;
+	}
+
+	private EventDescriptor markerName(final Accessor<String> accessor) {
+		this.markerName = accessor;
+		return this;
+	}
+
+	private EventDescriptor activityId(final Accessor<String> accessor) {
+		this.activityId = accessor;
+		return this;
+	}
+
+	private EventDescriptor childWorkflowType(final Accessor<WorkflowType> accessor) {
+		this.childWorkflowType = accessor;
+		return this;
+	}
+
+	private EventDescriptor childWorkflowId(final Accessor<String> accessor) {
+		this.childWorkflowId = accessor;
+		return this;
+	}
+
+	private EventDescriptor childWorkflowRunId(final Accessor<String> accessor) {
+		this.childWorkflowRunId = accessor;
+		return this;
+	}
+
+	private EventDescriptor externalWorkflowId(final Accessor<String> accessor) {
+		this.externalWorkflowId = accessor;
+		return this;
+	}
+
+	private EventDescriptor externalWorkflowRunId(final Accessor<String> accessor) {
+		this.externalWorkflowRunId = accessor;
+		return this;
+	}
+}
@@ -0,0 +1,102 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.solambda.swiffer.api.internal.VersionedName;
+import com.solambda.swiffer.api.internal.context.identifier.ActivityName;
+import com.solambda.swiffer.api.internal.context.identifier.ContextName;
+import com.solambda.swiffer.api.internal.context.identifier.MarkerName;
+import com.solambda.swiffer.api.internal.context.identifier.SignalName;
+import com.solambda.swiffer.api.internal.context.identifier.TimerName;
+import com.solambda.swiffer.api.internal.context.identifier.WorkflowName;
+
+/**
+ * The event handlers of a workflow template, indexed by the ordinal of their
+ * {@link EventType}, then by the name and the version of their context.
+ * <p>
+ * The table is built once with the template, so that looking up the handler of
+ * an event only reads the raw attributes of the event, without allocating an
+ * {@link EventHandlerType} nor validating the names again.
+ */
+class EventDispatchTable {
+
+	private final Map<String, Map<String, EventHandler>>[] handlers;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	EventDispatchTable(final Map<EventHandlerType, EventHandler> eventHandlers) {
+		super();
+		this.handlers = new Map[EventType.values().length];
+		for (final Entry<EventHandlerType, EventHandler> entry : eventHandlers.entrySet()) {
+			final EventHandlerType handlerType = entry.getKey();
+			final ContextName contextName = handlerType.getContextName();
+			if (contextName == null) {
+				// the events always have a context name: the handler is never
+				// looked up
+				continue;
+			}
+			final int ordinal = handlerType.getEventType().ordinal();
+			if (this.handlers[ordinal] == null) {
+				this.handlers[ordinal] = new HashMap<>();
+			}
+			this.handlers[ordinal]
+					.computeIfAbsent(nameOf(contextName), name -> new HashMap<>())
+					.put(versionOf(contextName), entry.getValue());
+		}
+	}
+
+	/**
+	 * @param type
+	 *            the type of the event
+	 * @param name
+	 *            the name of the context of the event: activity type, signal
+	 *            name, timer id...
+	 * @param version
+	 *            the version of the activity or workflow type of the event, or
+	 *            null if the context is not versioned
+	 * @return the event handler, or null if the template has no handler of the
+	 *         event
+	 */
+	EventHandler get(final EventType type, final String name, final String version) {
+		final Map<String, Map<String, EventHandler>> handlersByName = this.handlers[type.ordinal()];
+		if (handlersByName == null) {
+			return null;
+		}
+		final Map<String, EventHandler> handlersByVersion = handlersByName.get(name);
+		return handlersByVersion == null ? null : handlersByVersion.get(version);
+	}
+
+	private static String nameOf(final ContextName contextName) {
+		if (contextName instanceof ActivityName) {
+			return nameOf(((ActivityName) contextName).type());
+		} else if (contextName instanceof WorkflowName) {
+			return nameOf(((WorkflowName) contextName).type());
+		} else if (contextName instanceof SignalName) {
+			return ((SignalName) contextName).name();
+		} else if (contextName instanceof MarkerName) {
+			return ((MarkerName) contextName).name();
+		} else if (contextName instanceof TimerName) {
+			return ((TimerName) contextName).name();
+		}
+		throw new IllegalStateException("unknown context name " + contextName);
+	}
+
+	private static String versionOf(final ContextName contextName) {
+		if (contextName instanceof ActivityName) {
+			return versionOf(((ActivityName) contextName).type());
+		} else if (contextName instanceof WorkflowName) {
+			return versionOf(((WorkflowName) contextName).type());
+		}
+		return null;
+	}
+
+	private static String nameOf(final VersionedName type) {
+		return type == null ? null : type.name();
+	}
+
+	private static String versionOf(final VersionedName type) {
+		return type == null ? null : type.version();
+	}
+}
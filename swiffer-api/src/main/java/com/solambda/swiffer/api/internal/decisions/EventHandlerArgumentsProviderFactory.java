@@ -5,6 +5,8 @@ import static com.solambda.swiffer.api.internal.decisions.ArgumentProviders.*;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
@@ -22,6 +24,8 @@ import com.solambda.swiffer.api.Reason;
 import com.solambda.swiffer.api.mapper.DataMapper;
 
 public class EventHandlerArgumentsProviderFactory {
+	private static final Object[] NO_ARGUMENTS = {};
+
 	private final DataMapper dataMapper;
 
 	private static class InternalArgumentProvider {
@@ -41,34 +45,150 @@ public class EventHandlerArgumentsProviderFactory {
 		this.dataMapper = dataMapper;
 	}
 
+	/**
+	 * Compile the parameters of the handler once into a provider: the argument
+	 * providers and the deserializers of the payloads are resolved here, and
+	 * the handlers of no or one parameter, the most common, get a provider
+	 * allocating at most the array of arguments.
+	 */
 	public EventHandlerArgumentsProvider createArgumentsProvider(final EventType type, final Method method) {
 		final Parameter[] parameters = method.getParameters();
-		if (parameters.length == 0) {
-			return (c, d) -> new Object[0];
-		} else {
-			final List<BiFunction<EventContext, Decisions, Object>> argumentProviders = new ArrayList<>();
-			boolean defaultProviderFound = false;
-			for (final Parameter parameter : parameters) {
-				final InternalArgumentProvider argumentProvider = createArgumentProvider(type, parameter);
-				if (argumentProvider.isDefaultProvider) {
+		final BiFunction<EventContext, Decisions, Object>[] argumentProviders = createArgumentProviders(type, method, parameters);
+		switch (argumentProviders.length) {
+			case 0:
+				return (c, d) -> NO_ARGUMENTS;
+			case 1:
+				final BiFunction<EventContext, Decisions, Object> argumentProvider = argumentProviders[0];
+				return (c, d) -> new Object[] { argumentProvider.apply(c, d) };
+			default:
+				return (c, d) -> {
+					final Object[] arguments = new Object[argumentProviders.length];
+					for (int i = 0; i < arguments.length; i++) {
+						arguments[i] = argumentProviders[i].apply(c, d);
+					}
+					return arguments;
+				};
+		}
+	}
+
+	/**
+	 * Compile the parameters of a handler of all the matching new events of a
+	 * decision task: the payloads are passed as lists, in the order of the
+	 * events, and the common parameters are the ones of the decision task.
+	 */
+	public BatchEventHandlerArgumentsProvider createBatchArgumentsProvider(final EventType type, final Method method) {
+		final Parameter[] parameters = method.getParameters();
+		final List<BatchArgumentProvider> argumentProviders = new ArrayList<>(parameters.length);
+		boolean defaultProviderFound = false;
+		for (final Parameter parameter : parameters) {
+			BatchArgumentProvider argumentProvider = getBatchArgumentProviderForSpecificParameterType(parameter);
+			if (argumentProvider == null) {
+				final Class<?> elementType = listElementType(parameter);
+				Preconditions.checkState(elementType != null,
+						"Illegal event handler method %s. The parameter %s should be a List of the payloads",
+						method, parameter);
+				if (parameter.isAnnotationPresent(Input.class)) {
+					argumentProvider = deserializeAll(WorkflowEvent::input, PayloadCache.INPUT, elementType);
+				} else {
 					Preconditions.checkState(!defaultProviderFound,
 							"Illegal event handler method %s. Only one non-annotated parameter is allowed. "
-									+ "Please annotate other parameters with a %s annotation, like @Input,"
-									+ "@Output,@Control,@Reason,@Details",
+									+ "Please annotate other parameters with a %s annotation, like @Input",
 							method, EventHandlerCommonParameter.class);
 					defaultProviderFound = true;
+					argumentProvider = getDefaultBatchArgumentProvider(type, elementType);
 				}
-				argumentProviders.add(argumentProvider.function);
 			}
-			return (c, d) -> {
-				final Object[] arguments = new Object[parameters.length];
-				int i = 0;
-				for (final BiFunction<EventContext, Decisions, Object> function : argumentProviders) {
-					arguments[i++] = function.apply(c, d);
-				}
-				return arguments;
-			};
+			argumentProviders.add(argumentProvider);
 		}
+		return (c, events, d) -> {
+			final Object[] arguments = new Object[argumentProviders.size()];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = argumentProviders.get(i).apply(c, events, d);
+			}
+			return arguments;
+		};
+	}
+
+	private interface BatchArgumentProvider {
+		Object apply(DecisionTaskContext context, List<WorkflowEvent> events, Decisions decisions);
+	}
+
+	private BatchArgumentProvider getBatchArgumentProviderForSpecificParameterType(final Parameter parameter) {
+		final Class<?> parameterType = parameter.getType();
+		if (Decisions.class.isAssignableFrom(parameterType)) {
+			return (c, events, d) -> d;
+		} else if (DecisionTaskContext.class.isAssignableFrom(parameterType)) {
+			return (c, events, d) -> c;
+		} else if (WorkflowHistory.class.isAssignableFrom(parameterType)) {
+			return (c, events, d) -> c.history();
+		} else if (WorkflowEvent.class.equals(listElementType(parameter))) {
+			return (c, events, d) -> events;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the type of the elements of a {@code List<T>} parameter, or null
+	 *         if the parameter is not a list of a class
+	 */
+	private static Class<?> listElementType(final Parameter parameter) {
+		final Type parameterType = parameter.getParameterizedType();
+		if (parameterType instanceof ParameterizedType && List.class.equals(parameter.getType())) {
+			final Type elementType = ((ParameterizedType) parameterType).getActualTypeArguments()[0];
+			if (elementType instanceof Class) {
+				return (Class<?>) elementType;
+			}
+		}
+		return null;
+	}
+
+	private BatchArgumentProvider getDefaultBatchArgumentProvider(final EventType eventType,
+			final Class<?> elementType) {
+		switch (eventType) {
+			case ActivityTaskCompleted:
+				return deserializeAll(WorkflowEvent::output, PayloadCache.OUTPUT, elementType);
+			case WorkflowExecutionSignaled:
+				return deserializeAll(WorkflowEvent::input, PayloadCache.INPUT, elementType);
+			default:
+				throw new IllegalStateException("not yet implemented");
+		}
+	}
+
+	/**
+	 * Deserialize a payload of each event, sharing the deserializations of the
+	 * decision task with the handlers of the single events.
+	 */
+	private <T> BatchArgumentProvider deserializeAll(final Function<WorkflowEvent, String> provider,
+			final String attribute, final Class<T> elementType) {
+		final Function<String, T> deserializer = dataMapper.deserializer(elementType);
+		return (context, events, decisions) -> {
+			final List<T> payloads = new ArrayList<>(events.size());
+			for (final WorkflowEvent event : events) {
+				payloads.add(context.payloads().get(event.id(), attribute, elementType,
+						() -> deserializer.apply(provider.apply(event))));
+			}
+			return payloads;
+		};
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private BiFunction<EventContext, Decisions, Object>[] createArgumentProviders(final EventType type, final Method method,
+			final Parameter[] parameters) {
+		final BiFunction<EventContext, Decisions, Object>[] argumentProviders = new BiFunction[parameters.length];
+		boolean defaultProviderFound = false;
+		for (int i = 0; i < parameters.length; i++) {
+			final InternalArgumentProvider argumentProvider = createArgumentProvider(type, parameters[i]);
+			if (argumentProvider.isDefaultProvider) {
+				Preconditions.checkState(!defaultProviderFound,
+						"Illegal event handler method %s. Only one non-annotated parameter is allowed. "
+								+ "Please annotate other parameters with a %s annotation, like @Input,"
+								+ "@Output,@Control,@Reason,@Details",
+						method, EventHandlerCommonParameter.class);
+				defaultProviderFound = true;
+			}
+			argumentProviders[i] = argumentProvider.function;
+		}
+		return argumentProviders;
 	}
 
 	private InternalArgumentProvider createArgumentProvider(
@@ -100,11 +220,11 @@ public class EventHandlerArgumentsProviderFactory {
 	private BiFunction<EventContext, Decisions, Object> getArgumentProviderForSpecificAnnotation(
 			final EventType eventType, final AnnotatedElement parameterType) {
 		if (parameterType.isAnnotationPresent(Input.class)) {
-			return deserialize(INPUT_PROVIDER, parameterType);
+			return deserialize(INPUT_PROVIDER, PayloadCache.INPUT, parameterType);
 		} else if (parameterType.isAnnotationPresent(Output.class)) {
-			return deserialize(OUTPUT_PROVIDER, parameterType);
+			return deserialize(OUTPUT_PROVIDER, PayloadCache.OUTPUT, parameterType);
 		} else if (parameterType.isAnnotationPresent(Control.class)) {
-			return deserialize(CONTROL_PROVIDER, parameterType);
+			return deserialize(CONTROL_PROVIDER, PayloadCache.CONTROL, parameterType);
 		} else if (parameterType.isAnnotationPresent(Reason.class)) {
 			return wrapInBiFunction(REASON_PROVIDER);
 		} else if (parameterType.isAnnotationPresent(Marker.class)) {
@@ -149,19 +269,19 @@ public class EventHandlerArgumentsProviderFactory {
 		// parameter type (@runtime and also @build time)
 		switch (eventType) {
 			case ActivityTaskCompleted:
-				return deserialize(OUTPUT_PROVIDER, argumentType);
+				return deserialize(OUTPUT_PROVIDER, PayloadCache.OUTPUT, argumentType);
 			case TimerFired:
-				return deserialize(CONTROL_PROVIDER, argumentType);
+				return deserialize(CONTROL_PROVIDER, PayloadCache.CONTROL, argumentType);
 			case WorkflowExecutionSignaled:
 			case WorkflowExecutionStarted:
-				return deserialize(INPUT_PROVIDER, argumentType);
+				return deserialize(INPUT_PROVIDER, PayloadCache.INPUT, argumentType);
 			case ActivityTaskTimedOut:
 			case ActivityTaskFailed:
 				return wrapInBiFunction(INITIAL_EVENT_ID_PROVIDER);
 			case ChildWorkflowExecutionCanceled:
 				return wrapInBiFunction(DETAILS_PROVIDER);
 			case ChildWorkflowExecutionCompleted:
-				return deserialize(OUTPUT_PROVIDER, argumentType);
+				return deserialize(OUTPUT_PROVIDER, PayloadCache.OUTPUT, argumentType);
 			case ChildWorkflowExecutionFailed:
 				return wrapInBiFunction(REASON_PROVIDER);
 			case ChildWorkflowExecutionStarted:
@@ -219,17 +339,23 @@ public class EventHandlerArgumentsProviderFactory {
 		}
 	}
 
-	private BiFunction<EventContext, Decisions, Object> deserialize(Function<EventContext, String> provider, AnnotatedElement parameterType) {
+	private BiFunction<EventContext, Decisions, Object> deserialize(Function<EventContext, String> provider, String attribute, AnnotatedElement parameterType) {
 		if (parameterType instanceof Parameter) {
-			return deserialize(provider, ((Parameter) parameterType).getType());
+			return deserialize(provider, attribute, ((Parameter) parameterType).getType());
 		} else {
 			return (eventContext, decisions) -> provider.apply(eventContext);
 		}
 	}
 
-	private BiFunction<EventContext, Decisions, Object> deserialize(Function<EventContext, String> provider, Class<?> argumentType) {
-		Function<EventContext, Object> inputProvider = context -> dataMapper.deserialize(provider.apply(context), argumentType);
-		return (eventContext, decisions) -> inputProvider.apply(eventContext);
+	/**
+	 * Deserialize a payload of the current event once per decision task, the
+	 * same payload being possibly read by several handlers, with a
+	 * deserializer resolved once per parameter.
+	 */
+	private <T> BiFunction<EventContext, Decisions, Object> deserialize(Function<EventContext, String> provider, String attribute, Class<T> argumentType) {
+		final Function<String, T> deserializer = dataMapper.deserializer(argumentType);
+		return (context, decisions) -> context.payloads().get(context.event().id(), attribute, argumentType,
+				() -> deserializer.apply(provider.apply(context)));
 	}
 
 	private Function<EventContext, Object> markerDetailsProvider(AnnotatedElement parameterType) {
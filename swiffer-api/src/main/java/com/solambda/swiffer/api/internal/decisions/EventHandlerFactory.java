@@ -50,6 +50,9 @@ public class EventHandlerFactory {
 			return null;
 		} else {
 			LOGGER.debug("Found event handler for {}", type);
+			if (this.eventHandlerTypeFactory.isBatchEventHandler(method)) {
+				return createBatchEventHandler(template, type, method);
+			}
 			final EventHandler handler = createEventHandler(template, type, method);
 			return handler;
 		}
@@ -67,6 +70,16 @@ public class EventHandlerFactory {
 		return new EventHandlerImpl(handlerType, methodInvoker, argumentsProvider);
 	}
 
+	EventHandler createBatchEventHandler(final Object template,
+			final EventHandlerType handlerType,
+			final Method method) {
+		final MethodInvoker methodInvoker = new MethodInvoker(template, method);
+		final BatchEventHandlerArgumentsProvider argumentsProvider = this.eventHandlerArgumentsProviderFactory
+				.createBatchArgumentsProvider(handlerType.getEventType(), method);
+		checkReturnType(method);
+		return new BatchEventHandlerImpl(handlerType, methodInvoker, argumentsProvider);
+	}
+
 	EventHandler createFailedActivityHandler() {
 		try {
 			Method method = retryHandlers.getClass().getMethod("onFailure", Long.class, Decisions.class, ActivityTaskFailedContext.class);
@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import com.amazonaws.services.simpleworkflow.model.CancelWorkflowExecutionFailedCause;
 import com.amazonaws.services.simpleworkflow.model.CompleteWorkflowExecutionFailedCause;
 import com.amazonaws.services.simpleworkflow.model.ContinueAsNewWorkflowExecutionFailedCause;
+import com.amazonaws.services.simpleworkflow.model.EventType;
 import com.amazonaws.services.simpleworkflow.model.FailWorkflowExecutionFailedCause;
 import com.solambda.swiffer.api.retry.RetryControl;
 
@@ -15,6 +16,7 @@ public class EventHandlerRegistry {
     private static final Logger LOGGER = LoggerFactory.getLogger(EventHandlerRegistry.class);
 
 	private final Map<EventHandlerType, EventHandler> eventHandlerRegistry;
+	private final EventDispatchTable dispatchTable;
 
 	private EventHandler defaultFailedActivityHandler;
     private EventHandler defaultTimedOutActivityHandler;
@@ -27,12 +29,23 @@ public class EventHandlerRegistry {
 	public EventHandlerRegistry(final Map<EventHandlerType, EventHandler> eventHandlerRegistry) {
 		super();
 		this.eventHandlerRegistry = eventHandlerRegistry;
+		this.dispatchTable = new EventDispatchTable(eventHandlerRegistry);
 	}
 
 	public EventHandler get(final EventHandlerType key) {
 		return this.eventHandlerRegistry.get(key);
 	}
 
+	/**
+	 * Look up the handler of an event without allocating its
+	 * {@link EventHandlerType}.
+	 *
+	 * @see EventDispatchTable#get(EventType, String, String)
+	 */
+	EventHandler get(final EventType type, final String name, final String version) {
+		return this.dispatchTable.get(type, name, version);
+	}
+
     EventHandler getDefaultFailedActivityHandler() {
         return defaultFailedActivityHandler;
     }
@@ -18,6 +18,10 @@ public class EventHandlerType {
 		return this.eventType;
 	}
 
+	public ContextName getContextName() {
+		return this.contextName;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -4,10 +4,12 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import com.amazonaws.services.simpleworkflow.model.EventType;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.solambda.swiffer.api.*;
 import com.solambda.swiffer.api.internal.VersionedName;
 import com.solambda.swiffer.api.internal.context.identifier.ActivityName;
@@ -37,8 +39,17 @@ public class EventHandlerTypeFactory {
 		EVENT_HANDLER_ANNOTATION_TO_EVENT_TYPE.put(OnChildWorkflowStarted.class, EventType.ChildWorkflowExecutionStarted);
 		EVENT_HANDLER_ANNOTATION_TO_EVENT_TYPE.put(OnStartChildWorkflowFailed.class, EventType.StartChildWorkflowExecutionFailed);
 		EVENT_HANDLER_ANNOTATION_TO_EVENT_TYPE.put(OnWorkflowCancelRequested.class, EventType.WorkflowExecutionCancelRequested);
+		EVENT_HANDLER_ANNOTATION_TO_EVENT_TYPE.put(OnActivitiesCompleted.class, EventType.ActivityTaskCompleted);
+		EVENT_HANDLER_ANNOTATION_TO_EVENT_TYPE.put(OnSignalsReceived.class, EventType.WorkflowExecutionSignaled);
 	}
 
+	/**
+	 * The annotations of the handlers invoked once with all the matching new
+	 * events of a decision task.
+	 */
+	private static final Set<Class<? extends Annotation>> BATCH_EVENT_HANDLER_ANNOTATIONS = ImmutableSet
+			.of(OnActivitiesCompleted.class, OnSignalsReceived.class);
+
 	private static interface ContextNameProvider<A extends Annotation> extends Function<A, ContextName> {
 
 	}
@@ -60,6 +71,8 @@ public class EventHandlerTypeFactory {
 		map.put(OnChildWorkflowStarted.class, (ContextNameProvider<OnChildWorkflowStarted>) this::toContextName);
 		map.put(OnStartChildWorkflowFailed.class, (ContextNameProvider<OnStartChildWorkflowFailed>) this::toContextName);
 		map.put(OnWorkflowCancelRequested.class, (ContextNameProvider<OnWorkflowCancelRequested>) this::toContextName);
+		map.put(OnActivitiesCompleted.class, (ContextNameProvider<OnActivitiesCompleted>) this::toContextName);
+		map.put(OnSignalsReceived.class, (ContextNameProvider<OnSignalsReceived>) this::toContextName);
 	}
 
 	private VersionedName workflowType;
@@ -78,6 +91,16 @@ public class EventHandlerTypeFactory {
 		}
 	}
 
+	/**
+	 * @return true if the method is a handler of all the matching new events
+	 *         of a decision task, like a {@link OnActivitiesCompleted} handler
+	 */
+	public boolean isBatchEventHandler(final Method method) {
+		final Annotation eventHandlerAnnotation = getEventHandlerAnnotation(method);
+		return eventHandlerAnnotation != null
+				&& BATCH_EVENT_HANDLER_ANNOTATIONS.contains(eventHandlerAnnotation.annotationType());
+	}
+
 	private EventHandlerType processEventHandlerAnnotation(final Method method,
 			final Annotation eventHandlerAnnotation) {
 		final EventType eventType = toEventType(eventHandlerAnnotation);
@@ -130,6 +153,11 @@ public class EventHandlerTypeFactory {
 		return toActivityName(activityDefinitionClass);
 	}
 
+	private ContextName toContextName(final OnActivitiesCompleted annotation) {
+		final Class<?> activityDefinitionClass = annotation.value();
+		return toActivityName(activityDefinitionClass);
+	}
+
 	private ContextName toActivityName(final Class<?> activityDefinitionClass) {
 		final ActivityType activityType = activityDefinitionClass.getAnnotation(ActivityType.class);
 		Preconditions.checkState(activityType != null,
@@ -147,6 +175,10 @@ public class EventHandlerTypeFactory {
 		return new SignalName(annotation.value());
 	}
 
+	private ContextName toContextName(final OnSignalsReceived annotation) {
+		return new SignalName(annotation.value());
+	}
+
 	private ContextName toContextName(final OnTimerFired annotation) {
 		String timerId = checkTimerId(annotation.value());
 		return new TimerName(timerId);
@@ -0,0 +1,186 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The histories of the workflow executions recently decided by a decider,
+ * keyed by workflow id and run id.
+ * <p>
+ * The history of a workflow execution only grows: when the decider polls the
+ * next decision task of a cached execution, it only needs the pages of the
+ * history containing the events that occurred since, the older events are
+ * taken from the cache. The least recently used executions are evicted first,
+ * and the executions not decided for some time are evicted.
+ * <p>
+ * The cache is local to the decider: a decision task polled by another
+ * decider of the task list fetches the whole history.
+ * <p>
+ * The large events of the cached histories can be stored out of the heap, so
+ * that the heap used by the cache does not grow with the size of the events.
+ */
+public class ExecutionHistoryCache {
+
+	/**
+	 * Default time after which the history of an execution not decided is
+	 * evicted.
+	 */
+	public static final Duration DEFAULT_IDLE_TIME = Duration.ofHours(1);
+
+	private final Cache<WorkflowExecution, WorkflowHistoryImpl> histories;
+	private final int offHeapThreshold;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * @param maximumExecutions
+	 *            the maximum number of workflow executions in the cache
+	 */
+	public ExecutionHistoryCache(final int maximumExecutions) {
+		this(maximumExecutions, DEFAULT_IDLE_TIME);
+	}
+
+	/**
+	 * @param maximumExecutions
+	 *            the maximum number of workflow executions in the cache
+	 * @param idleTime
+	 *            the time after which the history of an execution not decided
+	 *            is evicted
+	 */
+	public ExecutionHistoryCache(final int maximumExecutions, final Duration idleTime) {
+		this(maximumExecutions, idleTime, 0);
+	}
+
+	/**
+	 * @param maximumExecutions
+	 *            the maximum number of workflow executions in the cache
+	 * @param idleTime
+	 *            the time after which the history of an execution not decided
+	 *            is evicted
+	 * @param offHeapThreshold
+	 *            the size in bytes, once serialized, from which an event is
+	 *            stored out of the heap and decoded when accessed, 0 to keep
+	 *            all the events in the heap
+	 */
+	public ExecutionHistoryCache(final int maximumExecutions, final Duration idleTime, final int offHeapThreshold) {
+		this(maximumExecutions, idleTime, offHeapThreshold, Ticker.systemTicker());
+	}
+
+	/**
+	 * @param ticker
+	 *            the time source of the idle times
+	 */
+	ExecutionHistoryCache(final int maximumExecutions, final Duration idleTime, final int offHeapThreshold,
+			final Ticker ticker) {
+		super();
+		Preconditions.checkArgument(maximumExecutions > 0,
+				"the maximum number of cached executions should be greater than 0");
+		Preconditions.checkNotNull(idleTime, "please specify the idle time!");
+		Preconditions.checkArgument(offHeapThreshold >= 0, "the off-heap threshold should not be negative");
+		this.offHeapThreshold = offHeapThreshold;
+		this.histories = CacheBuilder.newBuilder()
+				.maximumSize(maximumExecutions)
+				.expireAfterAccess(idleTime.toMillis(), TimeUnit.MILLISECONDS)
+				.ticker(ticker)
+				.<WorkflowExecution, WorkflowHistoryImpl> removalListener(notification -> {
+					if (notification.wasEvicted()) {
+						this.evictions.incrementAndGet();
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * @param execution
+	 *            the workflow execution
+	 * @param fetchedEvents
+	 *            the events fetched so far, most recent first
+	 * @return true if the fetched events reach the cached history of the
+	 *         execution, so that the older pages do not need to be fetched
+	 */
+	public boolean reachesCachedHistory(final WorkflowExecution execution, final List<HistoryEvent> fetchedEvents) {
+		if (execution == null || fetchedEvents.isEmpty()) {
+			return false;
+		}
+		return reaches(this.histories.getIfPresent(execution), fetchedEvents);
+	}
+
+	/**
+	 * Complete the fetched events with the cached history of the execution,
+	 * and cache the result for the next decision task. The cached events are
+	 * shared with the returned history.
+	 *
+	 * @param execution
+	 *            the workflow execution
+	 * @param fetchedEvents
+	 *            the events fetched, most recent first
+	 * @return the complete history of the execution
+	 */
+	public WorkflowHistory completeAndCache(final WorkflowExecution execution,
+			final List<HistoryEvent> fetchedEvents) {
+		if (execution == null) {
+			return new WorkflowHistoryImpl(fetchedEvents, this.offHeapThreshold);
+		}
+		final WorkflowHistoryImpl cached = this.histories.getIfPresent(execution);
+		final WorkflowHistoryImpl history;
+		if (reaches(cached, fetchedEvents)) {
+			this.hits.incrementAndGet();
+			history = cached.extend(fetchedEvents);
+		} else {
+			this.misses.incrementAndGet();
+			history = new WorkflowHistoryImpl(fetchedEvents, this.offHeapThreshold);
+		}
+		this.histories.put(execution, history);
+		// the cached history keeps no decoded event
+		return history.forDecisionTask();
+	}
+
+	/**
+	 * @return the number of workflow executions in the cache
+	 */
+	public long size() {
+		return this.histories.size();
+	}
+
+	/**
+	 * @return the number of decision tasks whose history was completed with
+	 *         the cache
+	 */
+	public long hitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return the number of decision tasks whose history was fetched
+	 *         completely
+	 */
+	public long missCount() {
+		return this.misses.get();
+	}
+
+	/**
+	 * @return the number of executions evicted from the cache, because of its
+	 *         size or of their idle time
+	 */
+	public long evictionCount() {
+		this.histories.cleanUp();
+		return this.evictions.get();
+	}
+
+	private static boolean reaches(final WorkflowHistoryImpl cached, final List<HistoryEvent> fetchedEvents) {
+		return cached != null && !fetchedEvents.isEmpty()
+				&& fetchedEvents.get(fetchedEvents.size() - 1).getEventId() <= cached.newestEventId() + 1;
+	}
+
+}
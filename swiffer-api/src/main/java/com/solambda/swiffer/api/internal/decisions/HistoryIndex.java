@@ -0,0 +1,194 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+
+/**
+ * The secondary indexes of a {@link WorkflowHistory}, each one mapping a key
+ * to the ids of the events having this key, most recent first.
+ * <p>
+ * The keys are read from the SWF events, so that indexing a history does not
+ * wrap all its events.
+ */
+enum HistoryIndex {
+
+	/**
+	 * The {@link EventType#MarkerRecorded} events by marker name.
+	 */
+	MARKERS {
+		@Override
+		Object keyOf(final EventType type, final long eventId, final LongFunction<HistoryEvent> eventsById) {
+			return type == EventType.MarkerRecorded
+					? eventsById.apply(eventId).getMarkerRecordedEventAttributes().getMarkerName()
+					: null;
+		}
+	},
+
+	/**
+	 * The timer events by timer id.
+	 */
+	TIMERS {
+		@Override
+		Object keyOf(final EventType type, final long eventId, final LongFunction<HistoryEvent> eventsById) {
+			switch (type) {
+				case TimerStarted:
+					return eventsById.apply(eventId).getTimerStartedEventAttributes().getTimerId();
+				case TimerFired:
+					return eventsById.apply(eventId).getTimerFiredEventAttributes().getTimerId();
+				case TimerCanceled:
+					return eventsById.apply(eventId).getTimerCanceledEventAttributes().getTimerId();
+				case StartTimerFailed:
+					return eventsById.apply(eventId).getStartTimerFailedEventAttributes().getTimerId();
+				case CancelTimerFailed:
+					return eventsById.apply(eventId).getCancelTimerFailedEventAttributes().getTimerId();
+				default:
+					return null;
+			}
+		}
+	},
+
+	/**
+	 * The activity task events by activity id.
+	 */
+	ACTIVITIES {
+		@Override
+		Object keyOf(final EventType type, final long eventId, final LongFunction<HistoryEvent> eventsById) {
+			switch (type) {
+				case ActivityTaskScheduled:
+					return eventsById.apply(eventId).getActivityTaskScheduledEventAttributes().getActivityId();
+				case ScheduleActivityTaskFailed:
+					return eventsById.apply(eventId).getScheduleActivityTaskFailedEventAttributes().getActivityId();
+				case ActivityTaskCancelRequested:
+					return eventsById.apply(eventId).getActivityTaskCancelRequestedEventAttributes().getActivityId();
+				case RequestCancelActivityTaskFailed:
+					return eventsById.apply(eventId).getRequestCancelActivityTaskFailedEventAttributes().getActivityId();
+				default:
+					final Long scheduledEventId = scheduledEventIdOf(type, eventId, eventsById);
+					return scheduledEventId == null ? null
+							: eventsById.apply(scheduledEventId).getActivityTaskScheduledEventAttributes()
+									.getActivityId();
+			}
+		}
+	},
+
+	/**
+	 * The activity task events by the id of their
+	 * {@link EventType#ActivityTaskScheduled} event.
+	 */
+	SCHEDULED_ACTIVITIES {
+		@Override
+		Object keyOf(final EventType type, final long eventId, final LongFunction<HistoryEvent> eventsById) {
+			return type == EventType.ActivityTaskScheduled ? Long.valueOf(eventId)
+					: scheduledEventIdOf(type, eventId, eventsById);
+		}
+	},
+
+	/**
+	 * The {@link EventType#WorkflowExecutionSignaled} events by signal name.
+	 */
+	SIGNALS {
+		@Override
+		Object keyOf(final EventType type, final long eventId, final LongFunction<HistoryEvent> eventsById) {
+			return type == EventType.WorkflowExecutionSignaled
+					? eventsById.apply(eventId).getWorkflowExecutionSignaledEventAttributes().getSignalName()
+					: null;
+		}
+	},
+
+	/**
+	 * The child workflow events by workflow id.
+	 */
+	CHILD_WORKFLOWS {
+		@Override
+		Object keyOf(final EventType type, final long eventId, final LongFunction<HistoryEvent> eventsById) {
+			switch (type) {
+				case StartChildWorkflowExecutionInitiated:
+					return eventsById.apply(eventId).getStartChildWorkflowExecutionInitiatedEventAttributes().getWorkflowId();
+				case StartChildWorkflowExecutionFailed:
+					return eventsById.apply(eventId).getStartChildWorkflowExecutionFailedEventAttributes().getWorkflowId();
+				case ChildWorkflowExecutionStarted:
+					return eventsById.apply(eventId).getChildWorkflowExecutionStartedEventAttributes().getWorkflowExecution()
+							.getWorkflowId();
+				case ChildWorkflowExecutionCompleted:
+					return eventsById.apply(eventId).getChildWorkflowExecutionCompletedEventAttributes().getWorkflowExecution()
+							.getWorkflowId();
+				case ChildWorkflowExecutionFailed:
+					return eventsById.apply(eventId).getChildWorkflowExecutionFailedEventAttributes().getWorkflowExecution()
+							.getWorkflowId();
+				case ChildWorkflowExecutionTimedOut:
+					return eventsById.apply(eventId).getChildWorkflowExecutionTimedOutEventAttributes().getWorkflowExecution()
+							.getWorkflowId();
+				case ChildWorkflowExecutionCanceled:
+					return eventsById.apply(eventId).getChildWorkflowExecutionCanceledEventAttributes().getWorkflowExecution()
+							.getWorkflowId();
+				case ChildWorkflowExecutionTerminated:
+					return eventsById.apply(eventId).getChildWorkflowExecutionTerminatedEventAttributes().getWorkflowExecution()
+							.getWorkflowId();
+				default:
+					return null;
+			}
+		}
+	};
+
+	/**
+	 * @param type
+	 *            the type of the event
+	 * @param eventId
+	 *            the id of the event
+	 * @param eventsById
+	 *            the events of the history by id, only read for the events of
+	 *            the types indexed, as they may be stored out of the heap
+	 * @return the key of the event in this index, or null if the event is not
+	 *         indexed
+	 */
+	abstract Object keyOf(EventType type, long eventId, LongFunction<HistoryEvent> eventsById);
+
+	/**
+	 * Index the events of a history.
+	 *
+	 * @param newestEventId
+	 *            the id of the most recent event of the history
+	 * @param typesById
+	 *            the types of the events by id
+	 * @param eventsById
+	 *            the events by id
+	 * @return the ids of the events by key, most recent first
+	 */
+	Map<Object, List<Long>> build(final long newestEventId, final LongFunction<EventType> typesById,
+			final LongFunction<HistoryEvent> eventsById) {
+		final Map<Object, List<Long>> index = new HashMap<>();
+		for (long id = newestEventId; id >= 1; id--) {
+			final Object key = keyOf(typesById.apply(id), id, eventsById);
+			if (key != null) {
+				index.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+			}
+		}
+		return Collections.unmodifiableMap(index);
+	}
+
+	private static Long scheduledEventIdOf(final EventType type, final long eventId,
+			final LongFunction<HistoryEvent> eventsById) {
+		switch (type) {
+			case ActivityTaskStarted:
+				return eventsById.apply(eventId).getActivityTaskStartedEventAttributes().getScheduledEventId();
+			case ActivityTaskCompleted:
+				return eventsById.apply(eventId).getActivityTaskCompletedEventAttributes().getScheduledEventId();
+			case ActivityTaskFailed:
+				return eventsById.apply(eventId).getActivityTaskFailedEventAttributes().getScheduledEventId();
+			case ActivityTaskTimedOut:
+				return eventsById.apply(eventId).getActivityTaskTimedOutEventAttributes().getScheduledEventId();
+			case ActivityTaskCanceled:
+				return eventsById.apply(eventId).getActivityTaskCanceledEventAttributes().getScheduledEventId();
+			default:
+				return null;
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+
+/**
+ * The {@link HistoryIndex}es of a history, each one being built the first time
+ * it is queried.
+ */
+final class HistoryIndexes {
+
+	private final WorkflowHistory history;
+	private final long newestEventId;
+	private final LongFunction<EventType> typesById;
+	private final LongFunction<HistoryEvent> eventsById;
+	private final Map<HistoryIndex, Map<Object, List<Long>>> indexes = new ConcurrentHashMap<>();
+
+	/**
+	 * @param history
+	 *            the indexed history
+	 * @param newestEventId
+	 *            the id of the most recent event of the history
+	 * @param typesById
+	 *            the types of the events of the history by id
+	 * @param eventsById
+	 *            the events of the history by id
+	 */
+	HistoryIndexes(final WorkflowHistory history, final long newestEventId,
+			final LongFunction<EventType> typesById, final LongFunction<HistoryEvent> eventsById) {
+		super();
+		this.history = history;
+		this.newestEventId = newestEventId;
+		this.typesById = typesById;
+		this.eventsById = eventsById;
+	}
+
+	/**
+	 * @return the events of the history having the key in the index, most
+	 *         recent first
+	 */
+	List<WorkflowEvent> lookup(final HistoryIndex index, final Object key) {
+		final List<Long> eventIds = this.indexes
+				.computeIfAbsent(index, i -> i.build(this.newestEventId, this.typesById, this.eventsById))
+				.getOrDefault(key, Collections.emptyList());
+		return eventIds.stream()
+				.map(this.history::getEventById)
+				.collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+
+/**
+ * The lookups of the {@link HistoryIndex} keys of a history whose older events
+ * are costly to reach: instead of indexing the whole history, each lookup
+ * scans the events from the most recent one, only as far as its result is
+ * read.
+ */
+final class HistoryScans {
+
+	private final WorkflowHistory history;
+	private final long newestEventId;
+	private final LongFunction<EventType> typesById;
+	private final LongFunction<HistoryEvent> eventsById;
+	private final Map<HistoryIndex, Map<Object, List<WorkflowEvent>>> scans = new ConcurrentHashMap<>();
+
+	/**
+	 * @param history
+	 *            the scanned history
+	 * @param newestEventId
+	 *            the id of the most recent event of the history
+	 * @param typesById
+	 *            the types of the events of the history by id
+	 * @param eventsById
+	 *            the events of the history by id
+	 */
+	HistoryScans(final WorkflowHistory history, final long newestEventId,
+			final LongFunction<EventType> typesById, final LongFunction<HistoryEvent> eventsById) {
+		super();
+		this.history = history;
+		this.newestEventId = newestEventId;
+		this.typesById = typesById;
+		this.eventsById = eventsById;
+	}
+
+	/**
+	 * @return the events of the history having the key in the index, most
+	 *         recent first, found as the list is read
+	 */
+	List<WorkflowEvent> lookup(final HistoryIndex index, final Object key) {
+		return this.scans.computeIfAbsent(index, i -> new ConcurrentHashMap<>())
+				.computeIfAbsent(key, k -> new Scan(index, k));
+	}
+
+	private final class Scan extends AbstractList<WorkflowEvent> {
+
+		private final HistoryIndex index;
+		private final Object key;
+		private final List<WorkflowEvent> found = new ArrayList<>();
+		private long nextEventId = HistoryScans.this.newestEventId;
+
+		Scan(final HistoryIndex index, final Object key) {
+			super();
+			this.index = index;
+			this.key = key;
+		}
+
+		/**
+		 * Scan the history until the event at the position is found.
+		 *
+		 * @return true if the list has an event at this position
+		 */
+		private synchronized boolean scanUntil(final int position) {
+			while (this.found.size() <= position && this.nextEventId >= 1) {
+				final long id = this.nextEventId--;
+				final Object eventKey = this.index.keyOf(HistoryScans.this.typesById.apply(id), id,
+						HistoryScans.this.eventsById);
+				if (eventKey != null && eventKey.equals(this.key)) {
+					this.found.add(HistoryScans.this.history.getEventById(id));
+				}
+			}
+			return this.found.size() > position;
+		}
+
+		@Override
+		public synchronized WorkflowEvent get(final int position) {
+			if (position < 0 || !scanUntil(position)) {
+				throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size());
+			}
+			return this.found.get(position);
+		}
+
+		@Override
+		public synchronized int size() {
+			scanUntil(Integer.MAX_VALUE);
+			return this.found.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !scanUntil(0);
+		}
+
+		@Override
+		public Iterator<WorkflowEvent> iterator() {
+			return new Iterator<WorkflowEvent>() {
+				private int cursor;
+
+				@Override
+				public boolean hasNext() {
+					return scanUntil(this.cursor);
+				}
+
+				@Override
+				public WorkflowEvent next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return get(this.cursor++);
+				}
+			};
+		}
+
+		@Override
+		public Spliterator<WorkflowEvent> spliterator() {
+			// the size is unknown until the whole history is scanned
+			return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.amazonaws.services.simpleworkflow.model.DecisionTask;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.google.common.base.Preconditions;
+
+/**
+ * A {@link WorkflowHistory} starting with the first pages of the history of a
+ * decision task, the older pages being fetched only when an event they
+ * contain is accessed.
+ * <p>
+ * The ids of the events of an execution go from 1 to the id of the most recent
+ * event, so the size of the history is known from the first page. The token
+ * of the next page is kept until the history is complete or the task is
+ * answered.
+ * <p>
+ * The events of a marker, a timer, an activity... are looked up from the most
+ * recent event, only as far as they are read.
+ */
+public class LazyWorkflowHistory implements WorkflowHistory {
+
+	private final Function<String, DecisionTask> pageFetcher;
+	private final int size;
+	private final List<HistoryEvent> fetchedEvents;
+	private final List<WorkflowEvent> fetchedWorkflowEvents;
+	private String nextPageToken;
+	private final HistoryScans scans;
+
+	/**
+	 * @param firstPage
+	 *            the decision task with the events fetched so far, most recent
+	 *            first, and the token of the next page
+	 * @param pageFetcher
+	 *            fetch the page of the history of the decision task for the
+	 *            given page token
+	 */
+	public LazyWorkflowHistory(final DecisionTask firstPage, final Function<String, DecisionTask> pageFetcher) {
+		super();
+		Preconditions.checkArgument(firstPage.getEvents() != null && !firstPage.getEvents().isEmpty(),
+				"event list is empty");
+		this.pageFetcher = Preconditions.checkNotNull(pageFetcher, "please specify how to fetch the pages!");
+		this.size = firstPage.getEvents().get(0).getEventId().intValue();
+		this.fetchedEvents = new ArrayList<>(firstPage.getEvents().size());
+		this.fetchedWorkflowEvents = new ArrayList<>(firstPage.getEvents().size());
+		addPage(firstPage);
+		// indexing the whole history would fetch all its pages
+		this.scans = new HistoryScans(this, this.size, id -> getEventById(id).type(), this::historyEvent);
+	}
+
+	@Override
+	public List<WorkflowEvent> events() {
+		return new AbstractList<WorkflowEvent>() {
+			@Override
+			public WorkflowEvent get(final int index) {
+				return workflowEvent(index);
+			}
+
+			@Override
+			public int size() {
+				return LazyWorkflowHistory.this.size;
+			}
+		};
+	}
+
+	@Override
+	public WorkflowEvent getEventById(final Long id) {
+		Preconditions.checkArgument(id > 0, "cannot get event id " + id);
+		final int eventIdToIndex = this.size - id.intValue();
+		return eventIdToIndex >= 0 ? workflowEvent(eventIdToIndex) : null;
+	}
+
+	@Override
+	public List<WorkflowEvent> markerEvents(final String markerName) {
+		return this.scans.lookup(HistoryIndex.MARKERS, markerName);
+	}
+
+	@Override
+	public List<WorkflowEvent> timerEvents(final String timerId) {
+		return this.scans.lookup(HistoryIndex.TIMERS, timerId);
+	}
+
+	@Override
+	public List<WorkflowEvent> activityEvents(final String activityId) {
+		return this.scans.lookup(HistoryIndex.ACTIVITIES, activityId);
+	}
+
+	@Override
+	public List<WorkflowEvent> scheduledActivityEvents(final Long scheduledEventId) {
+		return this.scans.lookup(HistoryIndex.SCHEDULED_ACTIVITIES, scheduledEventId);
+	}
+
+	@Override
+	public List<WorkflowEvent> signalEvents(final String signalName) {
+		return this.scans.lookup(HistoryIndex.SIGNALS, signalName);
+	}
+
+	@Override
+	public List<WorkflowEvent> childWorkflowEvents(final String workflowId) {
+		return this.scans.lookup(HistoryIndex.CHILD_WORKFLOWS, workflowId);
+	}
+
+	/**
+	 * @return the number of events fetched so far
+	 */
+	public synchronized int fetchedEventCount() {
+		return this.fetchedEvents.size();
+	}
+
+	private synchronized WorkflowEvent workflowEvent(final int index) {
+		fetchUntil(index);
+		return this.fetchedWorkflowEvents.get(index);
+	}
+
+	private synchronized HistoryEvent historyEvent(final long id) {
+		final int index = this.size - (int) id;
+		fetchUntil(index);
+		return this.fetchedEvents.get(index);
+	}
+
+	private void fetchUntil(final int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+		while (index >= this.fetchedEvents.size()) {
+			Preconditions.checkState(this.nextPageToken != null,
+					"history is not complete ! the oldest event is " + (this.size - this.fetchedEvents.size() + 1)
+							+ " but should be 1");
+			addPage(this.pageFetcher.apply(this.nextPageToken));
+		}
+	}
+
+	private void addPage(final DecisionTask page) {
+		final List<HistoryEvent> events = page.getEvents();
+		if (events != null && !events.isEmpty()) {
+			final long expectedEventId = this.size - this.fetchedEvents.size();
+			Preconditions.checkState(events.get(0).getEventId() == expectedEventId,
+					"unexpected page of history ! the page starts with event " + events.get(0).getEventId()
+							+ " but should start with " + expectedEventId);
+			for (final HistoryEvent event : events) {
+				this.fetchedEvents.add(event);
+				this.fetchedWorkflowEvents.add(new WorkflowEvent(event, this));
+			}
+		}
+		// the last page has no token: the token is released once useless
+		this.nextPageToken = page.getNextPageToken();
+	}
+
+}
@@ -0,0 +1,226 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * The large events of a workflow execution, serialized in JSON into direct
+ * buffers, out of the heap. The events are decoded each time they are loaded.
+ * <p>
+ * The size of an event is estimated from below by its type and its text
+ * payloads, without encoding it: only the events whose estimate reaches the
+ * threshold are encoded.
+ * <p>
+ * The events are appended to buffers growing up to {@value #MAX_CHUNK_SIZE}
+ * bytes, which are freed with the last history of the execution. A buffer is
+ * filled until its free space is smaller than the threshold, as no event
+ * stored here can fit in it.
+ */
+class OffHeapEvents {
+
+	private static final int MIN_CHUNK_SIZE = 64 * 1024;
+	private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+	/**
+	 * The size of the JSON object of an event without its type, its id and
+	 * its attributes.
+	 */
+	private static final int MIN_EVENT_SIZE = "{\"eventType\":\"\",\"eventId\":0}".length();
+
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	private static final ObjectWriter WRITER = MAPPER.writerFor(HistoryEvent.class);
+	private static final ObjectReader READER = MAPPER.readerFor(HistoryEvent.class);
+
+	private final int threshold;
+	/**
+	 * The buffers having room for an event, the most recent last.
+	 */
+	private final List<ByteBuffer> chunks = new ArrayList<>();
+	private int lastChunkSize;
+
+	/**
+	 * @param threshold
+	 *            the size in bytes from which an event is stored out of the
+	 *            heap
+	 */
+	OffHeapEvents(final int threshold) {
+		super();
+		this.threshold = threshold;
+	}
+
+	/**
+	 * @param event
+	 *            an event of the execution
+	 * @return the location of the event out of the heap, or null if the event
+	 *         is smaller than the threshold and should stay in the heap
+	 */
+	ByteBuffer store(final HistoryEvent event) {
+		if (estimateSize(event) < this.threshold) {
+			return null;
+		}
+		return copy(encode(event));
+	}
+
+	/**
+	 * @param location
+	 *            the location of an event returned by
+	 *            {@link #store(HistoryEvent)}
+	 * @return the event
+	 */
+	HistoryEvent load(final ByteBuffer location) {
+		return decode(location.duplicate());
+	}
+
+	private synchronized ByteBuffer copy(final byte[] encoded) {
+		final ByteBuffer chunk = chunkFor(encoded.length);
+		final ByteBuffer location = chunk.slice();
+		location.limit(encoded.length);
+		location.put(encoded);
+		location.flip();
+		chunk.position(chunk.position() + encoded.length);
+		if (chunk.remaining() < this.threshold) {
+			this.chunks.remove(chunk);
+		}
+		return location.asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return a buffer with room for the given number of bytes
+	 */
+	private ByteBuffer chunkFor(final int length) {
+		for (final ByteBuffer chunk : this.chunks) {
+			if (chunk.remaining() >= length) {
+				return chunk;
+			}
+		}
+		final int size = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, this.lastChunkSize * 2));
+		this.lastChunkSize = size;
+		final ByteBuffer chunk = ByteBuffer.allocateDirect(Math.max(size, length));
+		this.chunks.add(chunk);
+		return chunk;
+	}
+
+	/**
+	 * @return a size smaller than the size of the encoded event
+	 */
+	static int estimateSize(final HistoryEvent event) {
+		return MIN_EVENT_SIZE + length(event.getEventType()) + payloadLength(event);
+	}
+
+	/**
+	 * @return the length of the texts an event carries: the inputs, the
+	 *         results, the details...
+	 */
+	private static int payloadLength(final HistoryEvent event) {
+		if (event.getWorkflowExecutionStartedEventAttributes() != null) {
+			return length(event.getWorkflowExecutionStartedEventAttributes().getInput());
+		}
+		if (event.getWorkflowExecutionCompletedEventAttributes() != null) {
+			return length(event.getWorkflowExecutionCompletedEventAttributes().getResult());
+		}
+		if (event.getWorkflowExecutionFailedEventAttributes() != null) {
+			return length(event.getWorkflowExecutionFailedEventAttributes().getReason())
+					+ length(event.getWorkflowExecutionFailedEventAttributes().getDetails());
+		}
+		if (event.getWorkflowExecutionCanceledEventAttributes() != null) {
+			return length(event.getWorkflowExecutionCanceledEventAttributes().getDetails());
+		}
+		if (event.getWorkflowExecutionTerminatedEventAttributes() != null) {
+			return length(event.getWorkflowExecutionTerminatedEventAttributes().getReason())
+					+ length(event.getWorkflowExecutionTerminatedEventAttributes().getDetails());
+		}
+		if (event.getWorkflowExecutionContinuedAsNewEventAttributes() != null) {
+			return length(event.getWorkflowExecutionContinuedAsNewEventAttributes().getInput());
+		}
+		if (event.getWorkflowExecutionSignaledEventAttributes() != null) {
+			return length(event.getWorkflowExecutionSignaledEventAttributes().getInput());
+		}
+		if (event.getDecisionTaskCompletedEventAttributes() != null) {
+			return length(event.getDecisionTaskCompletedEventAttributes().getExecutionContext());
+		}
+		if (event.getActivityTaskScheduledEventAttributes() != null) {
+			return length(event.getActivityTaskScheduledEventAttributes().getInput())
+					+ length(event.getActivityTaskScheduledEventAttributes().getControl());
+		}
+		if (event.getActivityTaskCompletedEventAttributes() != null) {
+			return length(event.getActivityTaskCompletedEventAttributes().getResult());
+		}
+		if (event.getActivityTaskFailedEventAttributes() != null) {
+			return length(event.getActivityTaskFailedEventAttributes().getReason())
+					+ length(event.getActivityTaskFailedEventAttributes().getDetails());
+		}
+		if (event.getActivityTaskTimedOutEventAttributes() != null) {
+			return length(event.getActivityTaskTimedOutEventAttributes().getDetails());
+		}
+		if (event.getActivityTaskCanceledEventAttributes() != null) {
+			return length(event.getActivityTaskCanceledEventAttributes().getDetails());
+		}
+		if (event.getMarkerRecordedEventAttributes() != null) {
+			return length(event.getMarkerRecordedEventAttributes().getDetails());
+		}
+		if (event.getTimerStartedEventAttributes() != null) {
+			return length(event.getTimerStartedEventAttributes().getControl());
+		}
+		if (event.getStartChildWorkflowExecutionInitiatedEventAttributes() != null) {
+			return length(event.getStartChildWorkflowExecutionInitiatedEventAttributes().getInput())
+					+ length(event.getStartChildWorkflowExecutionInitiatedEventAttributes().getControl());
+		}
+		if (event.getChildWorkflowExecutionCompletedEventAttributes() != null) {
+			return length(event.getChildWorkflowExecutionCompletedEventAttributes().getResult());
+		}
+		if (event.getChildWorkflowExecutionFailedEventAttributes() != null) {
+			return length(event.getChildWorkflowExecutionFailedEventAttributes().getReason())
+					+ length(event.getChildWorkflowExecutionFailedEventAttributes().getDetails());
+		}
+		if (event.getChildWorkflowExecutionCanceledEventAttributes() != null) {
+			return length(event.getChildWorkflowExecutionCanceledEventAttributes().getDetails());
+		}
+		if (event.getSignalExternalWorkflowExecutionInitiatedEventAttributes() != null) {
+			return length(event.getSignalExternalWorkflowExecutionInitiatedEventAttributes().getInput())
+					+ length(event.getSignalExternalWorkflowExecutionInitiatedEventAttributes().getControl());
+		}
+		if (event.getLambdaFunctionScheduledEventAttributes() != null) {
+			return length(event.getLambdaFunctionScheduledEventAttributes().getInput());
+		}
+		if (event.getLambdaFunctionCompletedEventAttributes() != null) {
+			return length(event.getLambdaFunctionCompletedEventAttributes().getResult());
+		}
+		if (event.getLambdaFunctionFailedEventAttributes() != null) {
+			return length(event.getLambdaFunctionFailedEventAttributes().getReason())
+					+ length(event.getLambdaFunctionFailedEventAttributes().getDetails());
+		}
+		return 0;
+	}
+
+	private static int length(final String text) {
+		// a character takes at least a byte in UTF-8
+		return text == null ? 0 : text.length();
+	}
+
+	static byte[] encode(final HistoryEvent event) {
+		try {
+			return WRITER.writeValueAsBytes(event);
+		} catch (final IOException e) {
+			throw new IllegalStateException("cannot encode the history event", e);
+		}
+	}
+
+	static HistoryEvent decode(final ByteBuffer encoded) {
+		try {
+			return READER.readValue(new ByteBufferBackedInputStream(encoded));
+		} catch (final IOException e) {
+			throw new IllegalStateException("cannot decode the history event", e);
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The payloads deserialized during a decision task, by event id, attribute and
+ * target type, so that a payload read by several handlers or several times by
+ * the same handler is only deserialized once.
+ */
+public final class PayloadCache {
+
+	public static final String INPUT = "input";
+	public static final String OUTPUT = "output";
+	public static final String CONTROL = "control";
+	public static final String DETAILS = "details";
+
+	/**
+	 * Stands for the payloads deserialized to null, which a
+	 * {@link ConcurrentHashMap} cannot hold.
+	 */
+	private static final Object NULL = new Object();
+
+	private final Map<Key, Object> payloads = new ConcurrentHashMap<>();
+
+	/**
+	 * @param eventId
+	 *            the id of the event holding the payload
+	 * @param attribute
+	 *            the attribute of the event holding the payload
+	 * @param type
+	 *            the type the payload is deserialized to
+	 * @param deserializer
+	 *            deserialize the payload, when it is not cached yet
+	 * @return the deserialized payload
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(final Long eventId, final String attribute, final Class<T> type,
+			final Supplier<T> deserializer) {
+		final Object payload = this.payloads.computeIfAbsent(new Key(eventId, attribute, type), key -> {
+			final T deserialized = deserializer.get();
+			return deserialized == null ? NULL : deserialized;
+		});
+		return payload == NULL ? null : (T) payload;
+	}
+
+	/**
+	 * @return the number of payloads cached
+	 */
+	public int size() {
+		return this.payloads.size();
+	}
+
+	private static final class Key {
+
+		private final Long eventId;
+		private final String attribute;
+		private final Class<?> type;
+
+		Key(final Long eventId, final String attribute, final Class<?> type) {
+			this.eventId = eventId;
+			this.attribute = attribute;
+			this.type = type;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.eventId, this.attribute, this.type);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return Objects.equals(this.eventId, other.eventId)
+					&& this.attribute.equals(other.attribute)
+					&& this.type == other.type;
+		}
+	}
+}
@@ -2,6 +2,8 @@ package com.solambda.swiffer.api.internal.decisions;
 
 import java.util.List;
 
+import com.amazonaws.services.simpleworkflow.model.EventType;
+
 import com.solambda.swiffer.api.EventHandlerCommonParameter;
 
 @EventHandlerCommonParameter
@@ -24,4 +26,50 @@ public interface WorkflowHistory {
 	 */
 	WorkflowEvent getEventById(Long eventId);
 
+	/**
+	 * @param markerName
+	 *            the name of a marker
+	 * @return the {@link EventType#MarkerRecorded} events of the marker, most
+	 *         recent first
+	 */
+	List<WorkflowEvent> markerEvents(String markerName);
+
+	/**
+	 * @param timerId
+	 *            the id of a timer
+	 * @return the events of the timer, most recent first
+	 */
+	List<WorkflowEvent> timerEvents(String timerId);
+
+	/**
+	 * @param activityId
+	 *            the id of an activity task
+	 * @return the events of the activity tasks with this id, most recent first
+	 */
+	List<WorkflowEvent> activityEvents(String activityId);
+
+	/**
+	 * @param scheduledEventId
+	 *            the id of an {@link EventType#ActivityTaskScheduled} event
+	 * @return the events of the activity task scheduled by this event, most
+	 *         recent first
+	 */
+	List<WorkflowEvent> scheduledActivityEvents(Long scheduledEventId);
+
+	/**
+	 * @param signalName
+	 *            the name of a signal
+	 * @return the {@link EventType#WorkflowExecutionSignaled} events of the
+	 *         signal, most recent first
+	 */
+	List<WorkflowEvent> signalEvents(String signalName);
+
+	/**
+	 * @param workflowId
+	 *            the workflow id of a child workflow execution
+	 * @return the events of the child workflow executions with this id, most
+	 *         recent first
+	 */
+	List<WorkflowEvent> childWorkflowEvents(String workflowId);
+
 }
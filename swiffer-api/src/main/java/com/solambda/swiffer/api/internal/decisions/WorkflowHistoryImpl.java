@@ -1,36 +1,332 @@
 package com.solambda.swiffer.api.internal.decisions;
 
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.amazonaws.services.simpleworkflow.model.EventType;
 import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
 import com.google.common.base.Preconditions;
 
+/**
+ * The history of a workflow execution, stored in arrays indexed by event id.
+ * The {@link WorkflowEvent}s are created when they are accessed.
+ * <p>
+ * The events larger than an optional threshold are stored out of the heap.
+ * They are decoded the first time a history accesses them, and kept with the
+ * history: a history lives for the duration of a decision task.
+ */
 public class WorkflowHistoryImpl implements WorkflowHistory {
 
-	private List<WorkflowEvent> events;
+	private static final EventType[] EVENT_TYPES = EventType.values();
+
+	/**
+	 * The events, shared with the histories extending this one: the events of
+	 * an execution are only appended.
+	 */
+	private final EventStore store;
+	private final int size;
+	private final HistoryIndexes indexes;
+	/**
+	 * The events stored out of the heap decoded by this history, by index.
+	 */
+	private final Map<Integer, WorkflowEvent> decodedEvents = new ConcurrentHashMap<>();
 
 	public WorkflowHistoryImpl(final List<HistoryEvent> events) {
+		this(events, 0);
+	}
+
+	/**
+	 * @param events
+	 *            the events of the history, most recent first
+	 * @param offHeapThreshold
+	 *            the size in bytes from which an event is stored out of the
+	 *            heap, 0 to keep all the events in the heap
+	 */
+	WorkflowHistoryImpl(final List<HistoryEvent> events, final int offHeapThreshold) {
 		super();
 		Preconditions.checkArgument(events != null, "events must not be null");
 		Preconditions.checkArgument(events.size() > 0, "event list is empty");
-		this.events = events.stream()
-				.map(e -> new WorkflowEvent(e, this))
-				.sorted()
-				.collect(Collectors.toList());
-		Long oldestEventId = this.events.get(events.size() - 1).id();
+		this.size = events.size();
+		final HistoryEvent[] eventsById = new HistoryEvent[this.size];
+		long oldestEventId = Long.MAX_VALUE;
+		for (final HistoryEvent event : events) {
+			final long id = event.getEventId();
+			oldestEventId = Math.min(oldestEventId, id);
+			if (id >= 1 && id <= this.size) {
+				eventsById[(int) id - 1] = event;
+			}
+		}
 		Preconditions.checkState(oldestEventId == 1L, "history is not complete ! the oldest event is " + oldestEventId + " but should be 1");
+		for (int i = 0; i < eventsById.length; i++) {
+			if (eventsById[i] == null) {
+				throw new IllegalStateException("history is not complete ! the event " + (i + 1) + " is missing");
+			}
+		}
+		this.store = new EventStore(eventsById, offHeapThreshold > 0 ? new OffHeapEvents(offHeapThreshold) : null);
+		this.indexes = newIndexes();
+	}
+
+	private WorkflowHistoryImpl(final EventStore store, final int size) {
+		super();
+		this.store = store;
+		this.size = size;
+		this.indexes = newIndexes();
+	}
+
+	private HistoryIndexes newIndexes() {
+		return new HistoryIndexes(this, this.size, this::typeOf, id -> historyEvent((int) id - 1));
+	}
+
+	/**
+	 * Extend this history with the events that occurred since. The events of
+	 * this history are shared, not copied nor wrapped again.
+	 *
+	 * @param newerEvents
+	 *            the events fetched since, most recent first, the events
+	 *            already in this history being ignored
+	 * @return the extended history
+	 */
+	WorkflowHistoryImpl extend(final List<HistoryEvent> newerEvents) {
+		if (newerEvents.isEmpty() || newerEvents.get(0).getEventId() <= this.size) {
+			return this;
+		}
+		this.store.append(newerEvents);
+		return new WorkflowHistoryImpl(this.store, newerEvents.get(0).getEventId().intValue());
+	}
+
+	/**
+	 * @return a history of the same events for a decision task, releasing the
+	 *         events it decodes with the task
+	 */
+	WorkflowHistoryImpl forDecisionTask() {
+		return this.store.offHeap == null ? this : new WorkflowHistoryImpl(this.store, this.size);
+	}
+
+	/**
+	 * @return the id of the most recent event of this history
+	 */
+	long newestEventId() {
+		return this.size;
+	}
+
+	/**
+	 * @param eventId
+	 *            the id of an event of this history
+	 * @return the type of the event, without creating its {@link WorkflowEvent}
+	 */
+	EventType typeOf(final long eventId) {
+		checkEventId(eventId);
+		return this.store.type((int) eventId - 1);
 	}
 
 	@Override
 	public List<WorkflowEvent> events() {
-		return events;
+		return new MostRecentFirst();
 	}
 
 	@Override
 	public WorkflowEvent getEventById(final Long id) {
-		Preconditions.checkArgument(id > 0, "cannot get event id " + id);
-		int eventIdToIndex = events.size() - id.intValue();
-		return eventIdToIndex >= 0 && eventIdToIndex < events.size() ? events.get(eventIdToIndex) : null;
+		Preconditions.checkArgument(id > 0, "cannot get event id %s", id);
+		return id <= this.size ? workflowEvent(id.intValue() - 1) : null;
+	}
+
+	private WorkflowEvent workflowEvent(final int index) {
+		if (this.store.isOffHeap(index)) {
+			return this.decodedEvents.computeIfAbsent(index, i -> this.store.workflowEvent(i, this));
+		}
+		return this.store.workflowEvent(index, this);
+	}
+
+	private HistoryEvent historyEvent(final int index) {
+		return this.store.isOffHeap(index) ? workflowEvent(index).historyEvent() : this.store.event(index);
+	}
+
+	@Override
+	public List<WorkflowEvent> markerEvents(final String markerName) {
+		return this.indexes.lookup(HistoryIndex.MARKERS, markerName);
+	}
+
+	@Override
+	public List<WorkflowEvent> timerEvents(final String timerId) {
+		return this.indexes.lookup(HistoryIndex.TIMERS, timerId);
+	}
+
+	@Override
+	public List<WorkflowEvent> activityEvents(final String activityId) {
+		return this.indexes.lookup(HistoryIndex.ACTIVITIES, activityId);
+	}
+
+	@Override
+	public List<WorkflowEvent> scheduledActivityEvents(final Long scheduledEventId) {
+		return this.indexes.lookup(HistoryIndex.SCHEDULED_ACTIVITIES, scheduledEventId);
+	}
+
+	@Override
+	public List<WorkflowEvent> signalEvents(final String signalName) {
+		return this.indexes.lookup(HistoryIndex.SIGNALS, signalName);
+	}
+
+	@Override
+	public List<WorkflowEvent> childWorkflowEvents(final String workflowId) {
+		return this.indexes.lookup(HistoryIndex.CHILD_WORKFLOWS, workflowId);
+	}
+
+	private void checkEventId(final long eventId) {
+		Preconditions.checkArgument(eventId > 0 && eventId <= this.size, "cannot get event id %s", eventId);
+	}
+
+	private class MostRecentFirst extends AbstractList<WorkflowEvent> implements RandomAccess {
+
+		@Override
+		public WorkflowEvent get(final int index) {
+			Preconditions.checkElementIndex(index, WorkflowHistoryImpl.this.size);
+			return workflowEvent(WorkflowHistoryImpl.this.size - 1 - index);
+		}
+
+		@Override
+		public int size() {
+			return WorkflowHistoryImpl.this.size;
+		}
+	}
+
+	/**
+	 * The events of an execution indexed by id - 1, with their type and their
+	 * {@link WorkflowEvent} once computed.
+	 * <p>
+	 * The events stored out of the heap have their type computed when they are
+	 * stored, and their {@link WorkflowEvent} is not kept.
+	 * <p>
+	 * A history only reads the indexes below its size, written before it was
+	 * created: the arrays are only replaced, when they grow, and their
+	 * {@link WorkflowEvent}s created, while holding the lock of the store.
+	 */
+	private static final class EventStore {
+
+		private volatile HistoryEvent[] events;
+		/**
+		 * The ordinal of the type of each event plus one, 0 if not computed
+		 * yet.
+		 */
+		private volatile byte[] types;
+		private volatile WorkflowEvent[] workflowEvents;
+		private final OffHeapEvents offHeap;
+		/**
+		 * The location of the events stored out of the heap, whose slot in
+		 * {@link #events} is null, or null if all the events are in the heap.
+		 */
+		private volatile ByteBuffer[] offHeapEvents;
+		private int count;
+
+		EventStore(final HistoryEvent[] events, final OffHeapEvents offHeap) {
+			this.events = events;
+			this.types = new byte[events.length];
+			this.workflowEvents = new WorkflowEvent[events.length];
+			this.offHeap = offHeap;
+			this.offHeapEvents = offHeap == null ? null : new ByteBuffer[events.length];
+			this.count = events.length;
+			for (int index = 0; index < events.length; index++) {
+				moveOffHeap(index);
+			}
+		}
+
+		boolean isOffHeap(final int index) {
+			return this.events[index] == null;
+		}
+
+		HistoryEvent event(final int index) {
+			final HistoryEvent event = this.events[index];
+			return event != null ? event : this.offHeap.load(this.offHeapEvents[index]);
+		}
+
+		/**
+		 * Store the event out of the heap if it is large enough.
+		 */
+		private void moveOffHeap(final int index) {
+			if (this.offHeap == null) {
+				return;
+			}
+			final HistoryEvent event = this.events[index];
+			final ByteBuffer location = this.offHeap.store(event);
+			if (location != null) {
+				this.types[index] = (byte) (WorkflowEvent.typeOf(event).ordinal() + 1);
+				this.offHeapEvents[index] = location;
+				this.events[index] = null;
+			}
+		}
+
+		EventType type(final int index) {
+			final byte[] types = this.types;
+			int ordinal = types[index] - 1;
+			if (ordinal < 0) {
+				// racing threads compute the same value
+				ordinal = WorkflowEvent.typeOf(this.events[index]).ordinal();
+				types[index] = (byte) (ordinal + 1);
+			}
+			return EVENT_TYPES[ordinal];
+		}
+
+		/**
+		 * @return the type of the event if already computed, null otherwise
+		 */
+		private EventType knownType(final int index) {
+			final int ordinal = this.types[index] - 1;
+			return ordinal < 0 ? null : EVENT_TYPES[ordinal];
+		}
+
+		WorkflowEvent workflowEvent(final int index, final WorkflowHistory history) {
+			final WorkflowEvent workflowEvent = this.workflowEvents[index];
+			if (workflowEvent != null) {
+				return workflowEvent;
+			}
+			if (this.events[index] == null) {
+				return new WorkflowEvent(event(index), history, knownType(index));
+			}
+			synchronized (this) {
+				// the history of the event only resolves older events: any
+				// history containing the event will do
+				WorkflowEvent created = this.workflowEvents[index];
+				if (created == null) {
+					created = new WorkflowEvent(this.events[index], history, knownType(index));
+					this.workflowEvents[index] = created;
+				}
+				return created;
+			}
+		}
+
+		/**
+		 * @param newerEvents
+		 *            events most recent first, the events already stored being
+		 *            ignored
+		 */
+		synchronized void append(final List<HistoryEvent> newerEvents) {
+			final int newCount = Math.max(this.count, newerEvents.get(0).getEventId().intValue());
+			if (newCount > this.events.length) {
+				final int capacity = Math.max(newCount, this.events.length + (this.events.length >> 1));
+				this.events = Arrays.copyOf(this.events, capacity);
+				this.types = Arrays.copyOf(this.types, capacity);
+				this.workflowEvents = Arrays.copyOf(this.workflowEvents, capacity);
+				if (this.offHeapEvents != null) {
+					this.offHeapEvents = Arrays.copyOf(this.offHeapEvents, capacity);
+				}
+			}
+			for (final HistoryEvent event : newerEvents) {
+				final int index = event.getEventId().intValue() - 1;
+				if (index >= this.count && index < newCount) {
+					this.events[index] = event;
+				}
+			}
+			for (int index = this.count; index < newCount; index++) {
+				if (this.events[index] == null) {
+					throw new IllegalStateException("history is not complete ! the event " + (index + 1) + " is missing");
+				}
+				moveOffHeap(index);
+			}
+			this.count = newCount;
+		}
 	}
 }
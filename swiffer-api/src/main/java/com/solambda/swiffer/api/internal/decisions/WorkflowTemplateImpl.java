@@ -1,16 +1,21 @@
 package com.solambda.swiffer.api.internal.decisions;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.services.simpleworkflow.model.ActivityType;
 import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.WorkflowType;
 import com.solambda.swiffer.api.Decisions;
 import com.solambda.swiffer.api.duration.DurationTransformer;
 import com.solambda.swiffer.api.internal.VersionedName;
-import com.solambda.swiffer.api.internal.events.HasCause;
-import com.solambda.swiffer.api.internal.events.HasTimerId;
+import com.solambda.swiffer.api.internal.events.EventCategory;
 import com.solambda.swiffer.api.mapper.DataMapper;
 import com.solambda.swiffer.api.retry.RetryPolicy;
 
@@ -46,25 +51,87 @@ public class WorkflowTemplateImpl implements WorkflowTemplate {
 		final Decisions decisions = new DecisionsImpl(dataMapper, durationTransformer, globalRetryPolicy);
 		final List<WorkflowEvent> newEvents = decisionContext.newEvents();
 		LOGGER.debug("processing {} new events", newEvents.size());
+		Map<BatchEventHandler, List<WorkflowEvent>> batches = null;
 		for (final WorkflowEvent event : newEvents) {
 			LOGGER.debug("processing new event {}", event);
-			final EventContext eventContext = new EventContextImpl(decisionContext, event);
-			final EventHandlerType eventType = new EventHandlerType(eventContext.event().type(), eventContext.name());
 			// in some case, we can warn the user if there is no event handler
 			// for that event type
-			final EventHandler eventHandler = this.eventHandlerRegistry.get(eventType);
-			processEventHandler(eventHandler, eventContext, decisions);
+			final EventHandler eventHandler = eventHandlerOf(event);
+			if (eventHandler instanceof BatchEventHandler) {
+				if (batches == null) {
+					batches = new LinkedHashMap<>();
+				}
+				batches.computeIfAbsent((BatchEventHandler) eventHandler, h -> new ArrayList<>()).add(event);
+			} else {
+				processEventHandler(eventHandler, decisionContext, event, decisions);
+			}
+		}
+		if (batches != null) {
+			processBatchEventHandlers(batches, decisionContext, decisions);
 		}
 		return decisions;
 	}
 
-	private void processEventHandler(final EventHandler eventHandler, final EventContext eventContext,
-			final Decisions decisions) throws DecisionTaskExecutionException {
+	/**
+	 * Invoke each batch handler once with its events, after the handlers of
+	 * the single events, in the order of their first event.
+	 */
+	private void processBatchEventHandlers(final Map<BatchEventHandler, List<WorkflowEvent>> batches,
+			final DecisionTaskContext decisionContext, final Decisions decisions)
+			throws DecisionTaskExecutionException {
+		for (final Entry<BatchEventHandler, List<WorkflowEvent>> batch : batches.entrySet()) {
+			LOGGER.debug("processing {} new events of {}", batch.getValue().size(),
+					batch.getKey().getEventHandlerType());
+			batch.getKey().handleEvents(decisionContext, batch.getValue(), decisions);
+		}
+	}
+
+	/**
+	 * Look up the handler of an event in the dispatch table of the registry,
+	 * reading the name of its context from the raw attributes of the event.
+	 * <p>
+	 * The decision tasks of a template are all of its workflow type, which
+	 * names the context of the workflow and decision events.
+	 *
+	 * @return the handler of the event, or null if the template does not
+	 *         handle it
+	 */
+	EventHandler eventHandlerOf(final WorkflowEvent event) {
+		final EventType type = event.type();
+		final EventCategory category = event.category();
+		switch (category) {
+			case ACTIVITY:
+				final ActivityType activityType = event.activityTypeAttribute();
+				return activityType == null
+						? this.eventHandlerRegistry.get(type, null, null)
+						: this.eventHandlerRegistry.get(type, activityType.getName(), activityType.getVersion());
+			case SIGNAL:
+				return this.eventHandlerRegistry.get(type, event.signalName(), null);
+			case MARKER:
+				return this.eventHandlerRegistry.get(type, event.markerName(), null);
+			case TIMER:
+				return this.eventHandlerRegistry.get(type, event.timerId(), null);
+			case DECISION:
+			case WORKFLOW_EXECUTION:
+			case CANCEL_EXTERNAL_WORKFLOW:
+				return this.eventHandlerRegistry.get(type, this.workflowType.name(), this.workflowType.version());
+			case CHILD_WORKFLOW:
+				final WorkflowType childWorkflowType = event.childWorkflowType();
+				return this.eventHandlerRegistry.get(type, childWorkflowType.getName(), childWorkflowType.getVersion());
+			case LAMBDA://
+			case SIGNAL_EXTERNAL_WORKFLOW:// signal + wfType(hard) ?
+			default:
+				throw new IllegalArgumentException("cannot handle category id for " + category);
+		}
+	}
+
+	private void processEventHandler(final EventHandler eventHandler, final DecisionTaskContext decisionContext,
+			final WorkflowEvent event, final Decisions decisions) throws DecisionTaskExecutionException {
  		if (eventHandler == null) {
-			doDefaultEventHandler(eventContext, decisions);
+			doDefaultEventHandler(decisionContext, event, decisions);
 		} else {
 			try {
-				eventHandler.handleEvent(eventContext, decisions);
+				eventHandler.handleEvent(new EventContextImpl(decisionContext, event), decisions);
 			} catch (final DecisionTaskExecutionException e) {
 				// TODO let's make the failing behavior configurable by the
 				// a failure here should
@@ -78,8 +145,9 @@ public class WorkflowTemplateImpl implements WorkflowTemplate {
 		}
 	}
 
-	private void doDefaultEventHandler(final EventContext eventContext, Decisions decisions) throws DecisionTaskExecutionException {
-        EventType type = eventContext.event().type();
+	private void doDefaultEventHandler(final DecisionTaskContext decisionContext, final WorkflowEvent event,
+			Decisions decisions) throws DecisionTaskExecutionException {
+        EventType type = event.type();
         EventHandler eventHandler = null;
         switch (type) {
             case ActivityTaskFailed:
@@ -89,27 +157,26 @@ public class WorkflowTemplateImpl implements WorkflowTemplate {
                 eventHandler = eventHandlerRegistry.getDefaultTimedOutActivityHandler();
                 break;
             case TimerFired:
-                String timerId = ((HasTimerId) eventContext).timerId();
-                eventHandler = eventHandlerRegistry.getDefaultRetryTimerFiredHandler(timerId);
+                eventHandler = eventHandlerRegistry.getDefaultRetryTimerFiredHandler(event.timerId());
                 break;
 			case CompleteWorkflowExecutionFailed:
-				eventHandler = eventHandlerRegistry.getDefaultCompleteWorkflowExecutionFailedHandler(((HasCause)eventContext).cause());
+				eventHandler = eventHandlerRegistry.getDefaultCompleteWorkflowExecutionFailedHandler(event.cause());
 				break;
 			case CancelWorkflowExecutionFailed:
-				eventHandler = eventHandlerRegistry.getDefaultCancelWorkflowExecutionFailedHandler(((HasCause)eventContext).cause());
+				eventHandler = eventHandlerRegistry.getDefaultCancelWorkflowExecutionFailedHandler(event.cause());
 				break;
 			case FailWorkflowExecutionFailed:
-				eventHandler = eventHandlerRegistry.getDefaultFailWorkflowExecutionFailedHandler(((HasCause)eventContext).cause());
+				eventHandler = eventHandlerRegistry.getDefaultFailWorkflowExecutionFailedHandler(event.cause());
 				break;
 			case ContinueAsNewWorkflowExecutionFailed:
-				eventHandler = eventHandlerRegistry.getDefaultContinueAsNewWorkflowExecutionFailedHandler(((HasCause)eventContext).cause());
+				eventHandler = eventHandlerRegistry.getDefaultContinueAsNewWorkflowExecutionFailedHandler(event.cause());
 				break;
         }
         if (eventHandler != null) {
-            eventHandler.handleEvent(eventContext, decisions);
+            eventHandler.handleEvent(new EventContextImpl(decisionContext, event), decisions);
         } else {
             // do
-            LOGGER.debug("no event handler defined for {}", eventContext.event());
+            LOGGER.debug("no event handler defined for {}", event);
         }
     }
 
@@ -0,0 +1,47 @@
+package com.solambda.swiffer.api.internal.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to the virtual threads of Java 21+ while the library is compiled for
+ * Java 8: the executor factory is looked up at runtime.
+ */
+public class VirtualThreads {
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactoryMethod();
+
+	private static Method findFactoryMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if the running JVM supports virtual threads
+	 */
+	public static boolean isAvailable() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * @return a new executor that starts a new virtual thread for each task
+	 * @throws IllegalStateException
+	 *             if the running JVM does not support virtual threads
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (!isAvailable()) {
+			throw new IllegalStateException("Virtual threads are not supported by this JVM (Java "
+					+ System.getProperty("java.version") + "), Java 21 or later is required");
+		}
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+		} catch (final IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("Cannot create a virtual thread executor", e);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.solambda.swiffer.api.mapper;
 
+import java.util.function.Function;
+
 import com.solambda.swiffer.api.Input;
 import com.solambda.swiffer.api.Output;
 
@@ -24,4 +26,15 @@ public interface DataMapper {
      * @return object from {@code content}, or {@code null} if {@code content} is {@code null}
      */
     <T> T deserialize(String content, Class<?> objectType);
+
+    /**
+     * Resolve once how to deserialize {@link String}s to the objects of specified class, for the contents
+     * deserialized many times to the same class, like the parameters of the event handlers.
+     *
+     * @param objectType class of the result objects
+     * @return a function deserializing a content as {@link #deserialize(String, Class)} does
+     */
+    default <T> Function<String, T> deserializer(Class<?> objectType) {
+        return content -> deserialize(content, objectType);
+    }
 }
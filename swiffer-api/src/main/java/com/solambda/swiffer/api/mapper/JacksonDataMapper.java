@@ -1,9 +1,11 @@
 package com.solambda.swiffer.api.mapper;
 
 import java.io.IOException;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
@@ -45,4 +47,19 @@ public class JacksonDataMapper implements DataMapper {
             throw new DataMapperException(e);
         }
     }
+
+    @Override
+    public <T> Function<String, T> deserializer(Class<?> objectType) {
+        final ObjectReader reader = mapper.readerFor(mapper.constructType(objectType));
+        return content -> {
+            if (content == null) {
+                return null;
+            }
+            try {
+                return reader.readValue(content);
+            } catch (IOException e) {
+                throw new DataMapperException(e);
+            }
+        };
+    }
 }
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,8 +14,15 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.assertj.core.groups.Tuple;
 import org.junit.After;
@@ -26,10 +34,16 @@ import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
 import com.amazonaws.services.simpleworkflow.model.ChildPolicy;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.GetWorkflowExecutionHistoryRequest;
+import com.amazonaws.services.simpleworkflow.model.History;
 import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
 import com.amazonaws.services.simpleworkflow.model.Run;
 import com.amazonaws.services.simpleworkflow.model.StartWorkflowExecutionRequest;
 import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecutionInfo;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecutionInfos;
+import com.google.common.util.concurrent.RateLimiter;
 import com.solambda.swiffer.test.Tests;
 
 public class SwifferTest {
@@ -98,6 +112,129 @@ public class SwifferTest {
 
 	}
 
+	@Test
+	public void streamWorkflowExecutionHistory_fetchesThePagesOnDemand() throws Exception {
+		final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+		when(swf.getWorkflowExecutionHistory(any()))
+				.thenReturn(new History().withNextPageToken("page2").withEvents(
+						event(4, EventType.WorkflowExecutionSignaled),
+						event(3, EventType.DecisionTaskCompleted)))
+				.thenReturn(new History().withEvents(
+						event(2, EventType.DecisionTaskScheduled),
+						event(1, EventType.WorkflowExecutionStarted)));
+		final Swiffer swiffer = new Swiffer(swf, Tests.DOMAIN);
+
+		final Optional<HistoryEvent> signal = swiffer
+				.streamWorkflowExecutionHistory("wf-1", "run-1", EventType.WorkflowExecutionSignaled)
+				.findFirst();
+
+		assertThat(signal.get().getEventId()).isEqualTo(4L);
+		verify(swf, times(1)).getWorkflowExecutionHistory(any());
+	}
+
+	@Test
+	public void streamWorkflowExecutionHistory_filtersTheEventTypes() throws Exception {
+		final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+		when(swf.getWorkflowExecutionHistory(any()))
+				.thenReturn(new History().withNextPageToken("page2").withEvents(
+						event(1, EventType.WorkflowExecutionStarted),
+						event(2, EventType.DecisionTaskScheduled)))
+				.thenReturn(new History().withEvents(
+						event(3, EventType.WorkflowExecutionSignaled)));
+		final Swiffer swiffer = new Swiffer(swf, Tests.DOMAIN);
+
+		final List<HistoryEvent> events = swiffer.streamWorkflowExecutionHistory("wf-1", "run-1", false,
+				EventType.WorkflowExecutionStarted, EventType.WorkflowExecutionSignaled)
+				.collect(Collectors.toList());
+
+		assertThat(events).extracting(HistoryEvent::getEventId).containsExactly(1L, 3L);
+		final ArgumentCaptor<GetWorkflowExecutionHistoryRequest> captor = ArgumentCaptor
+				.forClass(GetWorkflowExecutionHistoryRequest.class);
+		verify(swf, times(2)).getWorkflowExecutionHistory(captor.capture());
+		assertThat(captor.getAllValues()).extracting(GetWorkflowExecutionHistoryRequest::getNextPageToken)
+				.containsExactly(null, "page2");
+		assertThat(captor.getAllValues()).extracting(GetWorkflowExecutionHistoryRequest::getReverseOrder)
+				.containsOnly(false);
+	}
+
+	@Test
+	public void exportWorkflowExecutionHistories_fetchesTheHistoriesInParallel() throws Exception {
+		final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+		final AtomicInteger fetching = new AtomicInteger();
+		final AtomicInteger maxFetching = new AtomicInteger();
+		when(swf.getWorkflowExecutionHistory(any())).then(invocation -> {
+			final GetWorkflowExecutionHistoryRequest request = invocation.getArgument(0);
+			maxFetching.accumulateAndGet(fetching.incrementAndGet(), Math::max);
+			Tests.sleep(Duration.ofMillis(50));
+			fetching.decrementAndGet();
+			if (request.getExecution().getWorkflowId().equals("failing")) {
+				throw new IllegalStateException("exception for testing");
+			}
+			return new History().withEvents(event(1, EventType.WorkflowExecutionStarted));
+		});
+		final Swiffer swiffer = new Swiffer(swf, Tests.DOMAIN);
+		final List<WorkflowExecution> executions = Stream.of("wf-1", "wf-2", "failing", "wf-3", "wf-4")
+				.map(id -> new WorkflowExecution().withWorkflowId(id).withRunId("run"))
+				.collect(Collectors.toList());
+		final Map<WorkflowExecution, List<HistoryEvent>> exported = new ConcurrentHashMap<>();
+
+		final Map<WorkflowExecution, Exception> failures = swiffer.exportWorkflowExecutionHistories(executions, 2, 1000,
+				exported::put);
+
+		assertThat(exported).hasSize(4).doesNotContainKey(executions.get(2));
+		assertThat(failures).containsOnlyKeys(executions.get(2));
+		assertThat(maxFetching.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void exportOpenWorkflowExecutionHistories_limitsTheRateOfRequests() throws Exception {
+		final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+		when(swf.listOpenWorkflowExecutions(any())).thenReturn(new WorkflowExecutionInfos().withExecutionInfos(
+				Stream.of("wf-1", "wf-2", "wf-3", "wf-4")
+						.map(id -> new WorkflowExecutionInfo()
+								.withExecution(new WorkflowExecution().withWorkflowId(id).withRunId("run")))
+						.collect(Collectors.toList())));
+		when(swf.getWorkflowExecutionHistory(any()))
+				.thenReturn(new History().withEvents(event(1, EventType.WorkflowExecutionStarted)));
+		final Swiffer swiffer = new Swiffer(swf, Tests.DOMAIN);
+		final RateLimiter rateLimiter = mock(RateLimiter.class);
+		final List<WorkflowExecution> exported = Collections.synchronizedList(new ArrayList<>());
+
+		swiffer.exportOpenWorkflowExecutionHistories(ZonedDateTime.now().minusDays(1), 4, rateLimiter,
+				(execution, events) -> exported.add(execution));
+
+		// 1 listing request and 4 history requests
+		verify(rateLimiter, times(5)).acquire();
+		assertThat(exported).extracting(WorkflowExecution::getWorkflowId)
+				.containsOnly("wf-1", "wf-2", "wf-3", "wf-4");
+	}
+
+	@Test
+	public void exportOpenWorkflowExecutionHistories_completesTheExportsInProgressWhenTheListingFails() throws Exception {
+		final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+		final IllegalStateException listingFailure = new IllegalStateException("exception for testing");
+		when(swf.listOpenWorkflowExecutions(any()))
+				.thenReturn(new WorkflowExecutionInfos().withNextPageToken("page-2").withExecutionInfos(
+						Stream.of("wf-1", "wf-2")
+								.map(id -> new WorkflowExecutionInfo()
+										.withExecution(new WorkflowExecution().withWorkflowId(id).withRunId("run")))
+								.collect(Collectors.toList())))
+				.thenThrow(listingFailure);
+		when(swf.getWorkflowExecutionHistory(any())).then(invocation -> {
+			Tests.sleep(Duration.ofMillis(100));
+			return new History().withEvents(event(1, EventType.WorkflowExecutionStarted));
+		});
+		final Swiffer swiffer = new Swiffer(swf, Tests.DOMAIN);
+		final List<WorkflowExecution> exported = Collections.synchronizedList(new ArrayList<>());
+
+		final Map<WorkflowExecution, Exception> failures = swiffer.exportOpenWorkflowExecutionHistories(
+				ZonedDateTime.now().minusDays(1), 2, 1000, (execution, events) -> exported.add(execution));
+
+		assertThat(failures).containsOnlyKeys(new WorkflowExecution());
+		assertThat(failures.get(new WorkflowExecution())).isSameAs(listingFailure);
+		assertThat(exported).extracting(WorkflowExecution::getWorkflowId).containsOnly("wf-1", "wf-2");
+	}
+
 	/**
 	 * Set to ignore because it takes too long to execute.
 	 */
@@ -179,6 +316,10 @@ public class SwifferTest {
 		}
 	}
 
+	private static HistoryEvent event(long id, EventType type) {
+		return new HistoryEvent().withEventId(id).withEventType(type);
+	}
+
 	private void startWorker(Swiffer swiffer ){
 		worker = swiffer.newWorkerBuilder()
 								 .taskList("default")
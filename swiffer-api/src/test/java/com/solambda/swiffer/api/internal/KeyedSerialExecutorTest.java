@@ -0,0 +1,114 @@
+package com.solambda.swiffer.api.internal;
+
+import static com.solambda.swiffer.test.Tests.sleep;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class KeyedSerialExecutorTest {
+
+	private final ExecutorService pool = Executors.newFixedThreadPool(4);
+	private final KeyedSerialExecutor executor = new KeyedSerialExecutor(this.pool);
+
+	@After
+	public void shutdown() {
+		this.pool.shutdownNow();
+	}
+
+	@Test
+	public void tasksOfTheSameKeyAreExecutedOneAtATimeInOrder() throws Exception {
+		// GIVEN
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final List<Integer> executionOrder = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> last = null;
+		// WHEN
+		for (int i = 0; i < 5; i++) {
+			final int index = i;
+			last = this.executor.submit("key", () -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(Duration.ofMillis(20));
+				executionOrder.add(index);
+				running.decrementAndGet();
+			});
+		}
+		last.get(2, TimeUnit.SECONDS);
+		// THEN
+		assertThat(maxRunning.get()).isEqualTo(1);
+		assertThat(executionOrder).containsExactly(0, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void tasksOfDifferentKeysAreExecutedInParallel() throws Exception {
+		// GIVEN a task blocked for key1
+		final CountDownLatch latch = new CountDownLatch(1);
+		final CompletableFuture<Void> blocked = this.executor.submit("key1", () -> {
+			try {
+				latch.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		// WHEN
+		final CompletableFuture<Void> other = this.executor.submit("key2", () -> {
+		});
+		// THEN
+		other.get(1, TimeUnit.SECONDS);
+		assertThat(blocked.isDone()).isFalse();
+		latch.countDown();
+		blocked.get(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void aFailingTaskDoesNotPreventTheNextTasksOfTheSameKey() throws Exception {
+		// GIVEN
+		this.executor.submit("key", () -> {
+			throw new IllegalStateException("failure for testing");
+		});
+		// WHEN
+		final AtomicInteger executed = new AtomicInteger();
+		this.executor.submit("key", () -> executed.incrementAndGet()).get(1, TimeUnit.SECONDS);
+		// THEN
+		assertThat(executed.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void theNextTaskOfTheSameKeyWaitsForAllTheStagesOnOtherExecutors() throws Exception {
+		// GIVEN a task whose second stage runs on another executor
+		final ExecutorService otherStage = Executors.newSingleThreadExecutor();
+		final List<String> executionOrder = new CopyOnWriteArrayList<>();
+		try {
+			this.executor.submit("key", previous -> previous
+					.thenRunAsync(() -> executionOrder.add("first-stage1"), this.pool)
+					.thenRunAsync(() -> {
+						sleep(Duration.ofMillis(50));
+						executionOrder.add("first-stage2");
+					}, otherStage));
+			// WHEN
+			this.executor.submit("key", () -> executionOrder.add("second")).get(1, TimeUnit.SECONDS);
+			// THEN
+			assertThat(executionOrder).containsExactly("first-stage1", "first-stage2", "second");
+		} finally {
+			otherStage.shutdownNow();
+		}
+	}
+
+	@Test
+	public void keysAreForgottenOnceTheirTasksAreDone() throws Exception {
+		this.executor.submit("key", () -> {
+		}).get(1, TimeUnit.SECONDS);
+		sleep(Duration.ofMillis(50));
+		assertThat(this.executor.pendingKeys()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,147 @@
+package com.solambda.swiffer.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class MethodInvokerTest {
+
+	@Test
+	public void invoke_returnsTheResultOfTheMethod() throws Exception {
+		final MethodInvoker invoker = invoker("concat", String.class, int.class);
+
+		assertThat(invoker.invoke("a", 1)).isEqualTo("a1");
+	}
+
+	@Test
+	public void invoke_returnsNullForVoidMethods() throws Exception {
+		final MethodInvoker invoker = invoker("doNothing");
+
+		assertThat(invoker.invoke()).isNull();
+		assertThat(invoker.invoke((Object[]) null)).isNull();
+	}
+
+	@Test
+	public void invoke_wrapsTheExceptionsThrownByTheMethod() throws Exception {
+		final MethodInvoker invoker = invoker("fail", RuntimeException.class);
+		final IllegalArgumentException failure = new IllegalArgumentException("failure");
+
+		assertThatExceptionOfType(InvocationTargetException.class)
+				.isThrownBy(() -> invoker.invoke(failure))
+				.matches(e -> e.getTargetException() == failure);
+	}
+
+	@Test
+	public void invoke_widensThePrimitiveArguments() throws Exception {
+		final MethodInvoker invoker = invoker("add", long.class, double.class);
+
+		assertThat(invoker.invoke(1, 2.5)).isEqualTo(3.5);
+		assertThat(invoker.invoke(Integer.valueOf(1), Float.valueOf(2))).isEqualTo(3.0);
+		assertThat(invoker.invoke('a', (short) 1)).isEqualTo(98.0);
+	}
+
+	@Test
+	public void invoke_failsWhenTheArgumentsDoNotMatchTheParameters() throws Exception {
+		final MethodInvoker invoker = invoker("concat", String.class, int.class);
+
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> invoker.invoke("a"));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> invoker.invoke(1, "a"));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> invoker.invoke("a", null));
+	}
+
+	@Test
+	public void invoke_callsTheMethodsOfTheClassesOfAChildClassLoader() throws Exception {
+		// as in the application servers, the template and its parameters are
+		// loaded by a child of the class loader of the library
+		final ClassLoader childClassLoader = new ChildFirstClassLoader(MethodInvokerTest.class.getClassLoader());
+		final Class<?> targetClass = childClassLoader.loadClass(ChildTarget.class.getName());
+		final Class<?> payloadClass = childClassLoader.loadClass(ChildPayload.class.getName());
+		assertThat(targetClass).isNotSameAs(ChildTarget.class);
+		final Method method = targetClass.getMethod("greet", payloadClass);
+		final Object payload = payloadClass.getConstructor(String.class).newInstance("world");
+
+		final MethodInvoker invoker = new MethodInvoker(targetClass.newInstance(), method);
+
+		assertThat(invoker.invoke(payload)).isEqualTo("hello world");
+	}
+
+	private static MethodInvoker invoker(final String name, final Class<?>... parameterTypes) throws Exception {
+		return new MethodInvoker(new Target(), Target.class.getMethod(name, parameterTypes));
+	}
+
+	public static class Target {
+
+		public String concat(final String string, final int number) {
+			return string + number;
+		}
+
+		public double add(final long integer, final double decimal) {
+			return integer + decimal;
+		}
+
+		public void doNothing() {
+		}
+
+		public void fail(final RuntimeException failure) {
+			throw failure;
+		}
+	}
+
+	public static class ChildTarget {
+
+		public String greet(final ChildPayload payload) {
+			return "hello " + payload.name;
+		}
+	}
+
+	public static class ChildPayload {
+
+		private final String name;
+
+		public ChildPayload(final String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * Define the child classes of this test itself, rather than delegating to
+	 * its parent.
+	 */
+	private static final class ChildFirstClassLoader extends ClassLoader {
+
+		private static final String CHILD_CLASS_PREFIX = MethodInvokerTest.class.getName() + "$Child";
+
+		ChildFirstClassLoader(final ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith(CHILD_CLASS_PREFIX)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				final Class<?> loaded = findLoadedClass(name);
+				return loaded != null ? loaded : findClass(name);
+			}
+		}
+
+		@Override
+		protected Class<?> findClass(final String name) throws ClassNotFoundException {
+			try (InputStream classFile = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+				final byte[] bytes = ByteStreams.toByteArray(classFile);
+				return defineClass(name, bytes, 0, bytes.length);
+			} catch (final IOException e) {
+				throw new ClassNotFoundException(name, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.solambda.swiffer.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+public class PollerAutoscalerTest {
+
+	private static final Duration INTERVAL = Duration.ofMinutes(1);
+
+	@Test
+	public void aPollerIsAddedWhilePollsReturnTasks() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, null, INTERVAL);
+		for (int i = 0; i < 10; i++) {
+			autoscaler.pollCompleted(true);
+		}
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(3);
+	}
+
+	@Test
+	public void aPollerIsAddedWhileTasksArePending() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, () -> 12, INTERVAL);
+		autoscaler.pollCompleted(false);
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(3);
+	}
+
+	@Test
+	public void noPollerIsAddedWhileTheExecutionSlotsAreExhausted() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, () -> 12, INTERVAL);
+		for (int i = 0; i < 10; i++) {
+			autoscaler.pollCompleted(true);
+		}
+		autoscaler.executionSlotsExhausted();
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(2);
+		// the waits are forgotten after each adjustment
+		autoscaler.pollCompleted(true);
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(3);
+	}
+
+	@Test
+	public void aPollerIsRemovedWhilePollsComeBackEmpty() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, () -> 0, INTERVAL);
+		for (int i = 0; i < 10; i++) {
+			autoscaler.pollCompleted(false);
+		}
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(1);
+	}
+
+	@Test
+	public void thePollersAreUnchangedWithAMixOfTasksAndEmptyPolls() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, () -> 0, INTERVAL);
+		autoscaler.pollCompleted(true);
+		autoscaler.pollCompleted(false);
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(2);
+	}
+
+	@Test
+	public void thePollersAreUnchangedWhenNoPollCompleted() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, null, INTERVAL);
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(2);
+	}
+
+	@Test
+	public void thePollersStayWithinTheBounds() {
+		final PollerAutoscaler busy = new PollerAutoscaler(2, 3, () -> 12, INTERVAL);
+		assertThat(busy.nextPollerCount(3)).isEqualTo(3);
+		final PollerAutoscaler idle = new PollerAutoscaler(2, 3, () -> 0, INTERVAL);
+		idle.pollCompleted(false);
+		assertThat(idle.nextPollerCount(2)).isEqualTo(2);
+	}
+
+	@Test
+	public void aFailureToCountThePendingTasksIsIgnored() {
+		final PollerAutoscaler autoscaler = new PollerAutoscaler(1, 4, () -> {
+			throw new IllegalStateException("failure for testing");
+		}, INTERVAL);
+		autoscaler.pollCompleted(true);
+		assertThat(autoscaler.nextPollerCount(2)).isEqualTo(3);
+	}
+
+}
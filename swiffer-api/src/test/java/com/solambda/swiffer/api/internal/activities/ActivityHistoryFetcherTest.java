@@ -0,0 +1,121 @@
+package com.solambda.swiffer.api.internal.activities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.GetWorkflowExecutionHistoryRequest;
+import com.amazonaws.services.simpleworkflow.model.History;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.solambda.swiffer.api.internal.decisions.ExecutionHistoryCache;
+import com.solambda.swiffer.api.internal.decisions.WorkflowHistory;
+
+public class ActivityHistoryFetcherTest {
+
+	private static final String DOMAIN = "domain";
+	private static final WorkflowExecution EXECUTION = new WorkflowExecution().withWorkflowId("id").withRunId("run");
+
+	private final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+
+	@Test
+	public void history_fetchesTheNewEventsOnly() throws Exception {
+		// GIVEN a history of 4 events in 2 pages, then 2 new events
+		when(this.swf.getWorkflowExecutionHistory(any()))
+				.thenReturn(page(4, 3, "page2"))
+				.thenReturn(page(2, 1, null))
+				.thenReturn(page(6, 5, "page2"));
+		final ActivityHistoryFetcher fetcher = newFetcher(Duration.ofSeconds(1));
+		// WHEN the history is fetched twice
+		fetcher.history(EXECUTION, 4L);
+		final WorkflowHistory history = fetcher.history(EXECUTION, 6L);
+		// THEN the older pages are not fetched again
+		assertThat(history.events()).hasSize(6);
+		final ArgumentCaptor<GetWorkflowExecutionHistoryRequest> requests = ArgumentCaptor
+				.forClass(GetWorkflowExecutionHistoryRequest.class);
+		verify(this.swf, times(3)).getWorkflowExecutionHistory(requests.capture());
+		assertThat(requests.getAllValues()).extracting(GetWorkflowExecutionHistoryRequest::getDomain)
+				.containsOnly(DOMAIN);
+	}
+
+	@Test
+	public void history_sharesTheFetchInProgress() throws Exception {
+		// GIVEN a fetch blocked until released
+		final CountDownLatch fetching = new CountDownLatch(1);
+		final CountDownLatch released = new CountDownLatch(1);
+		when(this.swf.getWorkflowExecutionHistory(any())).then(invocation -> {
+			fetching.countDown();
+			released.await();
+			return page(2, 1, null);
+		});
+		final ActivityHistoryFetcher fetcher = newFetcher(Duration.ofSeconds(1));
+		final List<WorkflowHistory> histories = new CopyOnWriteArrayList<>();
+		final Thread first = new Thread(() -> histories.add(fetcher.history(EXECUTION, 2L)));
+		final Thread second = new Thread(() -> histories.add(fetcher.history(EXECUTION, 2L)));
+		// WHEN a second task asks for the history while it is fetched
+		first.start();
+		fetching.await();
+		second.start();
+		while (second.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		released.countDown();
+		first.join();
+		second.join();
+		// THEN the history is fetched once for both tasks
+		verify(this.swf, times(1)).getWorkflowExecutionHistory(any());
+		assertThat(histories).hasSize(2);
+		assertThat(histories.get(0)).isSameAs(histories.get(1));
+	}
+
+	@Test
+	public void history_waitsForTheStartedEvent() throws Exception {
+		// GIVEN the started event of the task is recorded after the first fetch
+		when(this.swf.getWorkflowExecutionHistory(any()))
+				.thenReturn(page(2, 1, null))
+				.thenReturn(page(3, 1, null));
+		final ActivityHistoryFetcher fetcher = newFetcher(Duration.ofSeconds(1));
+		// WHEN the history is fetched
+		final WorkflowHistory history = fetcher.history(EXECUTION, 3L);
+		// THEN the history contains the started event
+		assertThat(history.getEventById(3L)).isNotNull();
+	}
+
+	@Test
+	public void history_failsWhenTheStartedEventIsNotRecordedBeforeTheTimeout() throws Exception {
+		when(this.swf.getWorkflowExecutionHistory(any())).thenReturn(page(2, 1, null));
+		final ActivityHistoryFetcher fetcher = newFetcher(Duration.ofMillis(300));
+
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> fetcher.history(EXECUTION, 3L))
+				.withMessageContaining("not in the history");
+	}
+
+	private ActivityHistoryFetcher newFetcher(final Duration timeout) {
+		return new ActivityHistoryFetcher(this.swf, DOMAIN, new ExecutionHistoryCache(10), timeout);
+	}
+
+	private static History page(final long newestEventId, final long oldestEventId, final String nextPageToken) {
+		final List<HistoryEvent> events = LongStream.iterate(newestEventId, id -> id - 1)
+				.limit(newestEventId - oldestEventId + 1)
+				.mapToObj(id -> new HistoryEvent().withEventId(id).withEventType(EventType.ActivityTaskStarted))
+				.collect(Collectors.toList());
+		return new History().withEvents(events).withNextPageToken(nextPageToken);
+	}
+}
@@ -0,0 +1,116 @@
+package com.solambda.swiffer.api.internal.activities;
+
+import static com.solambda.swiffer.test.Tests.sleep;
+import static java.time.Duration.ofMillis;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.amazonaws.services.simpleworkflow.model.ActivityTask;
+import com.amazonaws.services.simpleworkflow.model.PollForActivityTaskRequest;
+import com.solambda.swiffer.api.ActivityType;
+import com.solambda.swiffer.api.Executor;
+import com.solambda.swiffer.api.Swiffer;
+import com.solambda.swiffer.api.Worker;
+import com.solambda.swiffer.test.Tests;
+
+public class AsyncActivityTaskPollerTest {
+
+	private static final String TASK_TOKEN = "token";
+
+	private final AmazonSimpleWorkflowAsync swf = mock(AmazonSimpleWorkflowAsync.class);
+	/**
+	 * The handlers of the polling operations in progress.
+	 */
+	private final List<AsyncHandler<PollForActivityTaskRequest, ActivityTask>> polls = new CopyOnWriteArrayList<>();
+
+	@ActivityType(name = "activity", version = "1")
+	public static interface Activity {
+
+	}
+
+	public static class ActivityExecutor {
+
+		private final CountDownLatch executed = new CountDownLatch(1);
+		private volatile Thread executionThread;
+
+		@Executor(activity = Activity.class)
+		public String execute() {
+			this.executionThread = Thread.currentThread();
+			this.executed.countDown();
+			return "OK";
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void pollsNeverReturnByThemselves() {
+		when(this.swf.pollForActivityTaskAsync(any(), any())).then(invocation -> {
+			this.polls.add(invocation.getArgument(1));
+			return new CompletableFuture<>();
+		});
+	}
+
+	@Test
+	public void pollAsync_returnsBeforeTheTaskIsPolled() throws Exception {
+		// GIVEN
+		pollsNeverReturnByThemselves();
+		final AsyncActivityTaskPoller poller = new AsyncActivityTaskPoller(this.swf, Tests.DOMAIN, "task-list",
+				"worker");
+		// WHEN
+		final CompletableFuture<ActivityTaskContext> task = poller.pollAsync();
+		// THEN
+		assertThat(task).isNotDone();
+		this.polls.get(0).onSuccess(new PollForActivityTaskRequest(), activityTask());
+		assertThat(task.get().taskToken()).isEqualTo(TASK_TOKEN);
+	}
+
+	@Test
+	public void aWorkerPollsForEachFreeSlotWithoutBlockingItsPollingThread() throws Exception {
+		// GIVEN a worker of 1 polling thread and 3 execution threads
+		pollsNeverReturnByThemselves();
+		final ActivityExecutor executor = new ActivityExecutor();
+		final Worker worker = new Swiffer(this.swf, Tests.DOMAIN).newWorkerBuilder()
+				.taskList("task-list")
+				.pollingThreads(1)
+				.executionThreads(3)
+				.executors(executor)
+				.build();
+		// WHEN
+		worker.start();
+		sleep(ofMillis(200));
+		// THEN the polling thread started a polling operation per slot
+		verify(this.swf, times(3)).pollForActivityTaskAsync(any(), any());
+		// WHEN a task is polled
+		this.polls.get(0).onSuccess(new PollForActivityTaskRequest(), activityTask());
+		// THEN it is executed by the execution threads, then its slot is
+		// polled again
+		assertThat(executor.executed.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.executionThread).isNotSameAs(Thread.currentThread());
+		verify(this.swf, timeout(1000)).respondActivityTaskCompleted(any());
+		verify(this.swf, timeout(1000).times(4)).pollForActivityTaskAsync(any(), any());
+		worker.stop();
+	}
+
+	private static ActivityTask activityTask() {
+		return new ActivityTask()
+				.withTaskToken(TASK_TOKEN)
+				.withActivityId("activityId")
+				.withActivityType(new com.amazonaws.services.simpleworkflow.model.ActivityType()
+						.withName("activity")
+						.withVersion("1"));
+	}
+}
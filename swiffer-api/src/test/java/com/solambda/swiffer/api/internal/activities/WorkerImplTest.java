@@ -3,10 +3,14 @@ package com.solambda.swiffer.api.internal.activities;
 import static com.solambda.swiffer.test.Tests.returnAfterDelay;
 import static com.solambda.swiffer.test.Tests.sleep;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -15,6 +19,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.Ignore;
@@ -23,18 +33,25 @@ import org.mockito.ArgumentCaptor;
 
 import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflow;
 import com.amazonaws.services.simpleworkflow.model.ActivityTask;
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskStatus;
+import com.amazonaws.services.simpleworkflow.model.PendingTaskCount;
 import com.amazonaws.services.simpleworkflow.model.PollForActivityTaskRequest;
 import com.amazonaws.services.simpleworkflow.model.RespondActivityTaskCompletedRequest;
 import com.amazonaws.services.simpleworkflow.model.RespondActivityTaskFailedRequest;
+import com.google.common.base.Stopwatch;
 import com.solambda.swiffer.api.ActivityType;
 import com.solambda.swiffer.api.Executor;
+import com.solambda.swiffer.api.ShutdownListener;
 import com.solambda.swiffer.api.Swiffer;
 import com.solambda.swiffer.api.Worker;
+import com.solambda.swiffer.api.WorkerBuilder;
 import com.solambda.swiffer.api.exceptions.TaskContextPollingException;
+import com.solambda.swiffer.api.internal.activities.WorkerImplTest.Definitions.BlockingActivity;
 import com.solambda.swiffer.api.internal.activities.WorkerImplTest.Definitions.FailingActivity;
 import com.solambda.swiffer.api.internal.activities.WorkerImplTest.Definitions.NoArgumentActivity;
 import com.solambda.swiffer.api.internal.activities.WorkerImplTest.Definitions.NoReturnValueActivity;
 import com.solambda.swiffer.api.internal.activities.WorkerImplTest.Definitions.ToUpperCase;
+import com.solambda.swiffer.api.internal.utils.VirtualThreads;
 import com.solambda.swiffer.test.Tests;
 
 public class WorkerImplTest {
@@ -45,6 +62,7 @@ public class WorkerImplTest {
 	private static final String NO_ARGUMENT_ACTIVITY_NAME = "noArgumentActivity";
 	private static final String NO_RETURN_VALUE_ACTIVITY_NAME = "noReturnValueActivity";
 	private static final String FAILING_ACTIVITY_NAME = "failingActivity";
+	private static final String BLOCKING_ACTIVITY_NAME = "blockingActivity";
 	private static final String ACTIVITY_ID = "activityId";
 
 	private AmazonSimpleWorkflow swf;
@@ -83,6 +101,11 @@ public class WorkerImplTest {
 		public static interface FailingActivity {
 
 		}
+
+		@ActivityType(name = BLOCKING_ACTIVITY_NAME, version = ACTIVITY_VERSION)
+		public static interface BlockingActivity {
+
+		}
 	}
 
 	public static class TestExecutors {
@@ -106,6 +129,13 @@ public class WorkerImplTest {
 			throw new IllegalStateException("the activity has failed!");
 		}
 
+		private final CountDownLatch blockingActivityLatch = new CountDownLatch(1);
+
+		@Executor(activity = BlockingActivity.class)
+		public void blockingActivity() throws InterruptedException {
+			this.blockingActivityLatch.await();
+		}
+
 	}
 
 	private Worker createWorker() {
@@ -167,6 +197,234 @@ public class WorkerImplTest {
 
 	}
 
+	@Test
+	public void workerPollsConcurrentlyWithSeveralPollingThreads() throws Exception {
+		// GIVEN
+		final Worker worker = this.swiffer.newWorkerBuilder()
+				.identity("worker-test")
+				.taskList("test-task-list")
+				.pollingThreads(3)
+				.executors(this.executors)
+				.build();
+		// polling takes 1 sec, 3 polling operations are pending at the same
+		// time
+		when(this.swf.pollForActivityTask(any(PollForActivityTaskRequest.class)))
+				.then(returnAfterDelay(new ActivityTask(), Duration.ofMillis(1000)));
+		// WHEN
+		worker.start();
+		sleep(Duration.ofMillis(300));
+
+		// THEN
+		verify(this.swf, times(3)).pollForActivityTask(any(PollForActivityTaskRequest.class));
+		worker.stop();
+	}
+
+	@Test
+	public void workerAddsPollersWhileTasksArePendingInTheTaskList() throws Exception {
+		// GIVEN
+		final WorkerImpl worker = (WorkerImpl) this.swiffer.newWorkerBuilder()
+				.identity("worker-test")
+				.taskList("test-task-list")
+				.autoscalePollers(1, 3, Duration.ofMillis(100))
+				.executors(this.executors)
+				.build();
+		when(this.swf.pollForActivityTask(any(PollForActivityTaskRequest.class)))
+				.then(returnAfterDelay(new ActivityTask(), Duration.ofMillis(20)));
+		when(this.swf.countPendingActivityTasks(any())).thenReturn(new PendingTaskCount().withCount(5));
+		// WHEN
+		worker.start();
+		sleep(Duration.ofMillis(500));
+		// THEN
+		assertThat(worker.pollingThreads()).isEqualTo(3);
+		worker.stop();
+	}
+
+	@Test
+	public void workerRemovesPollersWhilePollsComeBackEmpty() throws Exception {
+		// GIVEN
+		final WorkerImpl worker = (WorkerImpl) this.swiffer.newWorkerBuilder()
+				.identity("worker-test")
+				.taskList("test-task-list")
+				.pollingThreads(3)
+				.autoscalePollers(1, 3, Duration.ofMillis(100))
+				.executors(this.executors)
+				.build();
+		when(this.swf.pollForActivityTask(any(PollForActivityTaskRequest.class)))
+				.then(returnAfterDelay(new ActivityTask(), Duration.ofMillis(20)));
+		when(this.swf.countPendingActivityTasks(any())).thenReturn(new PendingTaskCount().withCount(0));
+		// WHEN
+		worker.start();
+		sleep(Duration.ofMillis(500));
+		// THEN
+		assertThat(worker.pollingThreads()).isEqualTo(1);
+		worker.stop();
+		assertThat(worker.isStarted()).isFalse();
+	}
+
+	@Test
+	public void workerDoesNotPollWhenAllExecutionThreadsAreBusy() throws Exception {
+		// GIVEN
+		final Worker worker = createWorker();
+		anActivityTaskInTheTaskList(BLOCKING_ACTIVITY_NAME);
+		// WHEN the 10 execution threads are blocked by the activities
+		worker.start();
+		sleep(Duration.ofMillis(300));
+
+		// THEN no more task is claimed
+		verify(this.swf, times(10)).pollForActivityTask(any(PollForActivityTaskRequest.class));
+		this.executors.blockingActivityLatch.countDown();
+		worker.stop();
+	}
+
+	@Test
+	public void drainAbortsIdlePollsAndHeartbeatsTheTasksInFlightUntilTheyFinish() throws Exception {
+		// GIVEN a worker executing a blocking activity, with an idle poll
+		final Worker worker = this.swiffer.newWorkerBuilder()
+				.identity("worker-test")
+				.taskList("test-task-list")
+				.executionThreads(2)
+				.drainHeartbeatInterval(Duration.ofMillis(50))
+				.executors(this.executors)
+				.build();
+		when(this.swf.pollForActivityTask(any(PollForActivityTaskRequest.class)))
+				.thenReturn(blockingActivityTask())
+				.then(returnAfterDelay(new ActivityTask(), Duration.ofSeconds(5)));
+		when(this.swf.recordActivityTaskHeartbeat(any()))
+				.thenReturn(new ActivityTaskStatus().withCancelRequested(false));
+		final ShutdownListener listener = mock(ShutdownListener.class);
+		worker.start();
+		sleep(Duration.ofMillis(200));
+		// WHEN
+		final Stopwatch watch = Stopwatch.createStarted();
+		final Future<Boolean> drain = Executors.newSingleThreadExecutor()
+				.submit(() -> worker.drain(Duration.ofSeconds(5), listener));
+		sleep(Duration.ofMillis(300));
+		// THEN the idle poll is aborted and the activity keeps heartbeating
+		verify(listener).pollingStopped(1);
+		verify(this.swf, atLeastOnce()).recordActivityTaskHeartbeat(any());
+		this.executors.blockingActivityLatch.countDown();
+		assertThat(drain.get(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(watch.elapsed(TimeUnit.MILLISECONDS)).isLessThan(2000);
+		verify(listener).progress(0);
+		verify(listener).drained();
+		verify(this.swf).respondActivityTaskCompleted(any());
+		assertThat(worker.isStarted()).isFalse();
+	}
+
+	@Test
+	public void drainTimesOutWhenTheTasksInFlightDoNotFinish() throws Exception {
+		// GIVEN
+		final Worker worker = createWorker();
+		when(this.swf.pollForActivityTask(any(PollForActivityTaskRequest.class)))
+				.thenReturn(blockingActivityTask())
+				.then(returnAfterDelay(new ActivityTask(), Duration.ofSeconds(5)));
+		final ShutdownListener listener = mock(ShutdownListener.class);
+		worker.start();
+		sleep(Duration.ofMillis(200));
+		// WHEN
+		final boolean drained = worker.drain(Duration.ofMillis(300), listener);
+		// THEN
+		assertThat(drained).isFalse();
+		verify(listener).timedOut(1);
+		verify(listener, never()).drained();
+	}
+
+	private ActivityTask blockingActivityTask() {
+		return new ActivityTask()
+				.withTaskToken(TASK_TOKEN)
+				.withActivityId(ACTIVITY_ID)
+				.withActivityType(new com.amazonaws.services.simpleworkflow.model.ActivityType()
+						.withName(BLOCKING_ACTIVITY_NAME)
+						.withVersion(ACTIVITY_VERSION));
+	}
+
+	@Test
+	public void executionThreadsLimitTheNumberOfTasksExecutedConcurrently() throws Exception {
+		// GIVEN
+		final Worker worker = this.swiffer.newWorkerBuilder()
+				.identity("worker-test")
+				.taskList("test-task-list")
+				.executionThreads(2)
+				.executors(this.executors)
+				.build();
+		anActivityTaskInTheTaskList(BLOCKING_ACTIVITY_NAME);
+		// WHEN
+		worker.start();
+		sleep(Duration.ofMillis(300));
+
+		// THEN
+		verify(this.swf, times(2)).pollForActivityTask(any(PollForActivityTaskRequest.class));
+		assertThat(worker.executionMetrics().capacity()).isEqualTo(2);
+		assertThat(worker.executionMetrics().activeTasks()).isEqualTo(2);
+		assertThat(worker.executionMetrics().queuedTasks()).isEqualTo(0);
+		this.executors.blockingActivityLatch.countDown();
+		worker.stop();
+		assertThat(worker.executionMetrics().activeTasks()).isEqualTo(0);
+		assertThat(worker.executionMetrics().completedTasks()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	public void workerExecutesTasksWithTheSpecifiedExecutorAndDoesNotShutItDown() throws Exception {
+		// GIVEN
+		final ExecutorService executorService = Executors.newCachedThreadPool();
+		final Worker worker = this.swiffer.newWorkerBuilder()
+				.identity("worker-test")
+				.taskList("test-task-list")
+				.executorService(executorService)
+				.executors(this.executors)
+				.build();
+		anActivityTaskInTheTaskList(NO_ARGUMENT_ACTIVITY_NAME);
+		// WHEN
+		worker.start();
+		sleep(Duration.ofMillis(300));
+		worker.stop();
+
+		// THEN
+		verify(this.executors, atLeastOnce()).noArgActivity();
+		assertThat(executorService.isShutdown()).isFalse();
+		executorService.shutdown();
+	}
+
+	@Test
+	public void virtualThreadsCannotBeUsedBeforeJava21() {
+		assumeFalse(VirtualThreads.isAvailable());
+		// GIVEN
+		final WorkerBuilder builder = this.swiffer.newWorkerBuilder()
+				.taskList("test-task-list")
+				.virtualThreads(100)
+				.executors(this.executors);
+		// WHEN / THEN
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> builder.build());
+	}
+
+	@Test
+	public void workerExecutesTasksOnVirtualThreads() throws Exception {
+		assumeTrue(VirtualThreads.isAvailable());
+		// GIVEN
+		final Worker worker = this.swiffer.newWorkerBuilder()
+				.taskList("test-task-list")
+				.virtualThreads(100)
+				.executors(this.executors)
+				.build();
+		anActivityTaskInTheTaskList(NO_ARGUMENT_ACTIVITY_NAME);
+		final AtomicReference<Thread> executionThread = new AtomicReference<>();
+		doAnswer(invocation -> {
+			executionThread.set(Thread.currentThread());
+			return invocation.callRealMethod();
+		}).when(this.executors).noArgActivity();
+		// WHEN
+		worker.start();
+		sleep(Duration.ofMillis(300));
+		worker.stop();
+
+		// THEN
+		verify(this.executors, atLeastOnce()).noArgActivity();
+		assertThat(worker.executionMetrics().capacity()).isEqualTo(100);
+		// Thread.isVirtual() does not exist in the Java 8 API
+		final Object isVirtual = Thread.class.getMethod("isVirtual").invoke(executionThread.get());
+		assertThat(isVirtual).isEqualTo(Boolean.TRUE);
+	}
+
 	@Test
 	public void workerInvokeRespondTaskFailedIfThereIsNoExecutorForTheActivityType() throws Exception {
 		// GIVEN
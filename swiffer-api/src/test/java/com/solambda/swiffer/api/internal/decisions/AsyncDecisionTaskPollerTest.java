@@ -0,0 +1,85 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static com.solambda.swiffer.test.Tests.sleep;
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.simpleworkflow.AmazonSimpleWorkflowAsync;
+import com.amazonaws.services.simpleworkflow.model.DecisionTask;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.PollForDecisionTaskRequest;
+import com.solambda.swiffer.api.exceptions.TaskContextPollingException;
+import com.solambda.swiffer.api.mapper.DataMapper;
+
+public class AsyncDecisionTaskPollerTest {
+
+	private static final String TOKEN = "token";
+
+	private final AmazonSimpleWorkflowAsync swf = mock(AmazonSimpleWorkflowAsync.class);
+	private final AsyncDecisionTaskPoller poller = new AsyncDecisionTaskPoller(this.swf, "domain",
+			"DecisionTaskList", "decisionpoller", mock(DataMapper.class));
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void polling_fetchesAllThePagesOfTheHistory() throws Exception {
+		// GIVEN a history of 2 pages
+		when(this.swf.pollForDecisionTaskAsync(any(), any())).then(invocation -> {
+			final PollForDecisionTaskRequest request = invocation.getArgument(0);
+			final AsyncHandler<PollForDecisionTaskRequest, DecisionTask> handler = invocation.getArgument(1);
+			final DecisionTask page = request.getNextPageToken() == null
+					? new DecisionTask().withTaskToken(TOKEN).withNextPageToken("page2")
+							.withEvents(new HistoryEvent().withEventId(2L))
+					: new DecisionTask().withTaskToken(TOKEN)
+							.withEvents(new HistoryEvent().withEventId(1L));
+			handler.onSuccess(request, page);
+			return CompletableFuture.completedFuture(page);
+		});
+		// WHEN
+		final DecisionTaskContext context = this.poller.pollAsync().get();
+		// THEN
+		assertThat(context.taskToken()).isEqualTo(TOKEN);
+		assertThat(context.history().events()).hasSize(2);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void pollingFailure_throwsAnException() throws Exception {
+		// GIVEN
+		when(this.swf.pollForDecisionTaskAsync(any(), any())).then(invocation -> {
+			final AsyncHandler<PollForDecisionTaskRequest, DecisionTask> handler = invocation.getArgument(1);
+			handler.onError(new Exception("exception for testing"));
+			return new CompletableFuture<>();
+		});
+		// WHEN start polling THEN correct exception is thrown
+		assertThatExceptionOfType(TaskContextPollingException.class)
+				.isThrownBy(() -> this.poller.poll())
+				.withStackTraceContaining("exception for testing");
+	}
+
+	@Test
+	public void polling_isAbortedImmediatelyWhenThePollerIsStopped() throws Exception {
+		// GIVEN a long-poll that never returns
+		when(this.swf.pollForDecisionTaskAsync(any(), any())).thenReturn(new CompletableFuture<>());
+		final Future<DecisionTaskContext> pollingFuture = Executors.newSingleThreadExecutor()
+				.submit(() -> this.poller.poll());
+		sleep(ofMillis(100));
+		// WHEN
+		this.poller.stop();
+		// THEN the blocked thread is released without a task
+		assertThat(pollingFuture.get(200, MILLISECONDS)).isNull();
+		assertThat(this.poller.pollAsync().isCancelled()).isTrue();
+	}
+
+}
@@ -11,6 +11,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -23,6 +24,7 @@ import com.amazonaws.services.simpleworkflow.model.DecisionTask;
 import com.amazonaws.services.simpleworkflow.model.EventType;
 import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
 import com.amazonaws.services.simpleworkflow.model.PollForDecisionTaskRequest;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
 import com.amazonaws.services.simpleworkflow.model.WorkflowExecutionStartedEventAttributes;
 import com.solambda.swiffer.api.Decider;
 import com.solambda.swiffer.api.OnWorkflowStarted;
@@ -96,6 +98,9 @@ public class DeciderImplTest {
 				.thenReturn(new DecisionTask()
 						.withTaskToken(TASK_TOKEN)
 						.withPreviousStartedEventId(0L)
+						.withWorkflowExecution(new WorkflowExecution()
+								.withWorkflowId("workflowId")
+								.withRunId("runId"))
 						.withWorkflowType(new com.amazonaws.services.simpleworkflow.model.WorkflowType()
 								.withName("workflowType1").withVersion("1"))
 						.withEvents(events));
@@ -154,6 +159,59 @@ public class DeciderImplTest {
 		assertThat(request).isEqualTo("workflowInput");
 	}
 
+	@Test
+	public void aDeciderWithSeveralDecisionThreadsRespondsToDecisionTasks() throws Exception {
+		// GIVEN
+		final Decider decider = this.swiffer.newDeciderBuilder()
+				.taskList("test-decision-task-list")
+				.identity("decider-name")
+				.pollingThreads(2)
+				.decisionThreads(4)
+				.pipelined(false)
+				.workflowTemplates(this.workflowTemplate1)
+				.build();
+		aDecisionTaskInTheTaskList();
+		// WHEN
+		decider.start();
+		sleep(Duration.ofMillis(300));
+		decider.stop();
+		// THEN
+		verify(this.workflowTemplate1, atLeastOnce()).started("workflowInput");
+		verify(this.swf, atLeastOnce()).respondDecisionTaskCompleted(any());
+		assertThat(decider.executionMetrics().capacity()).isEqualTo(4);
+		assertThat(decider.executionMetrics().completedTasks()).isGreaterThan(0);
+		assertThat(decider.executionMetrics().activeTasks()).isEqualTo(0);
+	}
+
+	@Test
+	public void aPipelinedDeciderPollsTheNextTaskWhileTheDecisionsAreResponded() throws Exception {
+		// GIVEN
+		final Decider decider = this.swiffer.newDeciderBuilder()
+				.taskList("test-decision-task-list")
+				.identity("decider-name")
+				.pipelined(true)
+				.stageQueueCapacity(1)
+				.workflowTemplates(this.workflowTemplate1)
+				.build();
+		aDecisionTaskInTheTaskList();
+		final CountDownLatch respondLatch = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			respondLatch.await();
+			return null;
+		}).when(this.swf).respondDecisionTaskCompleted(any());
+		// WHEN
+		decider.start();
+		sleep(Duration.ofMillis(300));
+		// THEN
+		verify(this.swf, times(1)).respondDecisionTaskCompleted(any());
+		verify(this.swf, atLeast(2)).pollForDecisionTask(any());
+		assertThat(decider.executionMetrics().capacity()).isEqualTo(3);
+		respondLatch.countDown();
+		decider.stop();
+		verify(this.swf, atLeast(2)).respondDecisionTaskCompleted(any());
+		assertThat(decider.executionMetrics().activeTasks()).isEqualTo(0);
+	}
+
 	/**
 	 * Do not throw exception if it is a SWF client exception.
 	 */
@@ -186,4 +244,44 @@ public class DeciderImplTest {
 		DeciderImpl decider = (DeciderImpl) createDecider();
 		decider.executeTaskImmediately(task);
 	}
+
+	@Test
+	public void aPipelinedDeciderKeepsPollingAfterAClientException() throws Exception {
+		// GIVEN
+		final AmazonSimpleWorkflowException ex = new AmazonSimpleWorkflowException("A message");
+		ex.setErrorType(ErrorType.Client);
+		doThrow(ex).when(this.swf).respondDecisionTaskCompleted(any());
+		final Decider decider = createPipelinedDecider();
+		aDecisionTaskInTheTaskList();
+		// WHEN
+		decider.start();
+		sleep(Duration.ofMillis(300));
+		// THEN
+		assertThat(decider.isStarted()).isTrue();
+		decider.stop();
+	}
+
+	@Test
+	public void aPipelinedDeciderStopsAfterAServiceException() throws Exception {
+		// GIVEN
+		final AmazonSimpleWorkflowException ex = new AmazonSimpleWorkflowException("A message");
+		ex.setErrorType(ErrorType.Service);
+		doThrow(ex).when(this.swf).respondDecisionTaskCompleted(any());
+		final Decider decider = createPipelinedDecider();
+		aDecisionTaskInTheTaskList();
+		// WHEN
+		decider.start();
+		sleep(Duration.ofMillis(300));
+		// THEN the decider stops as when the tasks are executed by the poller
+		assertThat(decider.isStarted()).isFalse();
+	}
+
+	private Decider createPipelinedDecider() {
+		return this.swiffer.newDeciderBuilder()
+				.taskList("test-decision-task-list")
+				.identity("decider-name")
+				.pipelined(true)
+				.workflowTemplates(this.workflowTemplate1)
+				.build();
+	}
 }
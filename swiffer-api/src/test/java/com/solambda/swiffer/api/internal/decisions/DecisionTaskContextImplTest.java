@@ -1,7 +1,12 @@
 package com.solambda.swiffer.api.internal.decisions;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Comparator;
@@ -79,6 +84,21 @@ public class DecisionTaskContextImplTest {
         assertThat(marker.isPresent()).isFalse();
     }
 
+    @Test
+    public void getMarkerDetails_deserializesTheDetailsOncePerTask() throws Exception {
+        DataMapper dataMapper = spy(this.dataMapper);
+        List<HistoryEvent> events = mockHistoryEvents(mockMarkerRecordedEvent(10L, MARKER_NAME, dataMapper.serialize(new TestObject("Details", 1))));
+        when(decisionTask.getEvents()).thenReturn(events);
+
+        DecisionTaskContextImpl context = new DecisionTaskContextImpl(swf, domain, decisionTask, dataMapper);
+
+        TestObject first = context.getMarkerDetails(MARKER_NAME, TestObject.class).get();
+        TestObject second = context.getMarkerDetails(MARKER_NAME, TestObject.class).get();
+
+        assertThat(second).isSameAs(first);
+        verify(dataMapper, times(1)).deserialize(anyString(), eq(TestObject.class));
+    }
+
     @Test
     public void hasMarker() throws Exception {
         List<HistoryEvent> events = mockHistoryEvents(mockMarkerRecordedEvent(130L, "another-marker", null),
@@ -92,6 +112,21 @@ public class DecisionTaskContextImplTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    public void markerLookups_readTheEventsOfTheTaskOnce() throws Exception {
+        List<HistoryEvent> events = mockHistoryEvents(mockMarkerRecordedEvent(130L, "another-marker", null),
+                                                      mockMarkerRecordedEvent(100L, MARKER_NAME, null));
+        when(decisionTask.getEvents()).thenReturn(events);
+
+        DecisionTaskContextImpl context = new DecisionTaskContextImpl(swf, domain, decisionTask, dataMapper);
+
+        assertThat(context.hasMarker(MARKER_NAME)).isTrue();
+        assertThat(context.hasMarker("another-marker")).isTrue();
+        assertThat(context.hasMarker("unknown")).isFalse();
+        assertThat(context.getMarkerDetails(MARKER_NAME, TestObject.class).isPresent()).isFalse();
+        verify(decisionTask, times(1)).getEvents();
+    }
+
     @Test
     public void hasMarker_noMarker() throws Exception {
         List<HistoryEvent> events = mockHistoryEvents(mockMarkerRecordedEvent(130L, "another-marker", null));
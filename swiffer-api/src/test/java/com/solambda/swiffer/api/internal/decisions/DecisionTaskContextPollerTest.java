@@ -118,4 +118,20 @@ public class DecisionTaskContextPollerTest {
 
 	}
 
+	@Test
+	public void polling_isReleasedImmediatelyWhenAborted() throws Exception {
+		// GIVEN a long running polling operation
+		final AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+		when(swf.pollForDecisionTask(any()))
+				.then(returnAfterDelay(new DecisionTask().withTaskToken(TOKEN), Duration.ofMillis(5000)));
+		final DecisionTaskPoller poller = new DecisionTaskPoller(swf, "domain", "DecisionTaskList", "decisionpoller", dataMapper);
+		final Future<DecisionTaskContext> pollingFuture = Executors.newSingleThreadExecutor()
+				.submit(() -> poller.poll());
+		// WHEN abort polling
+		sleep(ofMillis(300));
+		poller.abort();
+		// THEN the polling thread is released without a task
+		assertThat(pollingFuture.get(400, TimeUnit.MILLISECONDS)).isNull();
+	}
+
 }
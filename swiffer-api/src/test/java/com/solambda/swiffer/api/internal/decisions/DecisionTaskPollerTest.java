@@ -3,6 +3,7 @@ package com.solambda.swiffer.api.internal.decisions;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -21,6 +22,8 @@ import com.amazonaws.services.simpleworkflow.model.DecisionTask;
 import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
 import com.amazonaws.services.simpleworkflow.model.PollForDecisionTaskRequest;
 import com.amazonaws.services.simpleworkflow.model.TaskList;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.solambda.swiffer.api.HistoryMode;
 import com.solambda.swiffer.api.mapper.DataMapper;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -63,6 +66,108 @@ public class DecisionTaskPollerTest {
         assertThat(context.history().events()).extracting(WorkflowEvent::id).containsExactlyElementsOf(expectedId);
     }
 
+    @Test
+    public void pollForTask_fetchesOnlyTheNewEventsOfACachedExecution() throws Exception {
+        AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+        WorkflowExecution execution = new WorkflowExecution().withWorkflowId("workflowId").withRunId("runId");
+        DecisionTaskPoller poller = new DecisionTaskPoller(swf, DOMAIN, TASK_LIST, DECISIDER, dataMapper,
+                                                           new ExecutionHistoryCache(10));
+        // a first decision task fetches the complete history
+        DecisionTask firstTaskPage1 = new DecisionTask().withTaskToken("TOKEN1")
+                                                        .withWorkflowExecution(execution)
+                                                        .withNextPageToken("page2")
+                                                        .withEvents(generateRandomHistoryEvents(11, 20));
+        DecisionTask firstTaskPage2 = new DecisionTask().withTaskToken("TOKEN1")
+                                                        .withWorkflowExecution(execution)
+                                                        .withEvents(generateRandomHistoryEvents(1, 10));
+        DecisionTask secondTaskPage1 = new DecisionTask().withTaskToken("TOKEN2")
+                                                         .withWorkflowExecution(execution)
+                                                         .withNextPageToken("page2-of-task2")
+                                                         .withEvents(generateRandomHistoryEvents(16, 25));
+        when(swf.pollForDecisionTask(eq(getRequest(null)))).thenReturn(firstTaskPage1, secondTaskPage1);
+        when(swf.pollForDecisionTask(eq(getRequest("page2")))).thenReturn(firstTaskPage2);
+        poller.poll();
+
+        // the next decision task of the execution only fetches the new events
+        DecisionTaskContext context = poller.poll();
+
+        verify(swf, never()).pollForDecisionTask(eq(getRequest("page2-of-task2")));
+        List<Long> expectedId = LongStream.iterate(25, operand -> --operand).limit(25).boxed().collect(Collectors.toList());
+        assertThat(context.taskToken()).isEqualTo("TOKEN2");
+        assertThat(context.history().events()).extracting(WorkflowEvent::id).containsExactlyElementsOf(expectedId);
+    }
+
+    @Test
+    public void pollForTask_lazyHistoryFetchesTheOlderPagesOnDemand() throws Exception {
+        AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+        DecisionTask firstPage = new DecisionTask().withTaskToken("TOKEN")
+                                                   .withPreviousStartedEventId(25L)
+                                                   .withNextPageToken("page2")
+                                                   .withEvents(generateRandomHistoryEvents(21, 30));
+        DecisionTask secondPage = new DecisionTask().withTaskToken("TOKEN")
+                                                    .withNextPageToken("page3")
+                                                    .withEvents(generateRandomHistoryEvents(11, 20));
+        DecisionTask thirdPage = new DecisionTask().withTaskToken("TOKEN")
+                                                   .withEvents(generateRandomHistoryEvents(1, 10));
+        when(swf.pollForDecisionTask(eq(getRequest(null)))).thenReturn(firstPage);
+        when(swf.pollForDecisionTask(eq(getRequest("page2")))).thenReturn(secondPage);
+        when(swf.pollForDecisionTask(eq(getRequest("page3")))).thenReturn(thirdPage);
+        DecisionTaskPoller poller = new DecisionTaskPoller(swf, DOMAIN, TASK_LIST, DECISIDER, dataMapper, null,
+                                                           HistoryMode.LAZY);
+
+        DecisionTaskContext context = poller.poll();
+
+        // the new events are in the first page
+        assertThat(context.newEvents()).extracting(WorkflowEvent::id).containsExactly(26L, 27L, 28L, 29L, 30L);
+        assertThat(context.history().events()).hasSize(30);
+        verify(swf, never()).pollForDecisionTask(eq(getRequest("page2")));
+
+        // an older event is fetched with its page only
+        assertThat(context.history().getEventById(15L).id()).isEqualTo(15L);
+        verify(swf).pollForDecisionTask(eq(getRequest("page2")));
+        verify(swf, never()).pollForDecisionTask(eq(getRequest("page3")));
+
+        assertThat(context.history().events()).extracting(WorkflowEvent::id)
+                                              .containsExactlyElementsOf(LongStream.iterate(30, operand -> --operand)
+                                                                                   .limit(30).boxed()
+                                                                                   .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void pollForTask_deltaHistoryStopsPagingAtThePreviousDecisionTask() throws Exception {
+        AmazonSimpleWorkflow swf = mock(AmazonSimpleWorkflow.class);
+        DecisionTask firstPage = new DecisionTask().withTaskToken("TOKEN")
+                                                   .withPreviousStartedEventId(15L)
+                                                   .withNextPageToken("page2")
+                                                   .withEvents(generateRandomHistoryEvents(21, 30));
+        DecisionTask secondPage = new DecisionTask().withTaskToken("TOKEN")
+                                                    .withPreviousStartedEventId(15L)
+                                                    .withNextPageToken("page3")
+                                                    .withEvents(generateRandomHistoryEvents(11, 20));
+        DecisionTask thirdPage = new DecisionTask().withTaskToken("TOKEN")
+                                                   .withPreviousStartedEventId(15L)
+                                                   .withEvents(generateRandomHistoryEvents(1, 10));
+        when(swf.pollForDecisionTask(eq(getRequest(null)))).thenReturn(firstPage);
+        when(swf.pollForDecisionTask(eq(getRequest("page2")))).thenReturn(secondPage);
+        when(swf.pollForDecisionTask(eq(getRequest("page3")))).thenReturn(thirdPage);
+        DecisionTaskPoller poller = new DecisionTaskPoller(swf, DOMAIN, TASK_LIST, DECISIDER, dataMapper, null,
+                                                           HistoryMode.DELTA);
+
+        DecisionTaskContext context = poller.poll();
+
+        // the pages of the new events are fetched with the task
+        verify(swf).pollForDecisionTask(eq(getRequest("page2")));
+        verify(swf, never()).pollForDecisionTask(eq(getRequest("page3")));
+        assertThat(context.newEvents()).extracting(WorkflowEvent::id)
+                                       .containsExactlyElementsOf(LongStream.rangeClosed(16, 30).boxed()
+                                                                            .collect(Collectors.toList()));
+        verify(swf, never()).pollForDecisionTask(eq(getRequest("page3")));
+
+        // an older event is fetched on demand
+        assertThat(context.history().getEventById(5L).id()).isEqualTo(5L);
+        verify(swf).pollForDecisionTask(eq(getRequest("page3")));
+    }
+
     private List<HistoryEvent> generateRandomHistoryEvents(int start, int end) {
         return LongStream.rangeClosed(start, end).mapToObj(value -> {
             HistoryEvent historyEvent = mock(HistoryEvent.class);
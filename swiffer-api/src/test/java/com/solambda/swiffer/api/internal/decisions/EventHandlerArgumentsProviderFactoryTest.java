@@ -7,7 +7,11 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.assertj.core.api.SoftAssertions;
@@ -94,6 +98,15 @@ public class EventHandlerArgumentsProviderFactoryTest {
 
 		}
 
+		public void batchParameters(final List<String> outputs, final @Input List<String> inputs,
+				final List<WorkflowEvent> events, final Decisions decisions, final DecisionTaskContext context) {
+
+		}
+
+		public void batchParameterIsNotAList(final String output) {
+
+		}
+
 		public void mixingEverything(
 				/* specific types */
 				final Decisions decisions,
@@ -162,6 +175,59 @@ public class EventHandlerArgumentsProviderFactoryTest {
 		assertThat(arguments).containsExactly(INPUT, OUTPUT, REASON, CONTROL, MARKER_DETAILS, null);
 	}
 
+	@Test
+	public void payloads_areDeserializedOncePerDecisionTask() throws Exception {
+		// GIVEN two handlers reading the input of the same event
+		final DataMapper dataMapper = spy(this.dataMapper);
+		final AtomicInteger deserializations = new AtomicInteger();
+		doAnswer(invocation -> {
+			final Function<String, Object> deserializer = this.dataMapper.deserializer(String.class);
+			return (Function<String, Object>) content -> {
+				deserializations.incrementAndGet();
+				return deserializer.apply(content);
+			};
+		}).when(dataMapper).deserializer(String.class);
+		final EventHandlerArgumentsProviderFactory factory = new EventHandlerArgumentsProviderFactory(dataMapper);
+		final EventHandlerArgumentsProvider provider = factory
+				.createArgumentsProvider(EventType.WorkflowExecutionStarted, getMethod("defaultParameter"));
+		// WHEN they are called during the same decision task
+		final EventContext context = createMockedContext();
+		final Object[] arguments = provider.getArguments(context, this.decisions);
+		final Object[] otherArguments = provider.getArguments(context, this.decisions);
+		// THEN the input is deserialized once, by a deserializer resolved once
+		assertThat(otherArguments[0]).isSameAs(arguments[0]);
+		verify(dataMapper, times(1)).deserializer(String.class);
+		assertThat(deserializations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void batchParameters_areTheListsOfThePayloadsOfTheEvents() throws Exception {
+		// GIVEN a handler of all the completions of a decision task
+		final EventHandlerArgumentsProviderFactory factory = new EventHandlerArgumentsProviderFactory(dataMapper);
+		final BatchEventHandlerArgumentsProvider provider = factory
+				.createBatchArgumentsProvider(EventType.ActivityTaskCompleted, getMethod("batchParameters"));
+		// WHEN it is called with 2 events
+		final WorkflowEvent event1 = createMockedEvent(1L, "output1", "input1");
+		final WorkflowEvent event2 = createMockedEvent(2L, "output2", "input2");
+		final List<WorkflowEvent> events = Arrays.asList(event1, event2);
+		final DecisionTaskContext context = mock(DecisionTaskContext.class);
+		when(context.payloads()).thenReturn(new PayloadCache());
+		final Object[] arguments = provider.getArguments(context, events, this.decisions);
+		// THEN the payloads are passed in the order of the events
+		assertThat(arguments).containsExactly(Arrays.asList("output1", "output2"), Arrays.asList("input1", "input2"),
+				events, this.decisions, context);
+	}
+
+	@Test
+	public void batchParameters_mustBeLists() throws Exception {
+		final EventHandlerArgumentsProviderFactory factory = new EventHandlerArgumentsProviderFactory(dataMapper);
+		final Method method = getMethod("batchParameterIsNotAList");
+
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> factory.createBatchArgumentsProvider(EventType.ActivityTaskCompleted, method))
+				.withMessageContaining("should be a List");
+	}
+
 	@Test
 	public void defaultParametersCannotBeMultiple() throws Exception {
 		// GIVEN a method
@@ -222,12 +288,21 @@ public class EventHandlerArgumentsProviderFactoryTest {
 
         final EventContext context = mock(EventContext.class);
         when(context.event()).thenReturn(event);
+        when(context.payloads()).thenReturn(new PayloadCache());
         when(context.getMarkerDetails(MARKER_NAME, String.class)).thenReturn(Optional.of(MARKER_DETAILS));
         when(context.getMarkerDetails(eq(NO_DETAILS_MARKER_NAME), any())).thenReturn(Optional.empty());
 
 		return context;
 	}
 
+	private WorkflowEvent createMockedEvent(final Long id, final String output, final String input) {
+		final WorkflowEvent event = mock(WorkflowEvent.class);
+		when(event.id()).thenReturn(id);
+		when(event.output()).thenReturn(serialize(output));
+		when(event.input()).thenReturn(serialize(input));
+		return event;
+	}
+
 	private Method getMethod(final String methodName) {
 		try {
 			return Stream.of(Template1.class.getMethods())
@@ -59,6 +59,16 @@ public class EventHandlerTypeFactoryTest {
 
 		}
 
+		@OnActivitiesCompleted(value = ActivityDef.class)
+		public void onActivitiesCompleted() {
+
+		}
+
+		@OnSignalsReceived(value = SIGNAL1)
+		public void onSignalsReceived() {
+
+		}
+
 		@OnWorkflowStarted
 		@OnActivityCompleted(value = ActivityDef.class)
 		public void failWithDoubleAnnotations() {
@@ -174,6 +184,28 @@ public class EventHandlerTypeFactoryTest {
 				.isEqualTo(new EventHandlerType(EventType.WorkflowExecutionSignaled, new SignalName(SIGNAL1)));
 	}
 
+	@Test
+	public void activitiesCompleted() throws Exception {
+		final EventHandlerTypeFactory factory = createFactory();
+		final Method method = Template1.class.getMethod("onActivitiesCompleted");
+		final EventHandlerType type = factory.create(method);
+		assertThat(type)
+				.isEqualTo(new EventHandlerType(EventType.ActivityTaskCompleted, new ActivityName(
+						new VersionedName("activity1", "1"))));
+		assertThat(factory.isBatchEventHandler(method)).isTrue();
+		assertThat(factory.isBatchEventHandler(Template1.class.getMethod("onActivityCompleted"))).isFalse();
+	}
+
+	@Test
+	public void signalsReceived() throws Exception {
+		final EventHandlerTypeFactory factory = createFactory();
+		final Method method = Template1.class.getMethod("onSignalsReceived");
+		final EventHandlerType type = factory.create(method);
+		assertThat(type)
+				.isEqualTo(new EventHandlerType(EventType.WorkflowExecutionSignaled, new SignalName(SIGNAL1)));
+		assertThat(factory.isBatchEventHandler(method)).isTrue();
+	}
+
 	@Test
 	public void timerFired() throws Exception {
 		final EventHandlerTypeFactory factory = createFactory();
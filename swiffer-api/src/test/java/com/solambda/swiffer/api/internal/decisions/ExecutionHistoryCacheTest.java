@@ -0,0 +1,92 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.google.common.base.Ticker;
+
+public class ExecutionHistoryCacheTest {
+
+	private static final WorkflowExecution EXECUTION = new WorkflowExecution().withWorkflowId("workflowId")
+			.withRunId("runId");
+
+	@Test
+	public void theNewEventsAreAppendedToTheCachedEventsWithoutWrappingThemAgain() {
+		final ExecutionHistoryCache cache = new ExecutionHistoryCache(10);
+		final WorkflowHistory first = cache.completeAndCache(EXECUTION, events(1, 10));
+
+		final List<HistoryEvent> newEvents = events(9, 15);
+		assertThat(cache.reachesCachedHistory(EXECUTION, newEvents)).isTrue();
+		final WorkflowHistory second = cache.completeAndCache(EXECUTION, newEvents);
+
+		assertThat(second.events()).extracting(WorkflowEvent::id)
+				.containsExactlyElementsOf(LongStream.iterate(15, id -> id - 1).limit(15).boxed()
+						.collect(Collectors.toList()));
+		assertThat(second.getEventById(3L)).isSameAs(first.getEventById(3L));
+		// the previous history is unchanged
+		assertThat(first.events()).hasSize(10);
+		assertThat(first.getEventById(11L)).isNull();
+		assertThat(cache.missCount()).isEqualTo(1);
+		assertThat(cache.hitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void theHistoryIsFetchedCompletelyWhenTheNewEventsDoNotReachTheCachedEvents() {
+		final ExecutionHistoryCache cache = new ExecutionHistoryCache(10);
+		cache.completeAndCache(EXECUTION, events(1, 10));
+
+		assertThat(cache.reachesCachedHistory(EXECUTION, events(12, 20))).isFalse();
+		assertThat(cache.reachesCachedHistory(new WorkflowExecution().withWorkflowId("workflowId")
+				.withRunId("anotherRunId"), events(10, 20))).isFalse();
+	}
+
+	@Test
+	public void theLeastRecentlyDecidedExecutionsAreEvicted() {
+		final ExecutionHistoryCache cache = new ExecutionHistoryCache(2);
+		for (int i = 0; i < 3; i++) {
+			cache.completeAndCache(new WorkflowExecution().withWorkflowId("workflow" + i).withRunId("runId"),
+					events(1, 5));
+		}
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.evictionCount()).isEqualTo(1);
+		assertThat(cache.reachesCachedHistory(new WorkflowExecution().withWorkflowId("workflow0")
+				.withRunId("runId"), events(6, 6))).isFalse();
+	}
+
+	@Test
+	public void theIdleExecutionsAreEvicted() throws Exception {
+		final AtomicLong nanos = new AtomicLong();
+		final ExecutionHistoryCache cache = new ExecutionHistoryCache(10, Duration.ofMinutes(1), 0, new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		});
+		cache.completeAndCache(EXECUTION, events(1, 5));
+
+		nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+		assertThat(cache.reachesCachedHistory(EXECUTION, events(5, 6))).isTrue();
+		nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+
+		assertThat(cache.reachesCachedHistory(EXECUTION, events(5, 6))).isFalse();
+		assertThat(cache.evictionCount()).isEqualTo(1);
+		assertThat(cache.size()).isZero();
+	}
+
+	private static List<HistoryEvent> events(final long oldestId, final long newestId) {
+		return LongStream.iterate(newestId, id -> id - 1)
+				.limit(newestId - oldestId + 1)
+				.mapToObj(id -> new HistoryEvent().withEventId(id))
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,61 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.DecisionTask;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.MarkerRecordedEventAttributes;
+
+public class LazyWorkflowHistoryTest {
+
+	private final AtomicInteger fetchedPages = new AtomicInteger();
+
+	@Test
+	public void lookingUpRecentEvents_doesNotFetchTheOlderPages() {
+		final LazyWorkflowHistory history = history();
+
+		assertThat(history.markerEvents("recent").isEmpty()).isFalse();
+		assertThat(history.markerEvents("recent").stream().findFirst().get().id()).isEqualTo(5L);
+		assertThat(history.fetchedEventCount()).isEqualTo(3);
+		assertThat(this.fetchedPages.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void lookingUpOlderEvents_fetchesTheOlderPages() {
+		final LazyWorkflowHistory history = history();
+
+		assertThat(history.markerEvents("old")).extracting(WorkflowEvent::id).containsExactly(2L);
+		assertThat(history.markerEvents("recent")).extracting(WorkflowEvent::id).containsExactly(5L);
+		assertThat(history.markerEvents("unknown")).isEmpty();
+		assertThat(history.fetchedEventCount()).isEqualTo(6);
+		assertThat(this.fetchedPages.get()).isEqualTo(1);
+	}
+
+	private LazyWorkflowHistory history() {
+		final DecisionTask firstPage = new DecisionTask()
+				.withEvents(event(6L), marker(5L, "recent"), event(4L))
+				.withNextPageToken("page-2");
+		final DecisionTask secondPage = new DecisionTask()
+				.withEvents(Arrays.asList(event(3L), marker(2L, "old"), event(1L)));
+		return new LazyWorkflowHistory(firstPage, token -> {
+			this.fetchedPages.incrementAndGet();
+			return secondPage;
+		});
+	}
+
+	private static HistoryEvent event(final long id) {
+		return new HistoryEvent().withEventId(id).withEventType(EventType.DecisionTaskCompleted);
+	}
+
+	private static HistoryEvent marker(final long id, final String name) {
+		return new HistoryEvent().withEventId(id)
+				.withEventType(EventType.MarkerRecorded)
+				.withMarkerRecordedEventAttributes(new MarkerRecordedEventAttributes().withMarkerName(name));
+	}
+}
@@ -0,0 +1,59 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskCompletedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskScheduledEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityType;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.MarkerRecordedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.TaskList;
+
+public class OffHeapEventsTest {
+
+	private static final String LARGE_TEXT = String.join("", Collections.nCopies(100, "\u00e9t\u00e9 \"quoted\" "));
+
+	private static final List<HistoryEvent> EVENTS = Arrays.asList(
+			new HistoryEvent().withEventId(3L).withEventType(EventType.ActivityTaskCompleted)
+					.withActivityTaskCompletedEventAttributes(new ActivityTaskCompletedEventAttributes()
+							.withScheduledEventId(2L).withResult(LARGE_TEXT)),
+			new HistoryEvent().withEventId(2L).withEventType(EventType.ActivityTaskScheduled)
+					.withActivityTaskScheduledEventAttributes(new ActivityTaskScheduledEventAttributes()
+							.withActivityId("activity")
+							.withActivityType(new ActivityType().withName("activity").withVersion("1"))
+							.withTaskList(new TaskList().withName("task-list"))
+							.withInput(LARGE_TEXT)
+							.withControl("control")),
+			new HistoryEvent().withEventId(1L).withEventType(EventType.MarkerRecorded)
+					.withMarkerRecordedEventAttributes(new MarkerRecordedEventAttributes().withMarkerName("marker")));
+
+	@Test
+	public void theSizeIsEstimatedFromBelow() {
+		for (final HistoryEvent event : EVENTS) {
+			assertThat(OffHeapEvents.estimateSize(event))
+					.as(event.getEventType())
+					.isLessThanOrEqualTo(OffHeapEvents.encode(event).length);
+		}
+	}
+
+	@Test
+	public void theLargeEventsAreStoredOutOfTheHeap() {
+		final OffHeapEvents offHeap = new OffHeapEvents(LARGE_TEXT.length());
+
+		final ByteBuffer completed = offHeap.store(EVENTS.get(0));
+		final ByteBuffer scheduled = offHeap.store(EVENTS.get(1));
+
+		assertThat(completed.isDirect()).isTrue();
+		assertThat(offHeap.load(completed)).isEqualTo(EVENTS.get(0));
+		assertThat(offHeap.load(scheduled)).isEqualTo(EVENTS.get(1));
+		assertThat(offHeap.store(EVENTS.get(2))).isNull();
+	}
+}
@@ -0,0 +1,73 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskCompletedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskScheduledEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityType;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.LambdaFunctionCompletedEventAttributes;
+import com.solambda.swiffer.api.internal.VersionedName;
+import com.solambda.swiffer.api.internal.events.EventCategory;
+import com.solambda.swiffer.api.internal.events.WorkflowEventState;
+
+public class WorkflowEventTest {
+
+	private final WorkflowHistory history = mock(WorkflowHistory.class);
+
+	@Test
+	public void everyEventTypeIsDescribed() {
+		for (final EventType type : EventType.values()) {
+			final WorkflowEvent event = new WorkflowEvent(new HistoryEvent().withEventType(type), this.history);
+
+			assertThat(event.category()).as(type.toString()).isNotNull();
+			assertThat(event.state()).as(type.toString()).isNotNull();
+		}
+	}
+
+	@Test
+	public void attributesOfTheInitialEvent_areResolvedOnce() {
+		final WorkflowEvent scheduled = new WorkflowEvent(new HistoryEvent().withEventId(1L)
+				.withEventType(EventType.ActivityTaskScheduled)
+				.withActivityTaskScheduledEventAttributes(new ActivityTaskScheduledEventAttributes()
+						.withActivityType(new ActivityType().withName("activity").withVersion("1"))
+						.withInput("input")),
+				this.history);
+		when(this.history.getEventById(1L)).thenReturn(scheduled);
+		final WorkflowEvent completed = new WorkflowEvent(new HistoryEvent().withEventId(2L)
+				.withEventType(EventType.ActivityTaskCompleted)
+				.withActivityTaskCompletedEventAttributes(new ActivityTaskCompletedEventAttributes()
+						.withScheduledEventId(1L)
+						.withResult("output")),
+				this.history);
+
+		assertThat(completed.category()).isEqualTo(EventCategory.ACTIVITY);
+		assertThat(completed.state()).isEqualTo(WorkflowEventState.SUCCESS);
+		assertThat(completed.activityType()).isEqualTo(new VersionedName("activity", "1"));
+		assertThat(completed.input()).isEqualTo("input");
+		assertThat(completed.output()).isEqualTo("output");
+		assertThat(completed.initialEventId()).isEqualTo(1L);
+		assertThat(completed.timerId()).isNull();
+		verify(this.history, times(1)).getEventById(1L);
+	}
+
+	@Test
+	public void unsupportedAttributes_throw() {
+		final WorkflowEvent event = new WorkflowEvent(new HistoryEvent().withEventId(2L)
+				.withEventType(EventType.LambdaFunctionCompleted)
+				.withLambdaFunctionCompletedEventAttributes(new LambdaFunctionCompletedEventAttributes()),
+				this.history);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> event.output())
+				.withMessage("Unknown EventType LambdaFunctionCompleted");
+	}
+}
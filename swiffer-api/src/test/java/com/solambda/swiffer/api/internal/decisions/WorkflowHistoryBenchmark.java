@@ -0,0 +1,83 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static com.solambda.swiffer.test.Benchmarks.measure;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+
+/**
+ * Benchmark of {@link WorkflowHistoryImpl} on a history of 25,000 events,
+ * against the former approach wrapping and sorting every event and resolving
+ * the type of an event by scanning the {@link EventType}s.
+ * <p>
+ * The timings of a run vary by tens of percent from one run to the next: only
+ * the ratios between the approaches are meaningful.
+ */
+public class WorkflowHistoryBenchmark {
+
+	private static final int HISTORY_SIZE = 25_000;
+	private static final EventType[] EVENT_TYPES = EventType.values();
+
+	private final List<HistoryEvent> events = LongStream.iterate(HISTORY_SIZE, id -> id - 1)
+			.limit(HISTORY_SIZE)
+			.mapToObj(id -> new HistoryEvent()
+					.withEventId(id)
+					.withEventType(EVENT_TYPES[(int) (id % EVENT_TYPES.length)]))
+			.collect(Collectors.toList());
+
+	@Test
+	public void buildTheHistoryThenDecideOnTheNewEvents() {
+		// each approach is measured alone, then followed by the reads of a
+		// decision task, which needs the categories of a few new events
+		measure("wrap and sort every event", this::wrapAndSort);
+		measure("wrap and sort, then read 10 new events", () -> {
+			int categories = 0;
+			for (final WorkflowEvent event : wrapAndSort().subList(0, 10)) {
+				categories += EventType.fromValue(event.historyEvent().getEventType()).ordinal();
+			}
+			return categories;
+		});
+		measure("index the events by id", () -> new WorkflowHistoryImpl(this.events));
+		measure("index, then read 10 new events", () -> {
+			final WorkflowHistoryImpl history = new WorkflowHistoryImpl(this.events);
+			int categories = 0;
+			for (final WorkflowEvent event : history.events().subList(0, 10)) {
+				categories += event.category().ordinal();
+			}
+			return categories;
+		});
+	}
+
+	private List<WorkflowEvent> wrapAndSort() {
+		return this.events.stream()
+				.map(e -> new WorkflowEvent(e, null))
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void resolveTheTypeOfEveryEvent() {
+		final WorkflowHistoryImpl history = new WorkflowHistoryImpl(this.events);
+		measure("scan the event types", () -> {
+			int ordinals = 0;
+			for (final HistoryEvent event : this.events) {
+				ordinals += EventType.fromValue(event.getEventType()).ordinal();
+			}
+			return ordinals;
+		});
+		measure("cached event types", () -> {
+			int ordinals = 0;
+			for (long id = 1; id <= HISTORY_SIZE; id++) {
+				ordinals += history.typeOf(id).ordinal();
+			}
+			return ordinals;
+		});
+	}
+
+}
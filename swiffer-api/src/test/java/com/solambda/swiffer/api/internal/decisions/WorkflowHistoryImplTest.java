@@ -0,0 +1,144 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskCompletedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskFailedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskScheduledEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ChildWorkflowExecutionStartedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.MarkerRecordedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.StartChildWorkflowExecutionInitiatedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.TimerFiredEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.TimerStartedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecution;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecutionSignaledEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecutionStartedEventAttributes;
+
+public class WorkflowHistoryImplTest {
+
+	private static final List<HistoryEvent> EVENTS = Arrays.asList(
+			event(12, EventType.ChildWorkflowExecutionStarted)
+					.withChildWorkflowExecutionStartedEventAttributes(new ChildWorkflowExecutionStartedEventAttributes()
+							.withWorkflowExecution(new WorkflowExecution().withWorkflowId("child").withRunId("run"))),
+			event(11, EventType.StartChildWorkflowExecutionInitiated)
+					.withStartChildWorkflowExecutionInitiatedEventAttributes(
+							new StartChildWorkflowExecutionInitiatedEventAttributes().withWorkflowId("child")),
+			event(10, EventType.WorkflowExecutionSignaled)
+					.withWorkflowExecutionSignaledEventAttributes(
+							new WorkflowExecutionSignaledEventAttributes().withSignalName("signal")),
+			event(9, EventType.MarkerRecorded)
+					.withMarkerRecordedEventAttributes(
+							new MarkerRecordedEventAttributes().withMarkerName("marker").withDetails("2")),
+			event(8, EventType.ActivityTaskCompleted)
+					.withActivityTaskCompletedEventAttributes(
+							new ActivityTaskCompletedEventAttributes().withScheduledEventId(7L)),
+			event(7, EventType.ActivityTaskScheduled)
+					.withActivityTaskScheduledEventAttributes(
+							new ActivityTaskScheduledEventAttributes().withActivityId("activity")),
+			event(6, EventType.TimerFired)
+					.withTimerFiredEventAttributes(new TimerFiredEventAttributes().withTimerId("timer")),
+			event(5, EventType.TimerStarted)
+					.withTimerStartedEventAttributes(new TimerStartedEventAttributes().withTimerId("timer")),
+			event(4, EventType.MarkerRecorded)
+					.withMarkerRecordedEventAttributes(
+							new MarkerRecordedEventAttributes().withMarkerName("marker").withDetails("1")),
+			event(3, EventType.ActivityTaskFailed)
+					.withActivityTaskFailedEventAttributes(
+							new ActivityTaskFailedEventAttributes().withScheduledEventId(2L)),
+			event(2, EventType.ActivityTaskScheduled)
+					.withActivityTaskScheduledEventAttributes(
+							new ActivityTaskScheduledEventAttributes().withActivityId("activity")),
+			event(1, EventType.WorkflowExecutionStarted)
+					.withWorkflowExecutionStartedEventAttributes(new WorkflowExecutionStartedEventAttributes()));
+
+	private final WorkflowHistory history = new WorkflowHistoryImpl(EVENTS);
+
+	@Test
+	public void markerEvents_areTheRecordedMarkersMostRecentFirst() {
+		assertThat(ids(this.history.markerEvents("marker"))).containsExactly(9L, 4L);
+		assertThat(this.history.markerEvents("unknown")).isEmpty();
+	}
+
+	@Test
+	public void timerEvents_areAllTheEventsOfTheTimer() {
+		assertThat(ids(this.history.timerEvents("timer"))).containsExactly(6L, 5L);
+	}
+
+	@Test
+	public void activityEvents_includeTheEventsReferringToTheScheduledEvent() {
+		assertThat(ids(this.history.activityEvents("activity"))).containsExactly(8L, 7L, 3L, 2L);
+		assertThat(ids(this.history.scheduledActivityEvents(2L))).containsExactly(3L, 2L);
+	}
+
+	@Test
+	public void signalEvents_areTheSignalsReceived() {
+		assertThat(ids(this.history.signalEvents("signal"))).containsExactly(10L);
+	}
+
+	@Test
+	public void childWorkflowEvents_areAllTheEventsOfTheChildWorkflow() {
+		assertThat(ids(this.history.childWorkflowEvents("child"))).containsExactly(12L, 11L);
+	}
+
+	@Test
+	public void indexedEvents_areTheEventsOfTheHistory() {
+		assertThat(this.history.markerEvents("marker").get(0)).isSameAs(this.history.getEventById(9L));
+	}
+
+	@Test
+	public void offHeapEvents_areDecodedWhenAccessed() {
+		final WorkflowHistory offHeapHistory = new WorkflowHistoryImpl(EVENTS, 1);
+		for (final HistoryEvent event : EVENTS) {
+			final WorkflowEvent decoded = offHeapHistory.getEventById(event.getEventId());
+			assertThat(decoded.historyEvent()).isEqualTo(event).isNotSameAs(event);
+			assertThat(decoded.type()).isEqualTo(EventType.fromValue(event.getEventType()));
+		}
+		assertThat(ids(offHeapHistory.activityEvents("activity"))).containsExactly(8L, 7L, 3L, 2L);
+	}
+
+	@Test
+	public void offHeapEvents_areDecodedOncePerDecisionTask() {
+		final WorkflowHistoryImpl offHeapHistory = new WorkflowHistoryImpl(EVENTS, 1);
+		final WorkflowEvent decoded = offHeapHistory.getEventById(9L);
+
+		assertThat(offHeapHistory.getEventById(9L)).isSameAs(decoded);
+		assertThat(offHeapHistory.events().get(3)).isSameAs(decoded);
+		final WorkflowEvent decodedForAnotherTask = offHeapHistory.forDecisionTask().getEventById(9L);
+		assertThat(decodedForAnotherTask).isNotSameAs(decoded);
+		assertThat(decodedForAnotherTask.historyEvent()).isEqualTo(decoded.historyEvent());
+	}
+
+	@Test
+	public void offHeapThreshold_keepsTheSmallEventsInTheHeap() {
+		final HistoryEvent started = EVENTS.get(EVENTS.size() - 1);
+		final HistoryEvent largeMarker = event(2, EventType.MarkerRecorded)
+				.withMarkerRecordedEventAttributes(new MarkerRecordedEventAttributes().withMarkerName("large")
+						.withDetails(String.join("", Collections.nCopies(1000, "details"))));
+		final WorkflowHistoryImpl offHeapHistory = new WorkflowHistoryImpl(Arrays.asList(largeMarker, started), 1000);
+
+		assertThat(offHeapHistory.getEventById(1L).historyEvent()).isSameAs(started);
+		assertThat(offHeapHistory.getEventById(2L).historyEvent()).isEqualTo(largeMarker).isNotSameAs(largeMarker);
+
+		final HistoryEvent newerMarker = largeMarker.clone().withEventId(3L);
+		final WorkflowHistory extended = offHeapHistory.extend(Arrays.asList(newerMarker));
+		assertThat(ids(extended.markerEvents("large"))).containsExactly(3L, 2L);
+		assertThat(extended.getEventById(3L).historyEvent()).isEqualTo(newerMarker).isNotSameAs(newerMarker);
+	}
+
+	private static HistoryEvent event(final long id, final EventType type) {
+		return new HistoryEvent().withEventId(id).withEventType(type);
+	}
+
+	private static List<Long> ids(final List<WorkflowEvent> events) {
+		return events.stream().map(WorkflowEvent::id).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,119 @@
+package com.solambda.swiffer.api.internal.decisions;
+
+import static com.solambda.swiffer.test.Benchmarks.measure;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskCompletedEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityTaskScheduledEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.ActivityType;
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.amazonaws.services.simpleworkflow.model.HistoryEvent;
+import com.amazonaws.services.simpleworkflow.model.TimerFiredEventAttributes;
+import com.amazonaws.services.simpleworkflow.model.WorkflowExecutionSignaledEventAttributes;
+import com.solambda.swiffer.api.internal.VersionedName;
+import com.solambda.swiffer.api.internal.context.identifier.ActivityName;
+import com.solambda.swiffer.api.internal.context.identifier.ContextName;
+import com.solambda.swiffer.api.internal.context.identifier.SignalName;
+import com.solambda.swiffer.api.internal.context.identifier.TimerName;
+
+/**
+ * Benchmark of the lookup of the handlers of the 1,000 new events of a
+ * decision task, against the former approach allocating an
+ * {@link EventContextImpl}, a context name and an {@link EventHandlerType} per
+ * event to look up the handler in the map of the registry.
+ */
+public class WorkflowTemplateBenchmark {
+
+	private static final int NEW_EVENTS = 1_000;
+	private static final int NAMES = 10;
+
+	private final Map<EventHandlerType, EventHandler> handlers = new HashMap<>();
+	private final EventHandlerRegistry registry;
+	private final WorkflowTemplateImpl template;
+	private final List<WorkflowEvent> newEvents;
+
+	public WorkflowTemplateBenchmark() {
+		for (int i = 0; i < NAMES; i++) {
+			register(EventType.ActivityTaskCompleted, new ActivityName(new VersionedName("activity" + i, "1")));
+			register(EventType.WorkflowExecutionSignaled, new SignalName("signal" + i));
+			register(EventType.TimerFired, new TimerName("timer" + i));
+		}
+		this.registry = new EventHandlerRegistry(this.handlers);
+		this.template = new WorkflowTemplateImpl(new VersionedName("workflow", "1"), this.registry, null, null,
+				null);
+		this.newEvents = new WorkflowHistoryImpl(history()).events().subList(0, NEW_EVENTS);
+	}
+
+	@Test
+	public void lookUpTheEventHandlers() {
+		measure("allocate the keys, then look up the map", () -> {
+			int found = 0;
+			for (final WorkflowEvent event : this.newEvents) {
+				final EventContext eventContext = new EventContextImpl(null, event);
+				final EventHandlerType eventType = new EventHandlerType(eventContext.event().type(),
+						eventContext.name());
+				if (this.registry.get(eventType) != null) {
+					found++;
+				}
+			}
+			return found;
+		});
+		measure("look up the dispatch table", () -> {
+			int found = 0;
+			for (final WorkflowEvent event : this.newEvents) {
+				if (this.template.eventHandlerOf(event) != null) {
+					found++;
+				}
+			}
+			return found;
+		});
+	}
+
+	private void register(final EventType type, final ContextName name) {
+		this.handlers.put(new EventHandlerType(type, name), mock(EventHandler.class));
+	}
+
+	/**
+	 * @return a history whose 1,000 newest events are activity completions,
+	 *         signals and timers, each activity completion following its
+	 *         scheduling
+	 */
+	private static List<HistoryEvent> history() {
+		final List<HistoryEvent> events = new ArrayList<>();
+		long eventId = 0;
+		final int groups = NEW_EVENTS / 3 + 1;
+		final long[] scheduledEventIds = new long[groups];
+		for (int i = 0; i < groups; i++) {
+			scheduledEventIds[i] = ++eventId;
+			events.add(new HistoryEvent().withEventId(eventId)
+					.withEventType(EventType.ActivityTaskScheduled)
+					.withActivityTaskScheduledEventAttributes(new ActivityTaskScheduledEventAttributes()
+							.withActivityType(new ActivityType().withName("activity" + i % NAMES).withVersion("1"))));
+		}
+		for (int i = 0; i < groups; i++) {
+			events.add(new HistoryEvent().withEventId(++eventId)
+					.withEventType(EventType.ActivityTaskCompleted)
+					.withActivityTaskCompletedEventAttributes(new ActivityTaskCompletedEventAttributes()
+							.withScheduledEventId(scheduledEventIds[i])));
+			events.add(new HistoryEvent().withEventId(++eventId)
+					.withEventType(EventType.WorkflowExecutionSignaled)
+					.withWorkflowExecutionSignaledEventAttributes(new WorkflowExecutionSignaledEventAttributes()
+							.withSignalName("signal" + i % NAMES)));
+			events.add(new HistoryEvent().withEventId(++eventId)
+					.withEventType(EventType.TimerFired)
+					.withTimerFiredEventAttributes(new TimerFiredEventAttributes()
+							.withTimerId("timer" + i % NAMES)));
+		}
+		Collections.reverse(events);
+		return events;
+	}
+
+}
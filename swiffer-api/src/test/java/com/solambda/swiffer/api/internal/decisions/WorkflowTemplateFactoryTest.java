@@ -1,16 +1,27 @@
 package com.solambda.swiffer.api.internal.decisions;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
+import com.amazonaws.services.simpleworkflow.model.EventType;
+import com.solambda.swiffer.api.ActivityType;
+import com.solambda.swiffer.api.Input;
+import com.solambda.swiffer.api.OnActivitiesCompleted;
+import com.solambda.swiffer.api.OnSignalReceived;
 import com.solambda.swiffer.api.OnWorkflowStarted;
 import com.solambda.swiffer.api.WorkflowType;
 import com.solambda.swiffer.api.duration.DefaultDurationTransformer;
 import com.solambda.swiffer.api.duration.DurationTransformer;
+import com.solambda.swiffer.api.internal.events.EventCategory;
 import com.solambda.swiffer.api.mapper.DataMapper;
 import com.solambda.swiffer.api.mapper.JacksonDataMapper;
 import com.solambda.swiffer.api.retry.RetryPolicy;
@@ -34,6 +45,69 @@ public class WorkflowTemplateFactoryTest {
 		}
 	}
 
+	@ActivityType(name = "activity1", version = "1")
+	public static interface ActivityDef1 {
+
+	}
+
+	@WorkflowDef1
+	public static class BatchTemplate {
+		private final List<String> calls = new ArrayList<>();
+
+		@OnActivitiesCompleted(ActivityDef1.class)
+		public void completed(final List<String> results, @Input final List<String> inputs) {
+			this.calls.add("completed " + results + " from " + inputs);
+		}
+
+		@OnSignalReceived("signal1")
+		public void signaled(final String input) {
+			this.calls.add("signaled " + input);
+		}
+	}
+
+	@Test
+	public void createWorkflowTemplate_handlesTheBatchesOfEventsAfterTheSingleEvents() throws Exception {
+		final WorkflowTemplateFactory factory = new WorkflowTemplateFactory(dataMapper, durationTransformer, globalRetryPolicy);
+		final BatchTemplate batchTemplate = new BatchTemplate();
+		final WorkflowTemplate template = factory.createWorkflowTemplate(batchTemplate);
+		final DecisionTaskContext context = mock(DecisionTaskContext.class);
+		when(context.payloads()).thenReturn(new PayloadCache());
+		final List<WorkflowEvent> newEvents = Arrays.asList(
+				activityCompleted(1L, "\"in1\"", "\"out1\""),
+				signaled(2L, "\"hello\""),
+				activityCompleted(3L, "\"in2\"", "\"out2\""));
+		when(context.newEvents()).thenReturn(newEvents);
+
+		template.decide(context);
+
+		assertThat(batchTemplate.calls).containsExactly(
+				"signaled hello",
+				"completed [out1, out2] from [in1, in2]");
+	}
+
+	private static WorkflowEvent activityCompleted(final Long id, final String input, final String output) {
+		final WorkflowEvent event = mock(WorkflowEvent.class);
+		when(event.id()).thenReturn(id);
+		when(event.category()).thenReturn(EventCategory.ACTIVITY);
+		when(event.type()).thenReturn(EventType.ActivityTaskCompleted);
+		when(event.activityTypeAttribute()).thenReturn(new com.amazonaws.services.simpleworkflow.model.ActivityType()
+				.withName("activity1")
+				.withVersion("1"));
+		when(event.input()).thenReturn(input);
+		when(event.output()).thenReturn(output);
+		return event;
+	}
+
+	private static WorkflowEvent signaled(final Long id, final String input) {
+		final WorkflowEvent event = mock(WorkflowEvent.class);
+		when(event.id()).thenReturn(id);
+		when(event.category()).thenReturn(EventCategory.SIGNAL);
+		when(event.type()).thenReturn(EventType.WorkflowExecutionSignaled);
+		when(event.signalName()).thenReturn("signal1");
+		when(event.input()).thenReturn(input);
+		return event;
+	}
+
 	@Test
 	public void createWorkflowType_returnsACorrectVersionedName() throws Exception {
 		final WorkflowTemplateFactory factory = new WorkflowTemplateFactory(dataMapper, durationTransformer, globalRetryPolicy);
@@ -1,15 +1,23 @@
 package com.solambda.swiffer.api.internal.decisions;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import com.amazonaws.services.simpleworkflow.model.ActivityType;
 import com.amazonaws.services.simpleworkflow.model.CancelWorkflowExecutionFailedCause;
 import com.amazonaws.services.simpleworkflow.model.CompleteWorkflowExecutionFailedCause;
 import com.amazonaws.services.simpleworkflow.model.ContinueAsNewWorkflowExecutionFailedCause;
@@ -17,6 +25,8 @@ import com.amazonaws.services.simpleworkflow.model.EventType;
 import com.amazonaws.services.simpleworkflow.model.FailWorkflowExecutionFailedCause;
 import com.solambda.swiffer.api.duration.DurationTransformer;
 import com.solambda.swiffer.api.internal.VersionedName;
+import com.solambda.swiffer.api.internal.context.identifier.ActivityName;
+import com.solambda.swiffer.api.internal.context.identifier.SignalName;
 import com.solambda.swiffer.api.internal.events.EventCategory;
 import com.solambda.swiffer.api.mapper.DataMapper;
 import com.solambda.swiffer.api.retry.RetryPolicy;
@@ -112,4 +122,92 @@ public class WorkflowTemplateImplTest {
         verify(eventHandlerRegistry).getDefaultContinueAsNewWorkflowExecutionFailedHandler(cause);
         verify(defaultEventHandler).handleEvent(any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void decide_dispatchesTheEventsByTypeNameAndVersion() throws Exception {
+        EventHandler version1Handler = mock(EventHandler.class);
+        EventHandler version2Handler = mock(EventHandler.class);
+        EventHandler signalHandler = mock(EventHandler.class);
+        Map<EventHandlerType, EventHandler> handlers = new HashMap<>();
+        handlers.put(new EventHandlerType(EventType.ActivityTaskCompleted, new ActivityName(new VersionedName("activity", "1"))), version1Handler);
+        handlers.put(new EventHandlerType(EventType.ActivityTaskCompleted, new ActivityName(new VersionedName("activity", "2"))), version2Handler);
+        handlers.put(new EventHandlerType(EventType.WorkflowExecutionSignaled, new SignalName("signal")), signalHandler);
+        WorkflowTemplateImpl template = new WorkflowTemplateImpl(workflowType, new EventHandlerRegistry(handlers), dataMapper, durationTransformer, globalRetryPolicy);
+
+        WorkflowEvent activityEvent = mock(WorkflowEvent.class);
+        when(activityEvent.category()).thenReturn(EventCategory.ACTIVITY);
+        when(activityEvent.type()).thenReturn(EventType.ActivityTaskCompleted);
+        when(activityEvent.activityTypeAttribute()).thenReturn(new ActivityType().withName("activity").withVersion("2"));
+        WorkflowEvent signalEvent = mock(WorkflowEvent.class);
+        when(signalEvent.category()).thenReturn(EventCategory.SIGNAL);
+        when(signalEvent.type()).thenReturn(EventType.WorkflowExecutionSignaled);
+        when(signalEvent.signalName()).thenReturn("signal");
+        WorkflowEvent otherSignalEvent = mock(WorkflowEvent.class);
+        when(otherSignalEvent.category()).thenReturn(EventCategory.SIGNAL);
+        when(otherSignalEvent.type()).thenReturn(EventType.WorkflowExecutionSignaled);
+        when(otherSignalEvent.signalName()).thenReturn("other");
+        when(context.newEvents()).thenReturn(Arrays.asList(activityEvent, signalEvent, otherSignalEvent));
+
+        template.decide(context);
+
+        verify(version1Handler, never()).handleEvent(any(), any());
+        verify(version2Handler).handleEvent(any(), any());
+        verify(signalHandler, times(1)).handleEvent(any(), any());
+    }
+
+    @Test
+    public void decide_invokesTheBatchHandlersOnceWithAllTheirEvents() throws Exception {
+        BatchEventHandler batchHandler = mock(BatchEventHandler.class);
+        EventHandler signalHandler = mock(EventHandler.class);
+        Map<EventHandlerType, EventHandler> handlers = new HashMap<>();
+        handlers.put(new EventHandlerType(EventType.ActivityTaskCompleted, new ActivityName(new VersionedName("activity", "1"))), batchHandler);
+        handlers.put(new EventHandlerType(EventType.WorkflowExecutionSignaled, new SignalName("signal")), signalHandler);
+        WorkflowTemplateImpl template = new WorkflowTemplateImpl(workflowType, new EventHandlerRegistry(handlers), dataMapper, durationTransformer, globalRetryPolicy);
+
+        WorkflowEvent activityEvent1 = mockActivityEvent();
+        WorkflowEvent signalEvent = mock(WorkflowEvent.class);
+        when(signalEvent.category()).thenReturn(EventCategory.SIGNAL);
+        when(signalEvent.type()).thenReturn(EventType.WorkflowExecutionSignaled);
+        when(signalEvent.signalName()).thenReturn("signal");
+        WorkflowEvent activityEvent2 = mockActivityEvent();
+        when(context.newEvents()).thenReturn(Arrays.asList(activityEvent1, signalEvent, activityEvent2));
+
+        template.decide(context);
+
+        verify(batchHandler, times(1)).handleEvents(eq(context), eq(Arrays.asList(activityEvent1, activityEvent2)), any());
+        verify(batchHandler, never()).handleEvent(any(), any());
+        verify(signalHandler, times(1)).handleEvent(any(), any());
+    }
+
+    @Test
+    public void decide_invokesTheBatchHandlersAfterTheSingleEventHandlers() throws Exception {
+        BatchEventHandler batchHandler = mock(BatchEventHandler.class);
+        EventHandler signalHandler = mock(EventHandler.class);
+        Map<EventHandlerType, EventHandler> handlers = new HashMap<>();
+        handlers.put(new EventHandlerType(EventType.ActivityTaskCompleted, new ActivityName(new VersionedName("activity", "1"))), batchHandler);
+        handlers.put(new EventHandlerType(EventType.WorkflowExecutionSignaled, new SignalName("signal")), signalHandler);
+        WorkflowTemplateImpl template = new WorkflowTemplateImpl(workflowType, new EventHandlerRegistry(handlers), dataMapper, durationTransformer, globalRetryPolicy);
+
+        // the activity event precedes the signal event in the history
+        WorkflowEvent activityEvent = mockActivityEvent();
+        WorkflowEvent signalEvent = mock(WorkflowEvent.class);
+        when(signalEvent.category()).thenReturn(EventCategory.SIGNAL);
+        when(signalEvent.type()).thenReturn(EventType.WorkflowExecutionSignaled);
+        when(signalEvent.signalName()).thenReturn("signal");
+        when(context.newEvents()).thenReturn(Arrays.asList(activityEvent, signalEvent));
+
+        template.decide(context);
+
+        InOrder order = inOrder(signalHandler, batchHandler);
+        order.verify(signalHandler).handleEvent(any(), any());
+        order.verify(batchHandler).handleEvents(eq(context), eq(Arrays.asList(activityEvent)), any());
+    }
+
+    private WorkflowEvent mockActivityEvent() {
+        WorkflowEvent event = mock(WorkflowEvent.class);
+        when(event.category()).thenReturn(EventCategory.ACTIVITY);
+        when(event.type()).thenReturn(EventType.ActivityTaskCompleted);
+        when(event.activityTypeAttribute()).thenReturn(new ActivityType().withName("activity").withVersion("1"));
+        return event;
+    }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.function.Function;
 
 import org.junit.Test;
 
@@ -82,4 +83,21 @@ public class JacksonDataMapperTest {
 
         assertThat(object).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deserializer() throws Exception {
+        ComplexJavaObject complexJavaObject = new ComplexJavaObject("My String Value", 78.90f);
+        Function<String, ComplexJavaObject> deserializer = jacksonDataMapper.deserializer(ComplexJavaObject.class);
+
+        String serialization = jacksonDataMapper.serialize(complexJavaObject);
+        ComplexJavaObject deserialized = deserializer.apply(serialization);
+
+        assertThat(jacksonDataMapper.serialize(deserialized)).isEqualTo(serialization);
+        assertThat(deserializer.apply(null)).isNull();
+    }
+
+    @Test(expected = DataMapperException.class)
+    public void deserializer_invalidContent() throws Exception {
+        jacksonDataMapper.deserializer(Integer.class).apply("not a number");
+    }
+}
@@ -0,0 +1,48 @@
+package com.solambda.swiffer.test;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A minimal harness for the benchmarks of the test sources, which are not run
+ * by the build: run them with {@code mvn test -Dtest=<benchmark class>}.
+ * <p>
+ * The operation is warmed up before being measured, and its results are
+ * consumed so that the JIT cannot discard it.
+ */
+public class Benchmarks {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Benchmarks.class);
+
+	private static final int WARMUP_ITERATIONS = 200;
+	private static final int MEASURED_ITERATIONS = 200;
+
+	private static volatile int sink;
+
+	/**
+	 * @param name
+	 *            the name of the operation, for the report
+	 * @param operation
+	 *            the operation to measure
+	 * @return the average duration of the operation, in nanoseconds
+	 */
+	public static long measure(final String name, final Supplier<?> operation) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			consume(operation.get());
+		}
+		final long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			consume(operation.get());
+		}
+		final long average = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+		LOGGER.info("{}: {} us/op", name, average / 1_000);
+		return average;
+	}
+
+	private static void consume(final Object result) {
+		sink += System.identityHashCode(result);
+	}
+
+}